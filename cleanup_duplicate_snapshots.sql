@@ -13,6 +13,43 @@ GROUP BY loan_id
 HAVING COUNT(*) > 1
 ORDER BY loan_id;
 
+-- Point each loan at the snapshot being kept, since loans.current_snapshot_id must reference an existing snapshot
+UPDATE loans l
+SET current_snapshot_id = keep.id, current_snapshot_version = keep.version
+FROM (
+    SELECT DISTINCT ON (loan_id) id, loan_id, version
+    FROM repayment_snapshot
+    ORDER BY loan_id, created_at
+) keep
+WHERE keep.loan_id = l.id;
+
+-- Recompute loan_summary from the kept snapshot before its later snapshots go (the summary row would otherwise
+-- be deleted with the snapshot it describes); same figures as the V9 backfill
+UPDATE loan_summary ls
+SET snapshot_id = keep.id,
+    snapshot_version = keep.version,
+    snapshot_date = keep.snapshot_date,
+    initial_emi = CASE WHEN keep.parent_snapshot_id IS NULL AND keep.schedule_blob IS NULL THEN r.first_emi END,
+    apr = keep.apr,
+    outstanding_principal = keep.principal_balance,
+    months_remaining = keep.months_remaining,
+    total_interest = COALESCE(keep.total_interest - keep.capitalised_interest, r.paid_interest),
+    total_amount_payable = l.principal + COALESCE(keep.total_interest - keep.capitalised_interest, r.paid_interest),
+    updated_at = now()
+FROM (
+    SELECT DISTINCT ON (loan_id) *
+    FROM repayment_snapshot
+    ORDER BY loan_id, created_at
+) keep
+JOIN loans l ON l.id = keep.loan_id
+CROSS JOIN LATERAL (
+    SELECT (ARRAY_AGG(rr.emi ORDER BY rr.month_number, rr.created_at))[1] AS first_emi,
+        COALESCE(SUM(rr.interest_paid) FILTER (WHERE rr.emi > 0), 0) AS paid_interest
+    FROM repayment_row rr
+    WHERE rr.loan_id = keep.loan_id AND rr.snapshot_id = keep.id
+) r
+WHERE ls.loan_id = keep.loan_id AND ls.snapshot_id <> keep.id;
+
 -- Clean up by deleting duplicate snapshots (keep only version 1 per loan)
 DELETE FROM repayment_row
 WHERE snapshot_id IN (
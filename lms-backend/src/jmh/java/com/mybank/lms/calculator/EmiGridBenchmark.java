@@ -0,0 +1,60 @@
+package com.mybank.lms.calculator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 40 rate x 30 tenure EMI matrix: shared annuity factor tables versus one EMI solve per cell
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmiGridBenchmark {
+
+    @Param({"DAILY", "MONTHLY"})
+    private String compounding;
+
+    private final double[] rates = new double[40];
+    private final int[] tenures = new int[30];
+    private final LocalDate startDate = LocalDate.of(2024, 2, 1);
+    private LoanInput.CompoundingFrequency frequency;
+
+    @Setup
+    public void setUp() {
+        frequency = LoanInput.CompoundingFrequency.valueOf(compounding);
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = 6.0 + i * 0.25;
+        }
+        for (int j = 0; j < tenures.length; j++) {
+            tenures[j] = (j + 1) * 12;
+        }
+    }
+
+    @Benchmark
+    public EmiGrid emiGrid() {
+        return EmiGrid.calculate(5000000.0, rates, tenures, frequency, startDate, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public double perCellSolve() {
+        double sum = 0;
+        for (double rate : rates) {
+            for (int months : tenures) {
+                LoanInput input = new LoanInput();
+                input.setPrincipal(5000000.0);
+                input.setAnnualRate(rate);
+                input.setMonths(months);
+                input.setCompoundingFrequency(frequency);
+                input.setStartDate(startDate);
+                sum += LoanCalculator.calculateSummary(input).getInitialEMI();
+            }
+        }
+        return sum;
+    }
+}
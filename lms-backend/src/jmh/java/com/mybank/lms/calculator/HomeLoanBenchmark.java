@@ -0,0 +1,48 @@
+package com.mybank.lms.calculator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HomeLoan.calculateHomeLoan with phased disbursement and pre-EMI months
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HomeLoanBenchmark {
+
+    @Param({"12", "120", "240", "480"})
+    private int months;
+
+    @Param({"2", "12", "36"})
+    private int phases;
+
+    private LoanInput input;
+
+    @Setup
+    public void setUp() {
+        double principal = 6000000.0;
+        input = new LoanInput();
+        input.setPrincipal(principal);
+        input.setAnnualRate(8.75);
+        input.setMonths(months);
+        input.setLoanIssueDate(LocalDate.of(2024, 1, 10));
+        input.setStartDate(LocalDate.of(2024, 2, 10));
+
+        // One phase a month in date order; every call sorts its own copy, so each invocation does the same work
+        LocalDate date = LocalDate.of(2024, 1, 10);
+        for (int i = 0; i < phases; i++) {
+            input.addDisbursementPhase(date.plusMonths(i), principal / phases, "Phase " + (i + 1));
+        }
+    }
+
+    @Benchmark
+    public LoanOutput calculateHomeLoan() {
+        return HomeLoan.calculateHomeLoan(input);
+    }
+}
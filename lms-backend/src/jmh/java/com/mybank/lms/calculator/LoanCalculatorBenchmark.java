@@ -0,0 +1,64 @@
+package com.mybank.lms.calculator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoanCalculator.calculateLoan across tenures, compounding and moratorium settings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanCalculatorBenchmark {
+
+    @Param({"12", "60", "240", "480"})
+    private int months;
+
+    @Param({"DAILY", "MONTHLY"})
+    private String compounding;
+
+    @Param({"NONE", "FULL", "INTEREST_ONLY", "PARTIAL"})
+    private String moratorium;
+
+    private LoanInput input;
+    private CalculationContext context;
+
+    @Setup
+    public void setUp() {
+        input = new LoanInput();
+        input.setPrincipal(5000000.0);
+        input.setAnnualRate(8.5);
+        input.setMonths(months);
+        input.setCompoundingFrequency(LoanInput.CompoundingFrequency.valueOf(compounding));
+        input.setLoanIssueDate(LocalDate.of(2024, 1, 20));
+        input.setStartDate(LocalDate.of(2024, 2, 1));
+
+        if (!"NONE".equals(moratorium)) {
+            input.setMoratoriumMonths(Math.min(6, months / 4));
+            input.setMoratoriumType(LoanInput.MoratoriumType.valueOf(moratorium));
+            input.setPartialPaymentEMIDuringMoratorium(20000.0);
+        }
+        context = new CalculationContext();
+    }
+
+    @Benchmark
+    public LoanOutput calculateLoan() {
+        return LoanCalculator.calculateLoan(input);
+    }
+
+    @Benchmark
+    public LoanSummary calculateSummary() {
+        return LoanCalculator.calculateSummary(input);
+    }
+
+    // Same loan through a reused context: compare allocation rates with -prof gc
+    @Benchmark
+    public LoanOutput calculateLoanWithContext() {
+        return LoanCalculator.calculateLoan(input, context);
+    }
+}
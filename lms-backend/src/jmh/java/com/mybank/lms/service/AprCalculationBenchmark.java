@@ -0,0 +1,54 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.calculator.LoanCalculator;
+import com.mybank.lms.calculator.LoanInput;
+import com.mybank.lms.calculator.LoanOutput;
+import com.mybank.lms.model.dto.LoanInputDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AprCalculationService.calculateAPR over a precomputed schedule
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AprCalculationBenchmark {
+
+    @Param({"12", "60", "240", "480"})
+    private int months;
+
+    private final AprCalculationService aprCalculationService = new AprCalculationService();
+    private LoanInput input;
+    private LoanOutput output;
+    private List<LoanInputDTO.LoanChargeDTO> charges;
+
+    @Setup
+    public void setUp() {
+        input = new LoanInput();
+        input.setPrincipal(5000000.0);
+        input.setAnnualRate(8.5);
+        input.setMonths(months);
+        input.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        input.setStartDate(LocalDate.of(2024, 2, 1));
+        output = LoanCalculator.calculateLoan(input);
+
+        charges = Arrays.asList(
+            new LoanInputDTO.LoanChargeDTO("PROCESSING_FEE", "BANK", false, new BigDecimal("25000")),
+            new LoanInputDTO.LoanChargeDTO("INSURANCE", "INSURER", true, new BigDecimal("500"))
+        );
+    }
+
+    @Benchmark
+    public BigDecimal calculateAPR() {
+        return aprCalculationService.calculateAPR(input, output, charges);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.model.dto.RepaymentScheduleDTO;
+import com.mybank.lms.model.entity.RepaymentRowEntity;
+import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RepaymentSnapshotService.mapToRepaymentScheduleDTO for persisted schedules of different lengths
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleMappingBenchmark {
+
+    @Param({"12", "60", "240", "480"})
+    private int months;
+
+    private RepaymentSnapshotEntity snapshot;
+    private List<RepaymentRowEntity> rows;
+
+    @Setup
+    public void setUp() {
+        snapshot = new RepaymentSnapshotEntity();
+        snapshot.setId(UUID.randomUUID());
+        snapshot.setSnapshotDate(LocalDate.of(2024, 1, 1));
+        snapshot.setPrincipalBalance(new BigDecimal("5000000.00"));
+        snapshot.setMonthsRemaining(months);
+        snapshot.setAnnualRate(new BigDecimal("8.50"));
+        snapshot.setRateType("FLOATING");
+        snapshot.setApr(new BigDecimal("8.90"));
+        snapshot.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        rows = new ArrayList<>(months);
+        BigDecimal balance = snapshot.getPrincipalBalance();
+        BigDecimal principalPaid = balance.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+        for (int i = 1; i <= months; i++) {
+            balance = balance.subtract(principalPaid);
+            RepaymentRowEntity row = new RepaymentRowEntity();
+            row.setId(UUID.randomUUID());
+            row.setSnapshot(snapshot);
+            row.setMonthNumber(i);
+            row.setPaymentDate(LocalDate.of(2024, 2, 1).plusMonths(i - 1));
+            row.setEmi(new BigDecimal("43391.16"));
+            row.setPrincipalPaid(principalPaid);
+            row.setInterestPaid(new BigDecimal("43391.16").subtract(principalPaid));
+            row.setRemainingBalance(balance);
+            row.setPaymentType("NORMAL");
+            row.setCreatedAt(snapshot.getCreatedAt());
+            rows.add(row);
+        }
+    }
+
+    @Benchmark
+    public RepaymentScheduleDTO mapToRepaymentScheduleDTO() {
+        return RepaymentSnapshotService.mapToRepaymentScheduleDTO(snapshot, rows);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mybank.lms.calculator;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed daily-compounding accrual factors for one annual rate.
+ *
+ * For a month of {@code days} days in a year of {@code yearLength} days the balance grows by
+ * {@code (1 + rate/yearLength)^days}; the table stores {@code growth - 1} so the month's interest
+ * is a single multiply instead of a per-day loop.
+ */
+public final class AccrualFactorTable {
+
+    public static final int MAX_DAYS = 31;
+    private static final int MAX_CACHED_RATES = 4096;
+
+    private static final ConcurrentHashMap<Long, AccrualFactorTable> TABLES = new ConcurrentHashMap<>();
+
+    private final double annualRate;
+    private final double[] accrual365;
+    private final double[] accrual366;
+
+    private AccrualFactorTable(double annualRate) {
+        this.annualRate = annualRate;
+        this.accrual365 = buildAccruals(annualRate, 365);
+        this.accrual366 = buildAccruals(annualRate, 366);
+    }
+
+    /**
+     * Shared table for the given annual rate (in percent). Tables are immutable and cached per rate.
+     */
+    public static AccrualFactorTable forRate(double annualRate) {
+        Long key = Double.doubleToLongBits(annualRate);
+        AccrualFactorTable table = TABLES.get(key);
+        if (table == null) {
+            if (TABLES.size() >= MAX_CACHED_RATES) {
+                TABLES.clear();
+            }
+            table = TABLES.computeIfAbsent(key, k -> new AccrualFactorTable(annualRate));
+        }
+        return table;
+    }
+
+    private static double[] buildAccruals(double annualRate, int yearLength) {
+        double dailyRate = annualRate / yearLength / 100.0;
+        double logGrowth = Math.log1p(dailyRate);
+        double[] accruals = new double[MAX_DAYS + 1];
+        for (int d = 1; d <= MAX_DAYS; d++) {
+            accruals[d] = Math.expm1(logGrowth * d);
+        }
+        return accruals;
+    }
+
+    public double getAnnualRate() { return annualRate; }
+
+    /**
+     * Interest accrued per unit of balance over {@code days} days of daily compounding,
+     * i.e. {@code (1 + rate/yearLength)^days - 1}. Days above 31 are capped, as in the per-day loop.
+     */
+    public double accrualFactor(int yearLength, int days) {
+        int d = days > MAX_DAYS ? MAX_DAYS : days;
+        return yearLength == 366 ? accrual366[d] : accrual365[d];
+    }
+
+    public double growthFactor(int yearLength, int days) {
+        return 1.0 + accrualFactor(yearLength, days);
+    }
+
+    /**
+     * Interest accrued on {@code balance} over {@code days} days of daily compounding
+     */
+    public double accrueInterest(double balance, int yearLength, int days) {
+        return balance * accrualFactor(yearLength, days);
+    }
+}
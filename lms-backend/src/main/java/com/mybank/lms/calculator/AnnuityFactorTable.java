@@ -0,0 +1,64 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+
+/**
+ * Annuity factors for one annual rate and first installment month, for every tenure up to {@code maxMonths}.
+ *
+ * With no moratorium the balance after {@code n} installments is {@code principal * growth(n) - emi * annuity(n)},
+ * where {@code growth(n)} is the product of the monthly growth factors and {@code annuity(n)} the value at month
+ * {@code n} of one rupee paid each month. The EMI that clears the loan is therefore
+ * {@code principal * growth(n) / annuity(n)}: the closed form under monthly compounding, and the root the
+ * daily-compounding solver converges to. Both arrays are filled in one pass over the calendar, so every tenure
+ * for the rate costs a single division.
+ */
+public final class AnnuityFactorTable {
+
+    private final double annualRate;
+    private final double[] growth;
+    private final double[] annuity;
+
+    private AnnuityFactorTable(double annualRate, double[] growth, double[] annuity) {
+        this.annualRate = annualRate;
+        this.growth = growth;
+        this.annuity = annuity;
+    }
+
+    public static AnnuityFactorTable build(double annualRate, LoanInput.CompoundingFrequency compounding,
+                                           LocalDate startDate, int maxMonths) {
+        double[] growth = new double[maxMonths + 1];
+        double[] annuity = new double[maxMonths + 1];
+        growth[0] = 1.0;
+
+        if (compounding == LoanInput.CompoundingFrequency.MONTHLY) {
+            double monthlyRate = annualRate / 12 / 100.0;
+            for (int n = 1; n <= maxMonths; n++) {
+                growth[n] = Math.pow(1 + monthlyRate, n);
+                annuity[n] = monthlyRate != 0 ? (growth[n] - 1) / monthlyRate : n;
+            }
+        } else {
+            AccrualFactorTable accruals = AccrualFactorTable.forRate(annualRate);
+            int monthOrdinal = CalendarTable.monthOrdinal(startDate);
+            for (int n = 1; n <= maxMonths; n++, monthOrdinal++) {
+                double monthGrowth = accruals.growthFactor(CalendarTable.lengthOfYear(monthOrdinal),
+                    CalendarTable.lengthOfMonth(monthOrdinal));
+                growth[n] = growth[n - 1] * monthGrowth;
+                annuity[n] = annuity[n - 1] * monthGrowth + 1;
+            }
+        }
+        return new AnnuityFactorTable(annualRate, growth, annuity);
+    }
+
+    public double getAnnualRate() { return annualRate; }
+    public int getMaxMonths() { return growth.length - 1; }
+
+    public double growth(int months) { return growth[months]; }
+    public double annuity(int months) { return annuity[months]; }
+
+    /**
+     * EMI that repays {@code principal} in {@code months} installments
+     */
+    public double emi(double principal, int months) {
+        return principal * growth[months] / annuity[months];
+    }
+}
@@ -0,0 +1,173 @@
+package com.mybank.lms.calculator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Annual percentage rate as the XIRR of a loan's dated cash flows.
+ *
+ * The rate {@code x} solves {@code sum(amount_i * (1 + x)^(-t_i)) = 0}, with {@code t_i} the actual/365
+ * years from the earliest flow. Newton's method runs from a warm start (normally the effective rate of the
+ * nominal rate) inside a bracket where the present value changes sign; a step that leaves the bracket is
+ * replaced by bisection, so the solve cannot diverge. Iterations count present-value evaluations.
+ */
+public final class AprSolver {
+
+    public static final int MAX_ITERATIONS = 60;
+
+    private static final double LOWER_BOUND = -0.99;
+    private static final double MAX_UPPER_BOUND = 1e4;
+    private static final double RATE_TOLERANCE = 1e-12;
+
+    // Flows per leaf task in batch mode
+    private static final int LEAF_SIZE = 16;
+
+    private AprSolver() {}
+
+    /**
+     * Effective annual rate (fraction) of a nominal annual percentage compounded monthly
+     */
+    public static double effectiveAnnualRate(double nominalPercent) {
+        return Math.expm1(12 * Math.log1p(nominalPercent / 1200.0));
+    }
+
+    public static Solution solve(CashFlows flows, double guess) {
+        int n = flows.size();
+        double[] years = new double[n];
+        double[] amounts = new double[n];
+        int firstDay = Integer.MAX_VALUE;
+        boolean hasInflow = false;
+        boolean hasOutflow = false;
+        double scale = 0;
+        for (int i = 0; i < n; i++) {
+            firstDay = Math.min(firstDay, flows.getEpochDay(i));
+            amounts[i] = flows.getAmount(i);
+            hasInflow |= amounts[i] > 0;
+            hasOutflow |= amounts[i] < 0;
+            scale = Math.max(scale, Math.abs(amounts[i]));
+        }
+        if (!hasInflow || !hasOutflow) {
+            return new Solution(Double.NaN, 0, false);
+        }
+        for (int i = 0; i < n; i++) {
+            years[i] = (flows.getEpochDay(i) - firstDay) / 365.0;
+        }
+        double valueTolerance = scale * 1e-12;
+
+        // Bracket the root between the lower bound and an upper bound grown from the guess
+        int iterations = 0;
+        double[] slope = new double[1];
+        double lo = LOWER_BOUND;
+        double fLo = presentValue(years, amounts, lo, slope);
+        double hi = Math.max(2 * guess, 1.0);
+        double fHi = presentValue(years, amounts, hi, slope);
+        iterations += 2;
+        while (Math.signum(fHi) == Math.signum(fLo) && hi < MAX_UPPER_BOUND) {
+            lo = hi;
+            fLo = fHi;
+            hi *= 10;
+            fHi = presentValue(years, amounts, hi, slope);
+            iterations++;
+        }
+        if (Math.signum(fHi) == Math.signum(fLo)) {
+            return new Solution(Double.NaN, iterations, false);
+        }
+
+        double x = guess > lo && guess < hi ? guess : (lo + hi) / 2;
+        while (iterations < MAX_ITERATIONS) {
+            iterations++;
+            double f = presentValue(years, amounts, x, slope);
+            if (Math.abs(f) <= valueTolerance) {
+                return new Solution(x, iterations, true);
+            }
+            if (Math.signum(f) == Math.signum(fLo)) {
+                lo = x;
+                fLo = f;
+            } else {
+                hi = x;
+            }
+            double next = x - f / slope[0];
+            if (!(next > lo && next < hi)) {
+                next = (lo + hi) / 2;
+            }
+            if (Math.abs(next - x) <= RATE_TOLERANCE * (1 + Math.abs(x))) {
+                return new Solution(next, iterations, true);
+            }
+            x = next;
+        }
+        return new Solution(x, iterations, false);
+    }
+
+    /**
+     * Solve many loans on a fork/join pool; results are in input order
+     */
+    public static Solution[] solveAll(CashFlows[] flows, double[] guesses, ForkJoinPool pool) {
+        Solution[] solutions = new Solution[flows.length];
+        if (flows.length > 0) {
+            pool.invoke(new SolveRange(flows, guesses, solutions, 0, flows.length));
+        }
+        return solutions;
+    }
+
+    // Present value at rate x; slopeOut[0] receives its derivative with respect to x
+    private static double presentValue(double[] years, double[] amounts, double x, double[] slopeOut) {
+        double logGrowth = Math.log1p(x);
+        double value = 0;
+        double slope = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            double discounted = amounts[i] * Math.exp(-years[i] * logGrowth);
+            value += discounted;
+            slope -= years[i] * discounted;
+        }
+        slopeOut[0] = slope / (1 + x);
+        return value;
+    }
+
+    private static class SolveRange extends RecursiveAction {
+        private final CashFlows[] flows;
+        private final double[] guesses;
+        private final Solution[] solutions;
+        private final int from;
+        private final int to;
+
+        SolveRange(CashFlows[] flows, double[] guesses, Solution[] solutions, int from, int to) {
+            this.flows = flows;
+            this.guesses = guesses;
+            this.solutions = solutions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    solutions[i] = solve(flows[i], guesses[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SolveRange(flows, guesses, solutions, from, mid),
+                      new SolveRange(flows, guesses, solutions, mid, to));
+        }
+    }
+
+    /**
+     * Annual rate as a fraction, the present-value evaluations it took and whether the solve converged
+     */
+    public static class Solution {
+        private final double rate;
+        private final int iterations;
+        private final boolean converged;
+
+        public Solution(double rate, int iterations, boolean converged) {
+            this.rate = rate;
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+        public double getRate() { return rate; }
+        public int getIterations() { return iterations; }
+        public boolean isConverged() { return converged; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mybank.lms.calculator;
+
+/**
+ * Reusable scratch state for calculating many loans one after another on the same thread.
+ *
+ * The context holds the schedule cursor, the start checkpoint, the BPI and one {@link LoanOutput} and
+ * {@link LoanSummary}, and resets them for each loan. After the first few loans the schedule buffer has
+ * grown to the longest tenure seen, so calculating through a context allocates almost nothing. A result
+ * returned by {@link LoanCalculator#calculateLoan(LoanInput, CalculationContext)} or
+ * {@link LoanCalculator#calculateSummary(LoanInput, CalculationContext)} belongs to the context and is
+ * overwritten by the next calculation; take a {@link LoanOutput#copy()} to keep it. A context must not be
+ * shared between threads; {@link #current()} gives each thread its own.
+ *
+ * {@link LoanBatchCalculator} and {@link LoanResultCache} misses calculate in {@link #current()} and copy the
+ * result out, so a caller still using a result or cursor of {@link #current()} must finish with it before
+ * calling them.
+ */
+public final class CalculationContext {
+
+    private static final ThreadLocal<CalculationContext> CURRENT = ThreadLocal.withInitial(CalculationContext::new);
+
+    private final ScheduleCheckpoint start = new ScheduleCheckpoint(0, 0, null, 0);
+    private final ScheduleCursor cursor = new ScheduleCursor();
+    private final LoanOutput.BrokenPeriodInterest brokenPeriodInterest = new LoanOutput.BrokenPeriodInterest();
+    private LoanOutput output;
+    private LoanSummary summary;
+
+    // Last accrual table used, so repeated rates skip the shared cache lookup
+    private double accrualRate;
+    private AccrualFactorTable accruals;
+
+    // EMI solver results: d(final balance)/d(EMI) of the last simulation and balance simulations run
+    double slope;
+    int solverIterations;
+
+    /**
+     * The calling thread's context
+     */
+    public static CalculationContext current() {
+        return CURRENT.get();
+    }
+
+    ScheduleCheckpoint startOf(LoanInput input) {
+        return start.reset(0, input.getPrincipal(), input.getStartDate(), 0);
+    }
+
+    ScheduleCursor cursor() {
+        return cursor;
+    }
+
+    LoanOutput.BrokenPeriodInterest brokenPeriodInterest() {
+        return brokenPeriodInterest;
+    }
+
+    AccrualFactorTable accruals(double annualRate) {
+        if (accruals == null || Double.compare(annualRate, accrualRate) != 0) {
+            accruals = AccrualFactorTable.forRate(annualRate);
+            accrualRate = annualRate;
+        }
+        return accruals;
+    }
+
+    LoanOutput output() {
+        if (output == null) {
+            output = new LoanOutput();
+        } else {
+            output.reset();
+        }
+        return output;
+    }
+
+    LoanSummary summary() {
+        if (summary == null) {
+            summary = new LoanSummary();
+        } else {
+            summary.reset();
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mybank.lms.calculator;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Shared month table for the calculator's date arithmetic.
+ *
+ * Months are addressed by ordinal ({@code (year - 1970) * 12 + month - 1}). Inside 1970-2150 month length,
+ * year length and first epoch day are array reads; outside that range they are computed via {@link YearMonth}.
+ * Schedule loops keep an ordinal plus a day-of-month and step with {@link #nextDayOfMonth(int, int)},
+ * which reproduces repeated {@code LocalDate.plusMonths(1)} (the day sticks once clamped to a short month).
+ */
+public final class CalendarTable {
+
+    public static final int FIRST_YEAR = 1970;
+    public static final int LAST_YEAR = 2150;
+
+    private static final int MONTHS = (LAST_YEAR - FIRST_YEAR + 1) * 12;
+    private static final byte[] MONTH_LENGTH = new byte[MONTHS];
+    private static final short[] YEAR_LENGTH = new short[MONTHS];
+    private static final int[] FIRST_EPOCH_DAY = new int[MONTHS];
+
+    static {
+        for (int ordinal = 0; ordinal < MONTHS; ordinal++) {
+            YearMonth month = YearMonth.of(FIRST_YEAR + ordinal / 12, ordinal % 12 + 1);
+            MONTH_LENGTH[ordinal] = (byte) month.lengthOfMonth();
+            YEAR_LENGTH[ordinal] = (short) month.lengthOfYear();
+            FIRST_EPOCH_DAY[ordinal] = (int) month.atDay(1).toEpochDay();
+        }
+    }
+
+    private CalendarTable() {}
+
+    public static int monthOrdinal(LocalDate date) {
+        return (date.getYear() - FIRST_YEAR) * 12 + date.getMonthValue() - 1;
+    }
+
+    public static int lengthOfMonth(int ordinal) {
+        return inTable(ordinal) ? MONTH_LENGTH[ordinal] : yearMonth(ordinal).lengthOfMonth();
+    }
+
+    public static int lengthOfYear(int ordinal) {
+        return inTable(ordinal) ? YEAR_LENGTH[ordinal] : yearMonth(ordinal).lengthOfYear();
+    }
+
+    /**
+     * Epoch day of {@code dayOfMonth} in the given month. Throws {@link DateTimeException} for a day the
+     * month does not have, like {@code LocalDate.withDayOfMonth}.
+     */
+    public static int epochDay(int ordinal, int dayOfMonth) {
+        if (inTable(ordinal)) {
+            if (dayOfMonth < 1 || dayOfMonth > MONTH_LENGTH[ordinal]) {
+                throw new DateTimeException("Invalid date: day " + dayOfMonth + " of " + yearMonth(ordinal));
+            }
+            return FIRST_EPOCH_DAY[ordinal] + dayOfMonth - 1;
+        }
+        return (int) yearMonth(ordinal).atDay(dayOfMonth).toEpochDay();
+    }
+
+    /**
+     * Day of month after moving from {@code dayOfMonth} to month {@code nextOrdinal}, clamped to its length
+     */
+    public static int nextDayOfMonth(int nextOrdinal, int dayOfMonth) {
+        return Math.min(dayOfMonth, lengthOfMonth(nextOrdinal));
+    }
+
+    public static LocalDate toLocalDate(int ordinal, int dayOfMonth) {
+        return yearMonth(ordinal).atDay(dayOfMonth);
+    }
+
+    private static boolean inTable(int ordinal) {
+        return ordinal >= 0 && ordinal < MONTHS;
+    }
+
+    private static YearMonth yearMonth(int ordinal) {
+        return YearMonth.of(FIRST_YEAR + Math.floorDiv(ordinal, 12), Math.floorMod(ordinal, 12) + 1);
+    }
+}
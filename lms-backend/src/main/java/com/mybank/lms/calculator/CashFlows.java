@@ -0,0 +1,73 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Dated cash flows of a loan from the lender's side, for {@link AprSolver}.
+ *
+ * Disbursements are negative and everything the borrower pays is positive. As a {@link ScheduleSink} it
+ * records each schedule row's EMI on its payment date, plus a fixed per-installment amount for recurring
+ * charges; rows without a date or payment are skipped.
+ */
+public final class CashFlows implements ScheduleSink {
+
+    private int size;
+    private int[] epochDays;
+    private double[] amounts;
+    private double perInstallment;
+
+    public CashFlows() {
+        this(16);
+    }
+
+    public CashFlows(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        epochDays = new int[capacity];
+        amounts = new double[capacity];
+    }
+
+    /**
+     * Amount added to every installment recorded from a schedule (e.g. recurring charges)
+     */
+    public void setPerInstallment(double perInstallment) {
+        this.perInstallment = perInstallment;
+    }
+
+    public void add(LocalDate date, double amount) {
+        add((int) date.toEpochDay(), amount);
+    }
+
+    public void add(int epochDay, double amount) {
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        epochDays[size] = epochDay;
+        amounts[size] = amount;
+        size++;
+    }
+
+    @Override
+    public void add(int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        double amount = emiAmount + perInstallment;
+        if (paymentEpochDay != ScheduleBuffer.NO_DATE && amount != 0) {
+            add(paymentEpochDay, amount);
+        }
+    }
+
+    /**
+     * Record every row of a stored schedule
+     */
+    public void addSchedule(ScheduleBuffer schedule) {
+        for (int i = 0; i < schedule.size(); i++) {
+            add(schedule.getMonthNumber(i), schedule.getEmi(i), 0, 0, 0, 0, schedule.getEpochDay(i), schedule.getPaymentTypeCode(i));
+        }
+    }
+
+    public int size() { return size; }
+    public int getEpochDay(int index) { return epochDays[index]; }
+    public double getAmount(int index) { return amounts[index]; }
+}
@@ -0,0 +1,99 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * EMI matrix for one principal over a set of annual rates and tenures.
+ *
+ * Each rate builds one {@link AnnuityFactorTable} up to the longest tenure and reads every tenure from it;
+ * rates are spread over a fork/join pool. Cells match the initial EMI of {@link LoanCalculator} for a loan
+ * without moratorium or BPI. A zero rate yields {@code principal / months}.
+ */
+public class EmiGrid {
+
+    // Rates per leaf task; one rate is a single calendar pass, so small leaves only add scheduling cost
+    private static final int LEAF_SIZE = 4;
+
+    private final double principal;
+    private final double[] annualRates;
+    private final int[] tenures;
+    private final double[][] emis;
+
+    private EmiGrid(double principal, double[] annualRates, int[] tenures, double[][] emis) {
+        this.principal = principal;
+        this.annualRates = annualRates;
+        this.tenures = tenures;
+        this.emis = emis;
+    }
+
+    public static EmiGrid calculate(double principal, double[] annualRates, int[] tenures,
+                                    LoanInput.CompoundingFrequency compounding, LocalDate startDate, ForkJoinPool pool) {
+        int maxMonths = 0;
+        for (int months : tenures) {
+            if (months < 1) {
+                throw new IllegalArgumentException("Tenure must be at least 1 month: " + months);
+            }
+            maxMonths = Math.max(maxMonths, months);
+        }
+
+        double[][] emis = new double[annualRates.length][tenures.length];
+        if (annualRates.length > 0 && tenures.length > 0) {
+            pool.invoke(new CalculateRates(principal, annualRates, tenures, compounding, startDate, maxMonths,
+                emis, 0, annualRates.length));
+        }
+        return new EmiGrid(principal, annualRates.clone(), tenures.clone(), emis);
+    }
+
+    public double getPrincipal() { return principal; }
+    public int getRateCount() { return annualRates.length; }
+    public int getTenureCount() { return tenures.length; }
+    public double getAnnualRate(int rateIndex) { return annualRates[rateIndex]; }
+    public int getTenure(int tenureIndex) { return tenures[tenureIndex]; }
+
+    public double getEmi(int rateIndex, int tenureIndex) {
+        return emis[rateIndex][tenureIndex];
+    }
+
+    private static class CalculateRates extends RecursiveAction {
+        private final double principal;
+        private final double[] annualRates;
+        private final int[] tenures;
+        private final LoanInput.CompoundingFrequency compounding;
+        private final LocalDate startDate;
+        private final int maxMonths;
+        private final double[][] emis;
+        private final int from;
+        private final int to;
+
+        CalculateRates(double principal, double[] annualRates, int[] tenures, LoanInput.CompoundingFrequency compounding,
+                       LocalDate startDate, int maxMonths, double[][] emis, int from, int to) {
+            this.principal = principal;
+            this.annualRates = annualRates;
+            this.tenures = tenures;
+            this.compounding = compounding;
+            this.startDate = startDate;
+            this.maxMonths = maxMonths;
+            this.emis = emis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int r = from; r < to; r++) {
+                    AnnuityFactorTable factors = AnnuityFactorTable.build(annualRates[r], compounding, startDate, maxMonths);
+                    for (int t = 0; t < tenures.length; t++) {
+                        emis[r][t] = factors.emi(principal, tenures[t]);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CalculateRates(principal, annualRates, tenures, compounding, startDate, maxMonths, emis, from, mid),
+                      new CalculateRates(principal, annualRates, tenures, compounding, startDate, maxMonths, emis, mid, to));
+        }
+    }
+}
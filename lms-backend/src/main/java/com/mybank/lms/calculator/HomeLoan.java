@@ -1,29 +1,45 @@
 package com.mybank.lms.calculator;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 /**
  * Home Loan Calculator with phased disbursement and pre-EMI payments
  */
 public class HomeLoan {
     
+    /**
+     * Pre-EMI rows for each disbursement phase followed by the EMI schedule from full disbursement,
+     * written into one output in a single pass. Phases are taken in date order from a sorted copy; the
+     * input's list is not modified.
+     */
     public static LoanOutput calculateHomeLoan(LoanInput input) {
-        LoanOutput output = new LoanOutput();
-        
+        return calculateHomeLoan(input, new CalculationContext(), new LoanOutput());
+    }
+    
+    /**
+     * {@link #calculateHomeLoan(LoanInput)} into the context's reusable output, which is overwritten by the
+     * next calculation on the same context
+     */
+    public static LoanOutput calculateHomeLoan(LoanInput input, CalculationContext context) {
+        return calculateHomeLoan(input, context, context.output());
+    }
+    
+    private static LoanOutput calculateHomeLoan(LoanInput input, CalculationContext context, LoanOutput output) {
         if (!input.hasPhasesDisbursement()) {
-            return calculateLoan(input);
+            return LoanCalculator.calculateLoan(input, context, output);
         }
         
-        input.getDisbursementPhases().sort(Comparator.comparing(LoanInput.DisbursementPhase::getDisbursementDate));
-        
-        generateDisbursementScheduleAndPreEMI(input, output);
+        List<LoanInput.DisbursementPhase> phases = new ArrayList<>(input.getDisbursementPhases());
+        phases.sort(Comparator.comparing(LoanInput.DisbursementPhase::getDisbursementDate));
         
-        LocalDate fullDisbursementDate = getFullDisbursementDate(input);
-        int preEmiMonthCount = output.getPreEmiPayments().size();
-        generatePostDisbursementEMISchedule(input, output, fullDisbursementDate, preEmiMonthCount);
+        LocalDate fullDisbursementDate = getFullDisbursementDate(phases);
+        generateDisbursementScheduleAndPreEMI(input, phases, fullDisbursementDate, output);
+        generatePostDisbursementEMISchedule(input, output, fullDisbursementDate, context);
         
+        output.setWholePaise(input.isPaiseArithmetic());
         output.calculateTotals();
         
         return output;
@@ -33,10 +49,11 @@ public class HomeLoan {
         return LoanCalculator.calculateLoan(input);
     }
     
-    private static void generateDisbursementScheduleAndPreEMI(LoanInput input, LoanOutput output) {
+    private static void generateDisbursementScheduleAndPreEMI(LoanInput input, List<LoanInput.DisbursementPhase> phases,
+                                                              LocalDate fullDisbursementDate, LoanOutput output) {
         double cumulativeDisbursed = 0.0;
 
-        for (LoanInput.DisbursementPhase phase : input.getDisbursementPhases()) {
+        for (LoanInput.DisbursementPhase phase : phases) {
             cumulativeDisbursed += phase.getAmount();
             output.getDisbursementSchedule().add(new LoanOutput.DisbursementEntry(
                 phase.getDisbursementDate(),
@@ -50,48 +67,55 @@ public class HomeLoan {
         int globalMonthNumber = 1;
         int maxPreEmiMonths = 1200; // Safety limit: 100 years max
         int preEmiCount = 0;
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        ScheduleStatistics statistics = output.getStatistics();
+        AccrualFactorTable accruals = AccrualFactorTable.forRate(input.getAnnualRate());
 
-        for (int i = 0; i < input.getDisbursementPhases().size(); i++) {
-            LoanInput.DisbursementPhase phase = input.getDisbursementPhases().get(i);
+        for (int i = 0; i < phases.size(); i++) {
+            LoanInput.DisbursementPhase phase = phases.get(i);
 
             disbursedBalance += phase.getAmount();
 
             LocalDate nextDate;
-            if (i < input.getDisbursementPhases().size() - 1) {
-                nextDate = input.getDisbursementPhases().get(i + 1).getDisbursementDate();
+            if (i < phases.size() - 1) {
+                nextDate = phases.get(i + 1).getDisbursementDate();
             } else {
                 // For the last phase, pre-EMI should continue until regular EMI starts
                 // Use the full disbursement date (after final disbursement)
-                nextDate = getFullDisbursementDate(input);
+                nextDate = fullDisbursementDate;
             }
 
             // Start pre-EMI from the disbursement month itself, not the next month
-            LocalDate preEmiDate = phase.getDisbursementDate();
+            int disbursementDay = phase.getDisbursementDate().getDayOfMonth();
+            int preEmiMonth = CalendarTable.monthOrdinal(phase.getDisbursementDate());
+            int preEmiEpochDay = (int) phase.getDisbursementDate().toEpochDay();
+            long nextEpochDay = nextDate.toEpochDay();
 
             // Safety check to prevent infinite loops
-            while (preEmiDate.isBefore(nextDate) && preEmiCount < maxPreEmiMonths && disbursedBalance > 0.01) {
+            while (preEmiEpochDay < nextEpochDay && preEmiCount < maxPreEmiMonths && disbursedBalance > 0.01) {
                 double preEmiAmount = calculatePreEMIForMonth(disbursedBalance, input.getAnnualRate(),
-                    preEmiDate, input.getCompoundingFrequency());
-
-                int daysInPeriod = getDaysInMonth(preEmiDate);
-
-                output.getPreEmiPayments().add(new LoanOutput.PreEmiPayment(
-                    preEmiDate, preEmiAmount, disbursedBalance, input.getAnnualRate(), daysInPeriod
-                ));
+                    preEmiMonth, input.getCompoundingFrequency(), accruals);
+                if (input.isPaiseArithmetic()) {
+                    preEmiAmount = Paise.toRupees(Paise.round(preEmiAmount));
+                }
 
-                output.addPayment(
+                // PRE_EMI rows double as the pre-EMI payment list (see LoanOutput.getPreEmiPayments)
+                schedule.add(
                     globalMonthNumber,
                     preEmiAmount,
                     0.0,
                     preEmiAmount,
                     disbursedBalance,
                     input.getAnnualRate(),
-                    preEmiDate,
-                    "PRE_EMI"
+                    preEmiEpochDay,
+                    ScheduleBuffer.PRE_EMI
                 );
+                statistics.addPaise(Paise.round(preEmiAmount), 0, Paise.round(preEmiAmount),
+                    Paise.round(disbursedBalance), ScheduleBuffer.PRE_EMI);
 
                 // Move to next month for pre-EMI calculation
-                preEmiDate = preEmiDate.plusMonths(1).withDayOfMonth(phase.getDisbursementDate().getDayOfMonth());
+                preEmiMonth++;
+                preEmiEpochDay = CalendarTable.epochDay(preEmiMonth, disbursementDay);
                 globalMonthNumber++;
                 preEmiCount++;
 
@@ -108,54 +132,34 @@ public class HomeLoan {
         }
     }
     
-    private static double calculatePreEMIForMonth(double disbursedBalance, double annualRate, 
-                                                LocalDate paymentDate, LoanInput.CompoundingFrequency compounding) {
+    private static double calculatePreEMIForMonth(double disbursedBalance, double annualRate, int monthOrdinal,
+                                                LoanInput.CompoundingFrequency compounding, AccrualFactorTable accruals) {
         if (compounding == LoanInput.CompoundingFrequency.MONTHLY) {
             double monthlyRate = annualRate / 12 / 100.0;
             return disbursedBalance * monthlyRate;
         } else {
-            int daysInMonth = getDaysInMonth(paymentDate);
-            int yearLength = paymentDate.isLeapYear() ? 366 : 365;
-            double dailyRate = annualRate / yearLength / 100.0;
-            
-            double monthlyInterest = 0;
-            double balance = disbursedBalance;
-            for (int d = 0; d < daysInMonth; d++) {
-                double dailyInterest = balance * dailyRate;
-                monthlyInterest += dailyInterest;
-                balance += dailyInterest;
-            }
-            return monthlyInterest;
+            int daysInMonth = CalendarTable.lengthOfMonth(monthOrdinal);
+            int yearLength = CalendarTable.lengthOfYear(monthOrdinal);
+            return accruals.accrueInterest(disbursedBalance, yearLength, daysInMonth);
         }
     }
     
-    private static void generatePostDisbursementEMISchedule(LoanInput input, LoanOutput output, LocalDate startDate, int preEmiMonthCount) {
+    private static void generatePostDisbursementEMISchedule(LoanInput input, LoanOutput output, LocalDate startDate,
+                                                            CalculationContext context) {
         LoanInput modifiedInput = createModifiedInputForEMICalculation(input, startDate);
         
-        LoanOutput regularLoanOutput = LoanCalculator.calculateLoan(modifiedInput);
-        
-        output.setInitialEMI(regularLoanOutput.getInitialEMI());
-        
-        // Get the current maximum month number from existing payments (pre-EMI payments)
-        int currentMaxMonth = output.getPaymentSchedule().stream()
-            .mapToInt(LoanOutput.MonthlyPayment::getMonthNumber)
-            .max()
-            .orElse(0);
-        
-        for (LoanOutput.MonthlyPayment payment : regularLoanOutput.getPaymentSchedule()) {
-            output.addPayment(
-                currentMaxMonth + payment.getMonthNumber(),
-                payment.getEmi(),
-                payment.getPrincipalPaid(),
-                payment.getInterestPaid(),
-                payment.getRemainingBalance(),
-                payment.getCurrentRate(),
-                payment.getPaymentDate(),
-                payment.getPaymentType()
-            );
+        // EMI rows go straight into the output, numbered after the pre-EMI months (1..n)
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        ScheduleStatistics statistics = output.getStatistics();
+        int preEmiMonths = schedule.size();
+        ScheduleCursor cursor = LoanCalculator.openSchedule(modifiedInput, context);
+        while (cursor.advance()) {
+            cursor.writeTo(schedule, preEmiMonths);
+            cursor.writeTo(statistics);
         }
         
-        output.setActualTenure(regularLoanOutput.getActualTenure() + preEmiMonthCount);
+        output.setInitialEMI(cursor.getEmi());
+        output.setEmiSolverIterations(cursor.getEmiSolverIterations());
     }
     
     private static LoanInput createModifiedInputForEMICalculation(LoanInput originalInput, LocalDate startDate) {
@@ -170,21 +174,19 @@ public class HomeLoan {
         modifiedInput.setStrategy(originalInput.getStrategy());
         modifiedInput.setCompoundingFrequency(originalInput.getCompoundingFrequency());
         modifiedInput.setMoratoriumPeriods(originalInput.getMoratoriumPeriods());
+        modifiedInput.setEmiSolver(originalInput.getEmiSolver());
+        modifiedInput.setWarmStartEMI(originalInput.getWarmStartEMI());
+        modifiedInput.setArithmetic(originalInput.getArithmetic());
         
         modifiedInput.setStartDate(startDate);
         
         return modifiedInput;
     }
     
-    private static LocalDate getFullDisbursementDate(LoanInput input) {
-        return input.getDisbursementPhases().stream()
-            .max(Comparator.comparing(LoanInput.DisbursementPhase::getDisbursementDate))
-            .map(phase -> phase.getDisbursementDate().plusMonths(1).withDayOfMonth(phase.getDisbursementDate().getDayOfMonth()))
-            .orElse(input.getStartDate());
-    }
-    
-    private static int getDaysInMonth(LocalDate date) {
-        return YearMonth.from(date).lengthOfMonth();
+    // One month after the last disbursement (phases sorted by date)
+    private static LocalDate getFullDisbursementDate(List<LoanInput.DisbursementPhase> phases) {
+        LocalDate lastDisbursement = phases.get(phases.size() - 1).getDisbursementDate();
+        return lastDisbursement.plusMonths(1).withDayOfMonth(lastDisbursement.getDayOfMonth());
     }
     
     public static boolean validateHomeLoanInput(LoanInput input) {
@@ -0,0 +1,128 @@
+package com.mybank.lms.calculator;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batch entry point that calculates many loans in parallel on a fork/join pool.
+ *
+ * Each input is routed through {@link HomeLoan#calculateHomeLoan(LoanInput)} (plain loans fall through to
+ * {@link LoanCalculator}). Results come back in input order; a loan that throws is recorded as a failure
+ * and does not affect the rest of the batch. Inputs must not be shared between entries of the same batch.
+ * With a {@link LoanResultCache}, loans with identical terms are calculated once. Each worker calculates in
+ * its thread's {@link CalculationContext} and copies the result out, so a batch allocates little more than
+ * the outputs it returns.
+ */
+public class LoanBatchCalculator {
+
+    // Loans per leaf task; a single loan takes tens of microseconds, so smaller leaves only add scheduling cost
+    private static final int LEAF_SIZE = 8;
+
+    public static BatchResult calculateLoans(List<LoanInput> inputs) {
+        return calculateLoans(inputs, ForkJoinPool.commonPool());
+    }
+
+    public static BatchResult calculateLoans(List<LoanInput> inputs, ForkJoinPool pool) {
+        return calculateLoans(inputs, pool, null);
+    }
+
+    public static BatchResult calculateLoans(List<LoanInput> inputs, ForkJoinPool pool, LoanResultCache cache) {
+        LoanInput[] batch = inputs.toArray(new LoanInput[0]);
+        LoanOutput[] outputs = new LoanOutput[batch.length];
+        RuntimeException[] failures = new RuntimeException[batch.length];
+
+        long start = System.nanoTime();
+        if (batch.length > 0) {
+            pool.invoke(new CalculateRange(batch, outputs, failures, cache, 0, batch.length));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new BatchResult(outputs, failures, elapsedNanos);
+    }
+
+    private static void calculateOne(LoanInput[] batch, LoanOutput[] outputs, RuntimeException[] failures,
+                                     LoanResultCache cache, int index) {
+        try {
+            outputs[index] = cache != null ? cache.calculateHomeLoan(batch[index])
+                : HomeLoan.calculateHomeLoan(batch[index], CalculationContext.current()).copy();
+        } catch (RuntimeException e) {
+            failures[index] = e;
+        }
+    }
+
+    private static class CalculateRange extends RecursiveAction {
+        private final LoanInput[] batch;
+        private final LoanOutput[] outputs;
+        private final RuntimeException[] failures;
+        private final LoanResultCache cache;
+        private final int from;
+        private final int to;
+
+        CalculateRange(LoanInput[] batch, LoanOutput[] outputs, RuntimeException[] failures, LoanResultCache cache,
+                       int from, int to) {
+            this.batch = batch;
+            this.outputs = outputs;
+            this.failures = failures;
+            this.cache = cache;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    calculateOne(batch, outputs, failures, cache, i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CalculateRange(batch, outputs, failures, cache, from, mid),
+                      new CalculateRange(batch, outputs, failures, cache, mid, to));
+        }
+    }
+
+    /**
+     * Per-loan outputs or failures in input order, plus batch timing
+     */
+    public static class BatchResult {
+        private final LoanOutput[] outputs;
+        private final RuntimeException[] failures;
+        private final long elapsedNanos;
+        private final int failureCount;
+
+        BatchResult(LoanOutput[] outputs, RuntimeException[] failures, long elapsedNanos) {
+            this.outputs = outputs;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            int count = 0;
+            for (RuntimeException failure : failures) {
+                if (failure != null) {
+                    count++;
+                }
+            }
+            this.failureCount = count;
+        }
+
+        public int size() { return outputs.length; }
+        public boolean isSuccess(int index) { return failures[index] == null; }
+        public LoanOutput getOutput(int index) { return outputs[index]; }
+        public RuntimeException getFailure(int index) { return failures[index]; }
+        public int getFailureCount() { return failureCount; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * Loans calculated per second of wall-clock time, failures included
+         */
+        public double getLoansPerSecond() {
+            return elapsedNanos > 0 ? outputs.length * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("BatchResult{loans=%d, failures=%d, elapsedMs=%.1f, loansPerSecond=%.0f}",
+                outputs.length, failureCount, elapsedNanos / 1_000_000.0, getLoansPerSecond());
+        }
+    }
+}
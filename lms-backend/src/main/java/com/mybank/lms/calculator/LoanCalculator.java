@@ -1,8 +1,6 @@
 package com.mybank.lms.calculator;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.temporal.ChronoUnit;
 
 /**
  * Pure calculation engine for loan calculations
@@ -13,283 +11,217 @@ public class LoanCalculator {
      * Calculate loan with flexible moratorium and compounding options
      */
     public static LoanOutput calculateLoan(LoanInput input) {
-        LoanOutput output = new LoanOutput();
+        return calculateLoan(input, new CalculationContext(), new LoanOutput());
+    }
+    
+    /**
+     * {@link #calculateLoan(LoanInput)} into the context's reusable output, which is overwritten by the
+     * next calculation on the same context
+     */
+    public static LoanOutput calculateLoan(LoanInput input, CalculationContext context) {
+        return calculateLoan(input, context, context.output());
+    }
+    
+    // Also used by HomeLoan for loans without disbursement phases
+    static LoanOutput calculateLoan(LoanInput input, CalculationContext context, LoanOutput output) {
+        ScheduleCursor cursor = openSchedule(input, context);
+        drain(cursor, output);
         
-        if (input.getCompoundingFrequency() == LoanInput.CompoundingFrequency.MONTHLY) {
-            calculateLoanWithMonthlyCompounding(input, output);
-        } else {
-            double emi = goalSeekMonthlyEMI(input);
-            output.setInitialEMI(emi);
-            simulateLoanWithDailyCompounding(input, output, emi);
+        output.setInitialEMI(cursor.getEmi());
+        output.setEmiSolverIterations(cursor.getEmiSolverIterations());
+        output.setBrokenPeriodInterest(cursor.getBrokenPeriodInterest());
+        output.setWholePaise(input.isPaiseArithmetic());
+        output.calculateTotals();
+        return output;
+    }
+    
+    /**
+     * Same EMI, totals and tenure as {@link #calculateLoan(LoanInput)}, accumulated while simulating
+     * without storing the schedule
+     */
+    public static LoanSummary calculateSummary(LoanInput input) {
+        return calculateSummary(input, new CalculationContext(), new LoanSummary());
+    }
+    
+    /**
+     * {@link #calculateSummary(LoanInput)} into the context's reusable summary, which is overwritten by the
+     * next calculation on the same context
+     */
+    public static LoanSummary calculateSummary(LoanInput input, CalculationContext context) {
+        return calculateSummary(input, context, context.summary());
+    }
+    
+    private static LoanSummary calculateSummary(LoanInput input, CalculationContext context, LoanSummary summary) {
+        ScheduleCursor cursor = openSchedule(input, context);
+        drain(cursor, summary);
+        
+        summary.setInitialEMI(cursor.getEmi());
+        summary.setEmiSolverIterations(cursor.getEmiSolverIterations());
+        summary.setBrokenPeriodInterest(cursor.getBrokenPeriodInterest());
+        if (input.isPaiseArithmetic()) {
+            summary.roundToPaise();
+        }
+        return summary;
+    }
+    
+    /**
+     * The rows of {@link #calculateLoan(LoanInput)}, BPI included, computed one at a time as the context's
+     * cursor is advanced; the next calculation on the same context resets it. The EMI is solved up front;
+     * nothing else is held in memory.
+     */
+    public static ScheduleCursor openSchedule(LoanInput input, CalculationContext context) {
+        ScheduleCheckpoint start = context.startOf(input);
+        double emi = solveEMI(input, start, context);
+        ScheduleCursor cursor = context.cursor();
+        cursor.reset(input, start, emi, context.solverIterations, context.accruals(input.getAnnualRate()));
+        cursor.applyBrokenPeriodInterest(calculateBPI(input, context.brokenPeriodInterest()));
+        return cursor;
+    }
+    
+    /**
+     * Continue a schedule from a persisted installment: simulates only months k+1 onwards under the
+     * input's terms (rate, moratoria, strategy, compounding), where {@code input.getMonths()} is still the
+     * full tenure. The checkpoint's EMI is kept for EMI_CONSTANT loans; TENURE_CONSTANT loans, or a
+     * checkpoint without an EMI, re-solve it over the remaining months. If the checkpoint carries the
+     * prefix rows they are copied ahead of the new rows, so totals cover the whole loan. The loan's BPI is
+     * reported as in a full calculation (APR counts it), but only added to the first installment when the
+     * checkpoint precedes it.
+     */
+    public static LoanOutput calculateFromCheckpoint(LoanInput input, ScheduleCheckpoint checkpoint) {
+        LoanOutput output = new LoanOutput();
+        if (checkpoint.getPrefix() != null) {
+            checkpoint.getPrefix().copyTo(output.getScheduleBuffer());
+            checkpoint.getPrefix().copyTo(output.getStatistics());
         }
         
-        // Calculate BPI if applicable
-        LoanOutput.BrokenPeriodInterest bpi = calculateBPI(input);
-        if (bpi != null) {
-            output.setBrokenPeriodInterest(bpi);
-            
-            if (bpi.isAddedToFirstEMI() && !output.getPaymentSchedule().isEmpty()) {
-                LoanOutput.MonthlyPayment firstPayment = output.getPaymentSchedule().get(0);
-                double newEMI = firstPayment.getEmi() + bpi.getInterestAmount();
-                
-                LoanOutput.MonthlyPayment updatedFirstPayment = new LoanOutput.MonthlyPayment(
-                    firstPayment.getMonthNumber(),
-                    newEMI,
-                    firstPayment.getPrincipalPaid(),
-                    firstPayment.getInterestPaid() + bpi.getInterestAmount(),
-                    firstPayment.getRemainingBalance(),
-                    firstPayment.getCurrentRate(),
-                    firstPayment.getPaymentDate(),
-                    "NORMAL_WITH_BPI"
-                );
-                
-                output.getPaymentSchedule().set(0, updatedFirstPayment);
-            }
+        CalculationContext context = new CalculationContext();
+        double emi = solveEMI(input, checkpoint, context);
+        ScheduleCursor cursor = context.cursor();
+        cursor.reset(input, checkpoint, emi, context.solverIterations, context.accruals(input.getAnnualRate()));
+        LoanOutput.BrokenPeriodInterest bpi = calculateBPI(input, context.brokenPeriodInterest());
+        if (checkpoint.getMonthNumber() == 0) {
+            cursor.applyBrokenPeriodInterest(bpi);
         }
+        drain(cursor, output);
         
+        output.setInitialEMI(emi);
+        output.setEmiSolverIterations(context.solverIterations);
+        output.setBrokenPeriodInterest(bpi);
+        output.setWholePaise(input.isPaiseArithmetic());
         output.calculateTotals();
         return output;
     }
     
-    private static void calculateLoanWithMonthlyCompounding(LoanInput input, LoanOutput output) {
-        double principal = input.getPrincipal();
-        double monthlyRate = input.getAnnualRate() / 12 / 100.0;
-        int totalMonths = input.getMonths();
-        
-        double standardEMI = (principal * monthlyRate * Math.pow(1 + monthlyRate, totalMonths)) /
-                            (Math.pow(1 + monthlyRate, totalMonths) - 1);
-        
-        output.setInitialEMI(standardEMI);
-        generateRepaymentSchedule(input, output, standardEMI, monthlyRate);
+    private static void drain(ScheduleCursor cursor, ScheduleSink sink) {
+        while (cursor.advance()) {
+            cursor.writeTo(sink);
+        }
     }
     
-    private static void generateRepaymentSchedule(LoanInput input, LoanOutput output, double standardEMI, double monthlyRate) {
-        double balance = input.getPrincipal();
-        LocalDate date = input.getStartDate();
-        int monthCount = 0;
-        int maxMonths = 1200; // Safety limit: 100 years max
-
-        for (int i = 0; balance >= 1 && monthCount < maxMonths; i++) {
-            monthCount++;
-
-            double monthlyInterest = balance * monthlyRate;
-
-            boolean isInMoratorium = false;
-            LoanInput.MoratoriumPeriod moratoriumPeriod = null;
-
-            if (input.isInMoratorium(i + 1)) {
-                isInMoratorium = true;
-                moratoriumPeriod = input.getMoratoriumPeriodForMonth(i + 1);
-            } else if (i < input.getMoratoriumMonths()) {
-                isInMoratorium = true;
-            }
-
-            String paymentType = "NORMAL";
-            double actualEMI = standardEMI;
-            double principalPaid = 0;
-            double interestPaid = monthlyInterest;
-
-            if (isInMoratorium) {
-                LoanInput.MoratoriumType moratoriumType = moratoriumPeriod != null ?
-                    moratoriumPeriod.getType() : input.getMoratoriumType();
-                double partialPayment = moratoriumPeriod != null ?
-                    moratoriumPeriod.getPartialPaymentEMI() : input.getPartialPaymentEMIDuringMoratorium();
-
-                switch (moratoriumType) {
-                    case INTEREST_ONLY:
-                        paymentType = "MORATORIUM_INTEREST";
-                        actualEMI = monthlyInterest;
-                        principalPaid = 0;
-                        break;
-                    case PARTIAL:
-                        paymentType = "MORATORIUM_PARTIAL";
-                        actualEMI = partialPayment;
-                        principalPaid = Math.max(0, partialPayment - monthlyInterest);
-                        balance -= (partialPayment - monthlyInterest);
-                        break;
-                    case FULL:
-                        paymentType = "MORATORIUM_FULL";
-                        actualEMI = 0;
-                        principalPaid = 0;
-                        interestPaid = 0;
-                        balance += monthlyInterest;
-                        break;
-                }
-            } else {
-                balance -= standardEMI;
-                principalPaid = standardEMI - monthlyInterest;
-
-                // Handle final EMI - adjust if remaining balance is less than calculated principal
-                // if (balance < principalPaid) {
-                //     principalPaid = balance;
-                //     actualEMI = principalPaid + monthlyInterest;
-                // }
-
-                // balance -= principalPaid;
-
-                // Ensure balance doesn't go negative
-                if (balance < 1) {
-                    balance = 0;
-                }
-            }
-
-            output.addPayment(i + 1, actualEMI, principalPaid, interestPaid,
-                            balance, input.getAnnualRate(), date, paymentType);
-
-            date = date.plusMonths(1);
-
-            // Emergency break if too many iterations
-            if (monthCount >= maxMonths) {
-                break;
-            }
+    // Rows go to the output's schedule and, in the same pass, its statistics
+    private static void drain(ScheduleCursor cursor, LoanOutput output) {
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        ScheduleStatistics statistics = output.getStatistics();
+        while (cursor.advance()) {
+            cursor.writeTo(schedule);
+            cursor.writeTo(statistics);
         }
-
-        output.setActualTenure(monthCount);
     }
     
-    private static void simulateLoanWithDailyCompounding(LoanInput input, LoanOutput output, double emi) {
-        double balance = input.getPrincipal();
-        LocalDate date = input.getStartDate();
-        double currentRate = input.getAnnualRate();
-        int monthCount = 0;
-        int maxMonths = 1200; // Safety limit: 100 years max
-
-        for (int i = 0; balance >= 1 && monthCount < maxMonths; i++) {
-            monthCount++;
-
-            YearMonth currentMonth = YearMonth.from(date);
-            int daysInMonth = currentMonth.lengthOfMonth();
-            int yearLength = date.isLeapYear() ? 366 : 365;
-            double dailyRate = currentRate / yearLength / 100.0;
-
-            double monthlyInterest = 0;
-            // Optimize daily compounding calculation to prevent memory issues
-            if (daysInMonth > 31) daysInMonth = 31; // Safety limit
-
-            for (int d = 0; d < daysInMonth; d++) {
-                monthlyInterest += balance * dailyRate;
-                balance += balance * dailyRate;
-
-                // Prevent infinite growth due to compounding
-                if (monthlyInterest > balance * 10) {
-                    break; // Emergency break if interest becomes too large
-                }
-            }
-
-            boolean isInMoratorium = false;
-            LoanInput.MoratoriumPeriod moratoriumPeriod = null;
-
-            if (input.isInMoratorium(i + 1)) {
-                isInMoratorium = true;
-                moratoriumPeriod = input.getMoratoriumPeriodForMonth(i + 1);
-            } else if (i < input.getMoratoriumMonths()) {
-                isInMoratorium = true;
-            }
-
-            String paymentType = "NORMAL";
-            double actualEMI = emi;
-            double principalPaid = 0;
-            double interestPaid = monthlyInterest;
-
-            if (isInMoratorium) {
-                LoanInput.MoratoriumType moratoriumType = moratoriumPeriod != null ?
-                    moratoriumPeriod.getType() : input.getMoratoriumType();
-                double partialPayment = moratoriumPeriod != null ?
-                    moratoriumPeriod.getPartialPaymentEMI() : input.getPartialPaymentEMIDuringMoratorium();
-
-                switch (moratoriumType) {
-                    case INTEREST_ONLY:
-                        paymentType = "MORATORIUM_INTEREST";
-                        actualEMI = monthlyInterest;
-                        balance -= monthlyInterest;
-                        principalPaid = 0;
-                        break;
-                    case PARTIAL:
-                        paymentType = "MORATORIUM_PARTIAL";
-                        actualEMI = partialPayment;
-                        balance -= partialPayment;
-                        principalPaid = partialPayment - monthlyInterest;
-                        break;
-                    case FULL:
-                        paymentType = "MORATORIUM_FULL";
-                        actualEMI = 0;
-                        principalPaid = 0;
-                        interestPaid = 0;
-                        break;
-                }
-            } else {
-                balance -= emi;
-                principalPaid = emi - monthlyInterest;
-
-                // Handle final EMI - adjust if remaining balance is less than calculated principal
-                // if (balance < principalPaid) {
-                //     principalPaid = balance;
-                //     actualEMI = principalPaid + monthlyInterest;
-                // }
-
-                // balance -= principalPaid;
-
-                // Ensure balance doesn't go negative
-                if (balance < 1) {
-                    balance = 0;
-                }
-            }
-
-            output.addPayment(i + 1, actualEMI, principalPaid, interestPaid,
-                            balance, currentRate, date, paymentType);
-
-            date = date.plusMonths(1);
-
-            // Emergency break if too many iterations
-            if (monthCount >= maxMonths) {
-                break;
-            }
+    /**
+     * EMI in force from {@code start}: the checkpoint's for EMI_CONSTANT loans that carry one, otherwise
+     * closed-form under monthly compounding or solved under daily compounding. The number of balance
+     * simulations is left in {@code context.solverIterations}.
+     */
+    private static double solveEMI(LoanInput input, ScheduleCheckpoint start, CalculationContext context) {
+        context.solverIterations = 0;
+        if (start.getEmi() > 0 && input.getStrategy() == LoanInput.FloatingStrategy.EMI_CONSTANT) {
+            return start.getEmi();
         }
-
-        if (input.getStrategy() == LoanInput.FloatingStrategy.EMI_CONSTANT && balance > 0.01) {
-            while (balance > 0.01 && monthCount < maxMonths) {
-                monthCount++;
-
-                YearMonth currentMonth = YearMonth.from(date);
-                int daysInMonth = currentMonth.lengthOfMonth();
-                int yearLength = date.isLeapYear() ? 366 : 365;
-                double dailyRate = currentRate / yearLength / 100.0;
-
-                double monthlyInterest = 0;
-                for (int d = 0; d < Math.min(daysInMonth, 31); d++) {
-                    monthlyInterest += balance * dailyRate;
-                    balance += balance * dailyRate;
-                }
-
-                balance -= emi;
-                double principalPaid = emi - monthlyInterest;
-
-                output.addPayment(monthCount, emi, principalPaid, monthlyInterest,
-                                balance, currentRate, date, "EXTENDED");
-
-                date = date.plusMonths(1);
-            }
+        if (input.getCompoundingFrequency() == LoanInput.CompoundingFrequency.MONTHLY) {
+            return estimateMonthlyEMI(input, start);
         }
-
-        output.setActualTenure(monthCount);
+        return solveMonthlyEMI(input, start, context);
     }
     
     public static double goalSeekMonthlyEMI(LoanInput input) {
-        return goalSeekEMIForBalance(input);
+        return solveMonthlyEMI(input).getEmi();
+    }
+    
+    /**
+     * Solve the EMI that brings the daily-compounded balance to zero after {@code months} installments.
+     * NEWTON uses the analytic slope of the final balance with respect to EMI; BISECTION is the legacy search.
+     */
+    public static EmiSolution solveMonthlyEMI(LoanInput input) {
+        CalculationContext context = new CalculationContext();
+        double emi = solveMonthlyEMI(input, context.startOf(input), context);
+        return new EmiSolution(emi, context.solverIterations);
     }
     
-    private static double goalSeekEMIForBalance(LoanInput input) {
+    private static double solveMonthlyEMI(LoanInput input, ScheduleCheckpoint start, CalculationContext context) {
+        if (input.getEmiSolver() == LoanInput.EmiSolver.BISECTION) {
+            return goalSeekEMIForBalance(input, start, context);
+        }
+        
+        double emi = solveEMIByNewton(input, start, context);
+        if (!Double.isFinite(emi)) {
+            // Degenerate inputs (no installment months, non-finite estimate) fall back to the legacy search
+            int newtonIterations = context.solverIterations;
+            double fallback = goalSeekEMIForBalance(input, start, context);
+            context.solverIterations += newtonIterations;
+            return fallback;
+        }
+        return emi;
+    }
+    
+    private static double estimateMonthlyEMI(LoanInput input, ScheduleCheckpoint start) {
         double monthlyRate = input.getAnnualRate() / 12 / 100.0;
-        double estimatedEMI = (input.getPrincipal() * monthlyRate * Math.pow(1 + monthlyRate, input.getMonths())) /
-                              (Math.pow(1 + monthlyRate, input.getMonths()) - 1);
+        int remainingMonths = input.getMonths() - start.getMonthNumber();
+        return (start.getBalance() * monthlyRate * Math.pow(1 + monthlyRate, remainingMonths)) /
+               (Math.pow(1 + monthlyRate, remainingMonths) - 1);
+    }
+    
+    private static double solveEMIByNewton(LoanInput input, ScheduleCheckpoint start, CalculationContext context) {
+        int maxIterations = 8;
+        double tolerance = 0.01;
+        int remainingMonths = input.getMonths() - start.getMonthNumber();
+        
+        double emi = input.getWarmStartEMI();
+        if (!(emi > 0) || !Double.isFinite(emi)) {
+            emi = estimateMonthlyEMI(input, start);
+        }
+        if (!Double.isFinite(emi) && remainingMonths > 0) {
+            emi = start.getBalance() / remainingMonths;
+        }
+        
+        // Final balance is affine in EMI (moratorium months do not depend on it), so a Newton step
+        // from any starting point lands on the root; the second pass only confirms it.
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            double balance = evaluateFinalBalance(input, emi, start, context);
+            if (Math.abs(balance) <= tolerance || context.slope == 0 || !Double.isFinite(balance)) {
+                break;
+            }
+            emi -= balance / context.slope;
+        }
+        
+        context.solverIterations = iterations;
+        return context.slope == 0 ? Double.NaN : emi;
+    }
+    
+    private static double goalSeekEMIForBalance(LoanInput input, ScheduleCheckpoint start, CalculationContext context) {
+        double estimatedEMI = estimateMonthlyEMI(input, start);
         
         double low = estimatedEMI * 0.8;
         double high = estimatedEMI * 1.2;
         double tolerance = 0.01;
+        int iterations = 0;
         
         while ((high - low) > tolerance) {
+            iterations++;
             double mid = (low + high) / 2;
-            double balance = calculateFinalBalance(input, mid);
+            double balance = evaluateFinalBalance(input, mid, start, context);
             if (balance > 0) {
                 low = mid;
             } else {
@@ -297,55 +229,76 @@ public class LoanCalculator {
             }
         }
         
+        context.solverIterations = iterations;
         return (low + high) / 2;
     }
     
-    private static double calculateFinalBalance(LoanInput input, double emi) {
-        double balance = input.getPrincipal();
-        LocalDate date = input.getStartDate();
+    /**
+     * Simulate the balance after {@code months} installments for the given EMI, starting from {@code start}.
+     * d(final balance)/d(EMI), propagated alongside the balance, is left in {@code context.slope}.
+     */
+    private static double evaluateFinalBalance(LoanInput input, double emi, ScheduleCheckpoint start, CalculationContext context) {
+        double balance = start.getBalance();
+        double slope = 0;
+        int monthOrdinal = CalendarTable.monthOrdinal(start.getNextPaymentDate());
+        AccrualFactorTable accruals = context.accruals(input.getAnnualRate());
+        MoratoriumIndex moratoria = input.getMoratoriumIndex();
         
-        for (int i = 0; i < input.getMonths(); i++) {
-            YearMonth currentMonth = YearMonth.from(date);
-            int daysInMonth = currentMonth.lengthOfMonth();
-            int yearLength = date.isLeapYear() ? 366 : 365;
+        for (int i = start.getMonthNumber(); i < input.getMonths(); i++) {
+            int daysInMonth = CalendarTable.lengthOfMonth(monthOrdinal);
+            int yearLength = CalendarTable.lengthOfYear(monthOrdinal);
             double dailyRate = input.getAnnualRate() / yearLength / 100.0;
             
-            for (int d = 0; d < daysInMonth; d++) {
-                balance += balance * dailyRate;
-            }
+            double growth = accruals.growthFactor(yearLength, daysInMonth);
+            balance += accruals.accrueInterest(balance, yearLength, daysInMonth);
+            slope *= growth;
             
-            boolean isInMoratorium = false;
-            LoanInput.MoratoriumPeriod moratoriumPeriod = null;
+            LoanInput.MoratoriumType moratoriumType = moratoria.typeForMonth(i + 1);
             
-            if (input.isInMoratorium(i + 1)) {
-                isInMoratorium = true;
-                moratoriumPeriod = input.getMoratoriumPeriodForMonth(i + 1);
-            } else if (i < input.getMoratoriumMonths()) {
-                isInMoratorium = true;
-            }
-            
-            if (isInMoratorium) {
-                LoanInput.MoratoriumType moratoriumType = moratoriumPeriod != null ? 
-                    moratoriumPeriod.getType() : input.getMoratoriumType();
-                double partialPayment = moratoriumPeriod != null ? 
-                    moratoriumPeriod.getPartialPaymentEMI() : input.getPartialPaymentEMIDuringMoratorium();
+            if (moratoriumType != null) {
+                double partialPayment = moratoria.partialPaymentForMonth(i + 1);
                 
                 if (moratoriumType == LoanInput.MoratoriumType.INTEREST_ONLY) {
                     double monthlyInterest = balance * dailyRate * daysInMonth;
                     balance -= monthlyInterest;
+                    slope *= (1 - dailyRate * daysInMonth);
                 } else if (moratoriumType == LoanInput.MoratoriumType.PARTIAL) {
                     balance -= partialPayment;
                 }
             } else {
                 balance -= emi;
+                slope -= 1;
             }
             
-            date = date.plusMonths(1);
+            monthOrdinal++;
         }
+        
+        context.slope = slope;
         return balance;
     }
     
+    /**
+     * Result of an EMI solve together with the number of balance simulations it took
+     */
+    public static class EmiSolution {
+        private final double emi;
+        private final int iterations;
+        
+        public EmiSolution(double emi, int iterations) {
+            this.emi = emi;
+            this.iterations = iterations;
+        }
+        
+        public double getEmi() { return emi; }
+        public int getIterations() { return iterations; }
+    }
+    
     public static LoanOutput.BrokenPeriodInterest calculateBPI(LoanInput input) {
+        return calculateBPI(input, new LoanOutput.BrokenPeriodInterest());
+    }
+    
+    // BPI written into {@code bpi}, or null when there is no broken period
+    private static LoanOutput.BrokenPeriodInterest calculateBPI(LoanInput input, LoanOutput.BrokenPeriodInterest bpi) {
         LocalDate loanIssueDate = input.getLoanIssueDate();
         LocalDate emiStartDate = input.getStartDate();
         
@@ -353,7 +306,7 @@ public class LoanCalculator {
             return null;
         }        
         
-        long daysDifference = ChronoUnit.DAYS.between(loanIssueDate, emiStartDate);
+        long daysDifference = emiStartDate.toEpochDay() - loanIssueDate.toEpochDay();
         
         if (daysDifference <= 0) {
             return null;
@@ -365,21 +318,7 @@ public class LoanCalculator {
         
         boolean addToFirstEMI = daysDifference < 15;
         
-        String description = String.format(
-            "BPI for %d days from %s to %s. %s",
-            daysDifference,
-            loanIssueDate,
-            emiStartDate,
-            addToFirstEMI ? "Added to first EMI" : "Charged as separate EMI in issue month"
-        );
-        
-        return new LoanOutput.BrokenPeriodInterest(
-            loanIssueDate,
-            emiStartDate,
-            (int) daysDifference,
-            bpiAmount,
-            addToFirstEMI,
-            description
-        );
+        // The description is formatted only if someone reads it
+        return bpi.reset(loanIssueDate, emiStartDate, (int) daysDifference, bpiAmount, addToFirstEMI);
     }
 }
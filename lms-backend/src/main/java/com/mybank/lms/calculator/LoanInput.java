@@ -20,11 +20,17 @@ public class LoanInput {
     private CompoundingFrequency compoundingFrequency;
     private List<MoratoriumPeriod> moratoriumPeriods;
     private List<DisbursementPhase> disbursementPhases;
+    private EmiSolver emiSolver;
+    private double warmStartEMI;
+    private Arithmetic arithmetic;
+    private MoratoriumIndex moratoriumIndex;
     
     // Enums
     public enum MoratoriumType { FULL, INTEREST_ONLY, PARTIAL }
     public enum FloatingStrategy { EMI_CONSTANT, TENURE_CONSTANT }
     public enum CompoundingFrequency { DAILY, MONTHLY }
+    public enum EmiSolver { NEWTON, BISECTION }
+    public enum Arithmetic { DOUBLE, PAISE }
     
     // Inner class for disbursement phases
     public static class DisbursementPhase {
@@ -97,6 +103,8 @@ public class LoanInput {
         this.compoundingFrequency = CompoundingFrequency.DAILY;
         this.moratoriumPeriods = new ArrayList<>();
         this.disbursementPhases = new ArrayList<>();
+        this.emiSolver = EmiSolver.NEWTON;
+        this.arithmetic = Arithmetic.DOUBLE;
     }
     
     // Getters and Setters
@@ -136,6 +144,34 @@ public class LoanInput {
     public List<DisbursementPhase> getDisbursementPhases() { return disbursementPhases; }
     public void setDisbursementPhases(List<DisbursementPhase> disbursementPhases) { this.disbursementPhases = disbursementPhases; }
     
+    public EmiSolver getEmiSolver() { return emiSolver; }
+    public void setEmiSolver(EmiSolver emiSolver) { this.emiSolver = emiSolver; }
+    
+    // Starting EMI for the daily-compounding solver, e.g. the previous snapshot's EMI on a rate reset (0 = none)
+    public double getWarmStartEMI() { return warmStartEMI; }
+    public void setWarmStartEMI(double warmStartEMI) { this.warmStartEMI = warmStartEMI; }
+    
+    // PAISE keeps schedule amounts in whole paise with explicit rounding (see ScheduleCursor)
+    public Arithmetic getArithmetic() { return arithmetic; }
+    public void setArithmetic(Arithmetic arithmetic) { this.arithmetic = arithmetic; }
+    
+    public boolean isPaiseArithmetic() { return arithmetic == Arithmetic.PAISE; }
+    
+    /**
+     * Per-month moratorium lookup for the current settings. Compiled on first use and reused until the
+     * moratorium settings (including the periods' fields) or the tenure change.
+     */
+    public MoratoriumIndex getMoratoriumIndex() {
+        MoratoriumIndex index = moratoriumIndex;
+        if (index == null || !index.matches(moratoriumPeriods, moratoriumMonths, moratoriumType,
+                partialPaymentEMIDuringMoratorium, months)) {
+            index = MoratoriumIndex.compile(moratoriumPeriods, moratoriumMonths, moratoriumType,
+                partialPaymentEMIDuringMoratorium, months);
+            moratoriumIndex = index;
+        }
+        return index;
+    }
+    
     // Helper methods
     public boolean isInMoratorium(int month) {
         return moratoriumPeriods.stream().anyMatch(period -> period.isInMoratorium(month));
@@ -0,0 +1,103 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, hashed snapshot of every {@link LoanInput} field that affects a calculation.
+ *
+ * Two inputs with equal keys produce the same output. Doubles are compared by bit pattern, the legacy
+ * moratorium type and payment are ignored when there are no legacy moratorium months, and disbursement
+ * phases are taken in the (stable) date order the home loan calculator sorts them into. The key also
+ * records whether it is for {@link HomeLoan#calculateHomeLoan} or {@link HomeLoan#calculateLoan}, which
+ * differ for phased inputs.
+ */
+public final class LoanInputKey {
+
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final long[] fields;
+    private final String[] descriptions;
+    private final int hash;
+
+    private LoanInputKey(long[] fields, String[] descriptions) {
+        this.fields = fields;
+        this.descriptions = descriptions;
+        this.hash = 31 * Arrays.hashCode(fields) + Arrays.hashCode(descriptions);
+    }
+
+    public static LoanInputKey of(LoanInput input, boolean homeLoan) {
+        List<LoanInput.MoratoriumPeriod> periods = input.getMoratoriumPeriods();
+        List<LoanInput.DisbursementPhase> phases = homeLoan && input.hasPhasesDisbursement()
+            ? new ArrayList<>(input.getDisbursementPhases()) : new ArrayList<>();
+        phases.sort(Comparator.comparing(LoanInput.DisbursementPhase::getDisbursementDate));
+        int periodCount = periods != null ? periods.size() : 0;
+
+        long[] fields = new long[15 + periodCount * 4 + phases.size() * 2];
+        boolean legacyMoratorium = input.getMoratoriumMonths() > 0;
+        int f = 0;
+        fields[f++] = homeLoan ? 1 : 0;
+        fields[f++] = bits(input.getPrincipal());
+        fields[f++] = bits(input.getAnnualRate());
+        fields[f++] = input.getMonths();
+        fields[f++] = legacyMoratorium ? input.getMoratoriumMonths() : 0;
+        fields[f++] = legacyMoratorium ? ordinal(input.getMoratoriumType()) : NO_VALUE;
+        fields[f++] = legacyMoratorium ? bits(input.getPartialPaymentEMIDuringMoratorium()) : NO_VALUE;
+        fields[f++] = epochDay(input.getStartDate());
+        fields[f++] = epochDay(input.getLoanIssueDate());
+        fields[f++] = ordinal(input.getStrategy());
+        fields[f++] = ordinal(input.getCompoundingFrequency());
+        fields[f++] = ordinal(input.getEmiSolver());
+        fields[f++] = bits(input.getWarmStartEMI());
+        fields[f++] = ordinal(input.getArithmetic());
+        fields[f++] = periodCount;
+        for (int p = 0; p < periodCount; p++) {
+            LoanInput.MoratoriumPeriod period = periods.get(p);
+            fields[f++] = period.getStartMonth();
+            fields[f++] = period.getEndMonth();
+            fields[f++] = ordinal(period.getType());
+            fields[f++] = bits(period.getPartialPaymentEMI());
+        }
+
+        String[] descriptions = new String[phases.size()];
+        for (int p = 0; p < phases.size(); p++) {
+            LoanInput.DisbursementPhase phase = phases.get(p);
+            fields[f++] = epochDay(phase.getDisbursementDate());
+            fields[f++] = bits(phase.getAmount());
+            descriptions[p] = phase.getDescription();
+        }
+        return new LoanInputKey(fields, descriptions);
+    }
+
+    private static long bits(double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    private static long epochDay(LocalDate date) {
+        return date != null ? date.toEpochDay() : NO_VALUE;
+    }
+
+    private static long ordinal(Enum<?> value) {
+        return value != null ? value.ordinal() : NO_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LoanInputKey)) {
+            return false;
+        }
+        LoanInputKey other = (LoanInputKey) o;
+        return hash == other.hash && Arrays.equals(fields, other.fields) && Arrays.equals(descriptions, other.descriptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -9,16 +9,20 @@ import java.util.ArrayList;
  */
 public class LoanOutput {
     private double initialEMI;
-    private List<MonthlyPayment> paymentSchedule;
+    private final ScheduleBuffer schedule;
+    private ScheduleStatistics statistics;
+    private final List<MonthlyPayment> paymentSchedule;
     private double totalInterestPaid;
     private double totalAmountPaid;
     private int actualTenure;
     private String summary;
     private List<DisbursementEntry> disbursementSchedule;
-    private List<PreEmiPayment> preEmiPayments;
+    private final List<PreEmiPayment> preEmiPayments;
     private BrokenPeriodInterest brokenPeriodInterest;
+    private int emiSolverIterations;
+    private boolean wholePaise;
     
-    // Inner class to represent broken period interest (BPI)
+    // Inner class to represent broken period interest (BPI); the calculators format the description on first read
     public static class BrokenPeriodInterest {
         private LocalDate loanIssueDate;
         private LocalDate emiStartDate;
@@ -26,6 +30,7 @@ public class LoanOutput {
         private double interestAmount;
         private boolean addedToFirstEMI;
         private String description;
+        private boolean describeOnRead;
         
         public BrokenPeriodInterest() {}
         
@@ -56,8 +61,31 @@ public class LoanOutput {
         public boolean isAddedToFirstEMI() { return addedToFirstEMI; }
         public void setAddedToFirstEMI(boolean addedToFirstEMI) { this.addedToFirstEMI = addedToFirstEMI; }
         
-        public String getDescription() { return description; }
-        public void setDescription(String description) { this.description = description; }
+        public String getDescription() {
+            if (describeOnRead) {
+                description = String.format("BPI for %d days from %s to %s. %s", daysDifference, loanIssueDate,
+                    emiStartDate, addedToFirstEMI ? "Added to first EMI" : "Charged as separate EMI in issue month");
+                describeOnRead = false;
+            }
+            return description;
+        }
+        public void setDescription(String description) {
+            this.description = description;
+            this.describeOnRead = false;
+        }
+        
+        // Overwrite with a calculated BPI whose description is built when first read
+        BrokenPeriodInterest reset(LocalDate loanIssueDate, LocalDate emiStartDate, int daysDifference,
+                                   double interestAmount, boolean addedToFirstEMI) {
+            this.loanIssueDate = loanIssueDate;
+            this.emiStartDate = emiStartDate;
+            this.daysDifference = daysDifference;
+            this.interestAmount = interestAmount;
+            this.addedToFirstEMI = addedToFirstEMI;
+            this.description = null;
+            this.describeOnRead = true;
+            return this;
+        }
     }
     
     // Inner class to represent disbursement entries
@@ -209,19 +237,19 @@ public class LoanOutput {
     
     // Constructor
     public LoanOutput() {
-        this.paymentSchedule = new ArrayList<>();
+        this.schedule = new ScheduleBuffer();
+        this.statistics = new ScheduleStatistics();
+        this.paymentSchedule = schedule.asMonthlyPayments();
         this.disbursementSchedule = new ArrayList<>();
-        this.preEmiPayments = new ArrayList<>();
+        this.preEmiPayments = schedule.asPreEmiPayments();
     }
     
     // Methods to add payment entries
     public void addPayment(int monthNumber, double emi, double principalPaid, 
                           double interestPaid, double remainingBalance, 
                           double currentRate, LocalDate paymentDate, String paymentType) {
-        MonthlyPayment payment = new MonthlyPayment(monthNumber, emi, principalPaid, 
-                                                   interestPaid, remainingBalance, 
-                                                   currentRate, paymentDate, paymentType);
-        paymentSchedule.add(payment);
+        schedule.add(monthNumber, emi, principalPaid, interestPaid, remainingBalance, currentRate,
+                     ScheduleBuffer.toEpochDay(paymentDate), ScheduleBuffer.paymentTypeCode(paymentType));
         
         // Update totals
         totalInterestPaid += interestPaid;
@@ -232,8 +260,30 @@ public class LoanOutput {
     public double getInitialEMI() { return initialEMI; }
     public void setInitialEMI(double initialEMI) { this.initialEMI = initialEMI; }
     
+    /**
+     * Primitive schedule storage written by the calculators
+     */
+    public ScheduleBuffer getScheduleBuffer() { return schedule; }
+    
+    /**
+     * Statistics the calculators accumulate as they emit rows. If rows were added to or removed from the
+     * buffer some other way, they are recomputed from the buffer.
+     */
+    public ScheduleStatistics getStatistics() {
+        if (statistics.getRowCount() != schedule.size()) {
+            statistics = ScheduleStatistics.of(schedule);
+        }
+        return statistics;
+    }
+    
+    // View over the schedule buffer; rows are materialized on access
     public List<MonthlyPayment> getPaymentSchedule() { return paymentSchedule; }
     
+    public void setPaymentSchedule(List<MonthlyPayment> payments) {
+        schedule.clear();
+        paymentSchedule.addAll(payments);
+    }
+    
     public double getTotalInterestPaid() { return totalInterestPaid; }
     public void setTotalInterestPaid(double totalInterestPaid) { this.totalInterestPaid = totalInterestPaid; }
     
@@ -249,23 +299,88 @@ public class LoanOutput {
     public List<DisbursementEntry> getDisbursementSchedule() { return disbursementSchedule; }
     public void setDisbursementSchedule(List<DisbursementEntry> disbursementSchedule) { this.disbursementSchedule = disbursementSchedule; }
     
+    // Read-only view of the PRE_EMI rows of the schedule
     public List<PreEmiPayment> getPreEmiPayments() { return preEmiPayments; }
-    public void setPreEmiPayments(List<PreEmiPayment> preEmiPayments) { this.preEmiPayments = preEmiPayments; }
     
     public BrokenPeriodInterest getBrokenPeriodInterest() { return brokenPeriodInterest; }
     public void setBrokenPeriodInterest(BrokenPeriodInterest brokenPeriodInterest) { this.brokenPeriodInterest = brokenPeriodInterest; }
     
+    // Number of balance simulations the EMI solver needed (0 when the EMI is closed-form)
+    public int getEmiSolverIterations() { return emiSolverIterations; }
+    public void setEmiSolverIterations(int emiSolverIterations) { this.emiSolverIterations = emiSolverIterations; }
+    
+    // Amounts are whole paise (PAISE arithmetic); totals are then rounded back to the paisa
+    public boolean isWholePaise() { return wholePaise; }
+    public void setWholePaise(boolean wholePaise) { this.wholePaise = wholePaise; }
+    
+    // Empty the output for reuse by a CalculationContext; the schedule keeps its capacity
+    void reset() {
+        schedule.clear();
+        statistics.reset();
+        initialEMI = 0;
+        totalInterestPaid = 0;
+        totalAmountPaid = 0;
+        actualTenure = 0;
+        summary = null;
+        // A list handed in through the setter belongs to the caller, so it is replaced rather than cleared
+        if (disbursementSchedule == null || !disbursementSchedule.isEmpty()) {
+            disbursementSchedule = new ArrayList<>();
+        }
+        brokenPeriodInterest = null;
+        emiSolverIterations = 0;
+        wholePaise = false;
+    }
+    
     // Utility methods
     public void calculateTotals() {
-        totalInterestPaid = paymentSchedule.stream()
-            .mapToDouble(MonthlyPayment::getInterestPaid)
-            .sum();
-        totalAmountPaid = paymentSchedule.stream()
-            .mapToDouble(MonthlyPayment::getEmi)
-            .sum();
-        totalAmountPaid += preEmiPayments.stream()
-            .mapToDouble(PreEmiPayment::getInterestAmount)
-            .sum();
-        actualTenure = paymentSchedule.size();
+        double interest = 0;
+        double paid = 0;
+        double preEmi = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            interest += schedule.getInterestPaid(i);
+            paid += schedule.getEmi(i);
+            if (schedule.getPaymentTypeCode(i) == ScheduleBuffer.PRE_EMI) {
+                preEmi += schedule.getEmi(i);
+            }
+        }
+        totalInterestPaid = interest;
+        // Pre-EMI rows are counted both as schedule rows and as pre-EMI payments
+        totalAmountPaid = paid + preEmi;
+        if (wholePaise) {
+            // Sums of whole-paise doubles are off by far less than half a paisa
+            totalInterestPaid = Paise.toRupees(Paise.round(totalInterestPaid));
+            totalAmountPaid = Paise.toRupees(Paise.round(totalAmountPaid));
+        }
+        actualTenure = schedule.size();
+    }
+    
+    /**
+     * Deep copy: schedule rows, disbursement entries and BPI are not shared with this output
+     */
+    public LoanOutput copy() {
+        LoanOutput copy = new LoanOutput();
+        copy.schedule.addAll(schedule);
+        copy.statistics = getStatistics().copy();
+        copy.initialEMI = initialEMI;
+        copy.totalInterestPaid = totalInterestPaid;
+        copy.totalAmountPaid = totalAmountPaid;
+        copy.actualTenure = actualTenure;
+        copy.summary = summary;
+        copy.emiSolverIterations = emiSolverIterations;
+        copy.wholePaise = wholePaise;
+        if (disbursementSchedule != null) {
+            for (DisbursementEntry entry : disbursementSchedule) {
+                copy.disbursementSchedule.add(new DisbursementEntry(entry.getDisbursementDate(), entry.getAmount(),
+                    entry.getCumulativeDisbursed(), entry.getDescription()));
+            }
+        } else {
+            copy.disbursementSchedule = null;
+        }
+        if (brokenPeriodInterest != null) {
+            BrokenPeriodInterest bpi = brokenPeriodInterest;
+            copy.brokenPeriodInterest = new BrokenPeriodInterest(bpi.getLoanIssueDate(), bpi.getEmiStartDate(),
+                bpi.getDaysDifference(), bpi.getInterestAmount(), bpi.isAddedToFirstEMI(), bpi.getDescription());
+        }
+        return copy;
     }
 }
@@ -0,0 +1,142 @@
+package com.mybank.lms.calculator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded LRU cache of calculator results keyed by {@link LoanInputKey}.
+ *
+ * The cache holds at most {@code maxEntries} results and at most {@code maxWeight} schedule rows in total;
+ * the least recently used results are evicted first. Each caller gets its own {@link LoanOutput#copy()},
+ * so results can be modified freely. A miss calculates outside the lock, in the calling thread's
+ * {@link CalculationContext}, and copies the result out; two threads missing on the same key may both
+ * calculate, and the later result replaces the earlier one.
+ */
+public class LoanResultCache {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<LoanInputKey, LoanOutput> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LoanResultCache(int maxEntries, long maxWeight) {
+        if (maxEntries < 0 || maxWeight < 0) {
+            throw new IllegalArgumentException("Cache bounds must not be negative: entries " + maxEntries + ", weight " + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Cached {@link HomeLoan#calculateLoan(LoanInput)}
+     */
+    public LoanOutput calculateLoan(LoanInput input) {
+        return getOrCalculate(LoanInputKey.of(input, false), input, LoanCalculator::calculateLoan);
+    }
+
+    /**
+     * Cached {@link HomeLoan#calculateHomeLoan(LoanInput)}
+     */
+    public LoanOutput calculateHomeLoan(LoanInput input) {
+        return getOrCalculate(LoanInputKey.of(input, true), input, HomeLoan::calculateHomeLoan);
+    }
+
+    private LoanOutput getOrCalculate(LoanInputKey key, LoanInput input,
+                                      BiFunction<LoanInput, CalculationContext, LoanOutput> calculator) {
+        synchronized (this) {
+            LoanOutput cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.copy();
+            }
+            misses++;
+        }
+
+        // The context's output is overwritten by the thread's next calculation, so only copies leave here
+        LoanOutput output = calculator.apply(input, CalculationContext.current());
+        put(key, output);
+        return output.copy();
+    }
+
+    private synchronized void put(LoanInputKey key, LoanOutput output) {
+        long entryWeight = weightOf(output);
+        if (maxEntries == 0 || entryWeight > maxWeight) {
+            return;
+        }
+        LoanOutput previous = entries.put(key, output.copy());
+        if (previous != null) {
+            weight -= weightOf(previous);
+        }
+        weight += entryWeight;
+
+        Iterator<Map.Entry<LoanInputKey, LoanOutput>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            Map.Entry<LoanInputKey, LoanOutput> entry = eldest.next();
+            weight -= weightOf(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // Schedule rows held by a result (at least 1 so empty schedules still count)
+    private static long weightOf(LoanOutput output) {
+        return Math.max(output.getScheduleBuffer().size(), 1);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), weight, maxEntries, maxWeight);
+    }
+
+    /**
+     * Point-in-time cache counters
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long weight;
+        private final int maxEntries;
+        private final long maxWeight;
+
+        Stats(long hits, long misses, long evictions, int entries, long weight, int maxEntries, long maxWeight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.weight = weight;
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+        public long getWeight() { return weight; }
+        public int getMaxEntries() { return maxEntries; }
+        public long getMaxWeight() { return maxWeight; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LoanResultCache{hits=%d, misses=%d, evictions=%d, entries=%d/%d, rows=%d/%d}",
+                hits, misses, evictions, entries, maxEntries, weight, maxWeight);
+        }
+    }
+}
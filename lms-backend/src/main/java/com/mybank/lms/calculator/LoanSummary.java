@@ -0,0 +1,64 @@
+package com.mybank.lms.calculator;
+
+/**
+ * EMI, totals and tenure of a loan without its schedule.
+ *
+ * Rows are folded into the totals as they are simulated and then dropped, with the same rules as
+ * {@link LoanOutput#calculateTotals()}: tenure is the row count and PRE_EMI rows count twice towards the
+ * amount paid.
+ */
+public class LoanSummary implements ScheduleSink {
+    private double initialEMI;
+    private double totalInterestPaid;
+    private double totalAmountPaid;
+    private int actualTenure;
+    private double finalBalance;
+    private LoanOutput.BrokenPeriodInterest brokenPeriodInterest;
+    private int emiSolverIterations;
+    
+    @Override
+    public void add(int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        totalInterestPaid += interestPaid;
+        totalAmountPaid += emiAmount;
+        if (typeCode == ScheduleBuffer.PRE_EMI) {
+            totalAmountPaid += emiAmount;
+        }
+        finalBalance = remainingBalance;
+        actualTenure++;
+    }
+    
+    // Empty the summary for reuse by a CalculationContext
+    void reset() {
+        initialEMI = 0;
+        totalInterestPaid = 0;
+        totalAmountPaid = 0;
+        actualTenure = 0;
+        finalBalance = 0;
+        brokenPeriodInterest = null;
+        emiSolverIterations = 0;
+    }
+    
+    public double getInitialEMI() { return initialEMI; }
+    public void setInitialEMI(double initialEMI) { this.initialEMI = initialEMI; }
+    
+    // Round the totals of a whole-paise schedule back to the paisa (see LoanOutput.calculateTotals)
+    void roundToPaise() {
+        totalInterestPaid = Paise.toRupees(Paise.round(totalInterestPaid));
+        totalAmountPaid = Paise.toRupees(Paise.round(totalAmountPaid));
+    }
+    
+    public double getTotalInterestPaid() { return totalInterestPaid; }
+    public double getTotalAmountPaid() { return totalAmountPaid; }
+    public int getActualTenure() { return actualTenure; }
+    
+    // Remaining balance after the last row
+    public double getFinalBalance() { return finalBalance; }
+    
+    public LoanOutput.BrokenPeriodInterest getBrokenPeriodInterest() { return brokenPeriodInterest; }
+    public void setBrokenPeriodInterest(LoanOutput.BrokenPeriodInterest brokenPeriodInterest) { this.brokenPeriodInterest = brokenPeriodInterest; }
+    
+    // Number of balance simulations the EMI solver needed (0 when the EMI is closed-form)
+    public int getEmiSolverIterations() { return emiSolverIterations; }
+    public void setEmiSolverIterations(int emiSolverIterations) { this.emiSolverIterations = emiSolverIterations; }
+}
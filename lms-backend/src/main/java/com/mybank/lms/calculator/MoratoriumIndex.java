@@ -0,0 +1,146 @@
+package com.mybank.lms.calculator;
+
+import java.util.List;
+
+/**
+ * Immutable per-month moratorium lookup compiled from a {@link LoanInput}.
+ *
+ * Flexible moratorium periods take precedence (first matching period wins, as in
+ * {@link LoanInput#getMoratoriumPeriodForMonth(int)}); months not covered by a period fall back to the
+ * legacy {@code moratoriumMonths}/{@code moratoriumType} settings. Months past the tenure are dropped, so the
+ * index is never larger than the schedule. Lookups are a single array read.
+ */
+public final class MoratoriumIndex {
+
+    // Indexed by month number (1-based, slot 0 unused); null means no moratorium
+    private final LoanInput.MoratoriumType[] types;
+    private final double[] partialPayments;
+
+    // Settings the index was compiled from, so a cached index can be checked against a mutated input
+    private final int[] sourceBounds;
+    private final LoanInput.MoratoriumType[] sourceTypes;
+    private final double[] sourcePartials;
+    private final int tenureMonths;
+    private final int legacyMonths;
+    private final LoanInput.MoratoriumType legacyType;
+    private final double legacyPartialPayment;
+
+    private MoratoriumIndex(LoanInput.MoratoriumType[] types, double[] partialPayments,
+                            List<LoanInput.MoratoriumPeriod> periods, int legacyMonths,
+                            LoanInput.MoratoriumType legacyType, double legacyPartialPayment, int tenureMonths) {
+        this.types = types;
+        this.partialPayments = partialPayments;
+        int count = periods != null ? periods.size() : 0;
+        this.sourceBounds = new int[count * 2];
+        this.sourceTypes = new LoanInput.MoratoriumType[count];
+        this.sourcePartials = new double[count];
+        for (int p = 0; p < count; p++) {
+            LoanInput.MoratoriumPeriod period = periods.get(p);
+            sourceBounds[2 * p] = period.getStartMonth();
+            sourceBounds[2 * p + 1] = period.getEndMonth();
+            sourceTypes[p] = period.getType();
+            sourcePartials[p] = period.getPartialPaymentEMI();
+        }
+        this.legacyMonths = legacyMonths;
+        this.legacyType = legacyType;
+        this.legacyPartialPayment = legacyPartialPayment;
+        this.tenureMonths = tenureMonths;
+    }
+
+    /**
+     * Index of the given settings for a loan of {@code tenureMonths} months. A legacy moratorium without a type is
+     * rejected only if some of its months within the tenure are not covered by a period.
+     */
+    static MoratoriumIndex compile(List<LoanInput.MoratoriumPeriod> periods, int legacyMonths,
+                                   LoanInput.MoratoriumType legacyType, double legacyPartialPayment,
+                                   int tenureMonths) {
+        int lastMonth = Math.max(legacyMonths, 0);
+        if (periods != null) {
+            for (LoanInput.MoratoriumPeriod period : periods) {
+                if (period.getType() == null) {
+                    throw new IllegalArgumentException("Moratorium period " + period.getStartMonth() + "-"
+                        + period.getEndMonth() + " has no type");
+                }
+                lastMonth = Math.max(lastMonth, period.getEndMonth());
+            }
+        }
+        lastMonth = Math.min(lastMonth, Math.max(tenureMonths, 0));
+        LoanInput.MoratoriumType[] types = new LoanInput.MoratoriumType[lastMonth + 1];
+        double[] partialPayments = new double[types.length];
+
+        if (periods != null) {
+            // Fill in reverse so the first period in list order wins where periods overlap
+            for (int p = periods.size() - 1; p >= 0; p--) {
+                LoanInput.MoratoriumPeriod period = periods.get(p);
+                int endMonth = Math.min(period.getEndMonth(), lastMonth);
+                for (int month = Math.max(period.getStartMonth(), 1); month <= endMonth; month++) {
+                    types[month] = period.getType();
+                    partialPayments[month] = period.getPartialPaymentEMI();
+                }
+            }
+        }
+
+        for (int month = 1; month <= Math.min(legacyMonths, lastMonth); month++) {
+            if (types[month] == null) {
+                if (legacyType == null) {
+                    throw new IllegalArgumentException("Moratorium of " + legacyMonths + " months has no type for month "
+                        + month);
+                }
+                types[month] = legacyType;
+                partialPayments[month] = legacyPartialPayment;
+            }
+        }
+
+        return new MoratoriumIndex(types, partialPayments, periods, legacyMonths, legacyType, legacyPartialPayment,
+            tenureMonths);
+    }
+
+    /**
+     * Whether this index was compiled from exactly these settings
+     */
+    boolean matches(List<LoanInput.MoratoriumPeriod> periods, int legacyMonths,
+                    LoanInput.MoratoriumType legacyType, double legacyPartialPayment, int tenureMonths) {
+        if (this.tenureMonths != tenureMonths || this.legacyMonths != legacyMonths || this.legacyType != legacyType
+                || Double.compare(this.legacyPartialPayment, legacyPartialPayment) != 0) {
+            return false;
+        }
+        int count = periods != null ? periods.size() : 0;
+        if (count != sourceTypes.length) {
+            return false;
+        }
+        for (int p = 0; p < count; p++) {
+            LoanInput.MoratoriumPeriod period = periods.get(p);
+            if (period.getStartMonth() != sourceBounds[2 * p] || period.getEndMonth() != sourceBounds[2 * p + 1]
+                    || period.getType() != sourceTypes[p]
+                    || Double.compare(period.getPartialPaymentEMI(), sourcePartials[p]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moratorium type applying to the given month (1-based), or null for a regular installment month
+     */
+    public LoanInput.MoratoriumType typeForMonth(int month) {
+        return month > 0 && month < types.length ? types[month] : null;
+    }
+
+    public boolean isInMoratorium(int month) {
+        return typeForMonth(month) != null;
+    }
+
+    /**
+     * Payment due in a PARTIAL moratorium month; 0 outside a moratorium
+     */
+    public double partialPaymentForMonth(int month) {
+        return month > 0 && month < partialPayments.length ? partialPayments[month] : 0;
+    }
+
+    /**
+     * Last month covered by any moratorium within the tenure, 0 if there is none
+     */
+    public int getLastMonth() {
+        return types.length - 1;
+    }
+}
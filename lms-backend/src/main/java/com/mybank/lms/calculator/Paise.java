@@ -0,0 +1,73 @@
+package com.mybank.lms.calculator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between rupee amounts and {@code long} paise (1/100 rupee).
+ *
+ * Inside the calculator rounding is half away from zero on the binary value. A paise count converted with
+ * {@link #toRupees(long)} and back with {@link #round(double)} returns the same count, so schedules computed in
+ * paise can travel as {@code double} rupees without losing exactness.
+ *
+ * Amounts leaving the calculator for storage go through {@link #roundDecimal(double)} instead, which rounds the
+ * decimal {@code BigDecimal.valueOf(double)} gives. On ties the two can differ: 1.005 is 1.00499999... in binary,
+ * so {@code round} gives 100 paise while NUMERIC(18,2) stored 1.01 for it.
+ */
+public final class Paise {
+
+    private Paise() {}
+
+    /**
+     * Nearest paisa, ties away from zero
+     */
+    public static long round(double rupees) {
+        return roundFraction(rupees * 100);
+    }
+
+    /**
+     * Whole paise from a fractional paise amount (e.g. interest on a paise balance), ties away from zero
+     */
+    public static long roundFraction(double paise) {
+        long whole = (long) Math.floor(Math.abs(paise) + 0.5);
+        return paise < 0 ? -whole : whole;
+    }
+
+    /**
+     * Nearest paisa of {@code BigDecimal.valueOf(rupees)}, ties away from zero, as NUMERIC(18,2) rounds it.
+     * Only amounts within a few ulps of a half paisa take the {@link BigDecimal} path.
+     */
+    public static long roundDecimal(double rupees) {
+        double paise = Math.abs(rupees * 100);
+        if (Math.abs(paise - Math.floor(paise) - 0.5) > 4 * Math.ulp(paise)) {
+            return roundFraction(rupees * 100);
+        }
+        return BigDecimal.valueOf(rupees).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Smallest paise amount not below {@code rupees} (EMIs are rounded up so the tenure is not exceeded)
+     */
+    public static long ceil(double rupees) {
+        long paise = round(rupees);
+        return paise / 100.0 < rupees ? paise + 1 : paise;
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    /**
+     * Exact two-decimal amount, without going through {@code Double.toString}
+     */
+    public static BigDecimal toBigDecimal(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * Rupee amount rounded to the paisa as an exact two-decimal value, see {@link #roundDecimal(double)}
+     */
+    public static BigDecimal toBigDecimal(double rupees) {
+        return BigDecimal.valueOf(roundDecimal(rupees), 2);
+    }
+}
@@ -0,0 +1,316 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays storage for a repayment schedule.
+ *
+ * One row per month is kept as parallel primitive arrays (dates as epoch days, payment types as codes),
+ * so a schedule costs a handful of arrays instead of one {@link LoanOutput.MonthlyPayment} per month.
+ * {@link #asMonthlyPayments()} and {@link #asPreEmiPayments()} provide the object views used by callers.
+ */
+public final class ScheduleBuffer implements ScheduleSink {
+
+    // Payment type codes
+    public static final byte NORMAL = 0;
+    public static final byte NORMAL_WITH_BPI = 1;
+    public static final byte MORATORIUM_INTEREST = 2;
+    public static final byte MORATORIUM_PARTIAL = 3;
+    public static final byte MORATORIUM_FULL = 4;
+    public static final byte EXTENDED = 5;
+    public static final byte PRE_EMI = 6;
+
+    private static final String[] PAYMENT_TYPES = {
+        "NORMAL", "NORMAL_WITH_BPI", "MORATORIUM_INTEREST", "MORATORIUM_PARTIAL",
+        "MORATORIUM_FULL", "EXTENDED", "PRE_EMI"
+    };
+
+    // Marks a row without a payment date
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size;
+    private int[] monthNumber;
+    private double[] emi;
+    private double[] principal;
+    private double[] interest;
+    private double[] balance;
+    private double[] rate;
+    private int[] epochDay;
+    private byte[] paymentTypeCode;
+
+    private int preEmiCount;
+    private int[] preEmiRows;
+
+    public ScheduleBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ScheduleBuffer(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        monthNumber = new int[capacity];
+        emi = new double[capacity];
+        principal = new double[capacity];
+        interest = new double[capacity];
+        balance = new double[capacity];
+        rate = new double[capacity];
+        epochDay = new int[capacity];
+        paymentTypeCode = new byte[capacity];
+        preEmiRows = new int[0];
+    }
+
+    public static byte paymentTypeCode(String paymentType) {
+        for (byte code = 0; code < PAYMENT_TYPES.length; code++) {
+            if (PAYMENT_TYPES[code].equals(paymentType)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment type: " + paymentType);
+    }
+
+    public static boolean isPaymentType(String paymentType) {
+        for (String type : PAYMENT_TYPES) {
+            if (type.equals(paymentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String paymentTypeName(byte code) {
+        return PAYMENT_TYPES[code];
+    }
+
+    public static int toEpochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    @Override
+    public void add(int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        ensureCapacity(size + 1);
+        monthNumber[size] = month;
+        emi[size] = emiAmount;
+        principal[size] = principalPaid;
+        interest[size] = interestPaid;
+        balance[size] = remainingBalance;
+        rate[size] = currentRate;
+        epochDay[size] = paymentEpochDay;
+        paymentTypeCode[size] = typeCode;
+        if (typeCode == PRE_EMI) {
+            addPreEmiRow(size);
+        }
+        size++;
+    }
+
+    public void set(int index, int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        checkIndex(index);
+        byte previousType = paymentTypeCode[index];
+        monthNumber[index] = month;
+        emi[index] = emiAmount;
+        principal[index] = principalPaid;
+        interest[index] = interestPaid;
+        balance[index] = remainingBalance;
+        rate[index] = currentRate;
+        epochDay[index] = paymentEpochDay;
+        paymentTypeCode[index] = typeCode;
+        if ((previousType == PRE_EMI) != (typeCode == PRE_EMI)) {
+            rebuildPreEmiRows();
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        preEmiCount = 0;
+    }
+
+    public ScheduleBuffer copy() {
+        return copyOf(size);
+    }
+
+    /**
+     * Copy of the first {@code length} rows
+     */
+    public ScheduleBuffer copyOf(int length) {
+        if (length < 0 || length > size) {
+            throw new IndexOutOfBoundsException("Length: " + length + ", size: " + size);
+        }
+        ScheduleBuffer copy = new ScheduleBuffer(length);
+        copy.addAll(this, length);
+        return copy;
+    }
+
+    /**
+     * Append all rows of {@code other}
+     */
+    public void addAll(ScheduleBuffer other) {
+        addAll(other, other.size);
+    }
+
+    private void addAll(ScheduleBuffer other, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(other.monthNumber, 0, monthNumber, size, length);
+        System.arraycopy(other.emi, 0, emi, size, length);
+        System.arraycopy(other.principal, 0, principal, size, length);
+        System.arraycopy(other.interest, 0, interest, size, length);
+        System.arraycopy(other.balance, 0, balance, size, length);
+        System.arraycopy(other.rate, 0, rate, size, length);
+        System.arraycopy(other.epochDay, 0, epochDay, size, length);
+        System.arraycopy(other.paymentTypeCode, 0, paymentTypeCode, size, length);
+        for (int i = 0; i < length; i++) {
+            if (other.paymentTypeCode[i] == PRE_EMI) {
+                addPreEmiRow(size + i);
+            }
+        }
+        size += length;
+    }
+
+    /**
+     * Feed all rows, in order, to {@code sink}
+     */
+    public void copyTo(ScheduleSink sink) {
+        if (sink instanceof ScheduleBuffer) {
+            ((ScheduleBuffer) sink).addAll(this);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            sink.add(monthNumber[i], emi[i], principal[i], interest[i], balance[i], rate[i], epochDay[i], paymentTypeCode[i]);
+        }
+    }
+
+    // Row accessors
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getMonthNumber(int index) { checkIndex(index); return monthNumber[index]; }
+    public double getEmi(int index) { checkIndex(index); return emi[index]; }
+    public double getPrincipalPaid(int index) { checkIndex(index); return principal[index]; }
+    public double getInterestPaid(int index) { checkIndex(index); return interest[index]; }
+    public double getRemainingBalance(int index) { checkIndex(index); return balance[index]; }
+    public double getCurrentRate(int index) { checkIndex(index); return rate[index]; }
+    public int getEpochDay(int index) { checkIndex(index); return epochDay[index]; }
+    public LocalDate getPaymentDate(int index) { checkIndex(index); return toLocalDate(epochDay[index]); }
+    public byte getPaymentTypeCode(int index) { checkIndex(index); return paymentTypeCode[index]; }
+    public String getPaymentType(int index) { checkIndex(index); return PAYMENT_TYPES[paymentTypeCode[index]]; }
+    public int getPreEmiCount() { return preEmiCount; }
+
+    public LoanOutput.MonthlyPayment getMonthlyPayment(int index) {
+        checkIndex(index);
+        return new LoanOutput.MonthlyPayment(monthNumber[index], emi[index], principal[index], interest[index],
+            balance[index], rate[index], toLocalDate(epochDay[index]), PAYMENT_TYPES[paymentTypeCode[index]]);
+    }
+
+    public LoanOutput.PreEmiPayment getPreEmiPayment(int preEmiIndex) {
+        if (preEmiIndex < 0 || preEmiIndex >= preEmiCount) {
+            throw new IndexOutOfBoundsException("Pre-EMI index: " + preEmiIndex + ", count: " + preEmiCount);
+        }
+        int row = preEmiRows[preEmiIndex];
+        LocalDate paymentDate = toLocalDate(epochDay[row]);
+        int daysInPeriod = paymentDate != null ? paymentDate.lengthOfMonth() : 0;
+        return new LoanOutput.PreEmiPayment(paymentDate, emi[row], balance[row], rate[row], daysInPeriod);
+    }
+
+    /**
+     * Live list view of the rows as {@link LoanOutput.MonthlyPayment}s. Elements are materialized on access;
+     * {@code set} and {@code add} write through to the buffer, mutating a returned element does not.
+     */
+    public List<LoanOutput.MonthlyPayment> asMonthlyPayments() {
+        return new AbstractList<LoanOutput.MonthlyPayment>() {
+            @Override
+            public LoanOutput.MonthlyPayment get(int index) {
+                return getMonthlyPayment(index);
+            }
+
+            @Override
+            public LoanOutput.MonthlyPayment set(int index, LoanOutput.MonthlyPayment payment) {
+                LoanOutput.MonthlyPayment previous = getMonthlyPayment(index);
+                ScheduleBuffer.this.set(index, payment.getMonthNumber(), payment.getEmi(), payment.getPrincipalPaid(),
+                    payment.getInterestPaid(), payment.getRemainingBalance(), payment.getCurrentRate(),
+                    toEpochDay(payment.getPaymentDate()), paymentTypeCode(payment.getPaymentType()));
+                return previous;
+            }
+
+            @Override
+            public boolean add(LoanOutput.MonthlyPayment payment) {
+                ScheduleBuffer.this.add(payment.getMonthNumber(), payment.getEmi(), payment.getPrincipalPaid(),
+                    payment.getInterestPaid(), payment.getRemainingBalance(), payment.getCurrentRate(),
+                    toEpochDay(payment.getPaymentDate()), paymentTypeCode(payment.getPaymentType()));
+                modCount++;
+                return true;
+            }
+
+            @Override
+            public void clear() {
+                ScheduleBuffer.this.clear();
+                modCount++;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Read-only list view of the PRE_EMI rows as {@link LoanOutput.PreEmiPayment}s
+     */
+    public List<LoanOutput.PreEmiPayment> asPreEmiPayments() {
+        return new AbstractList<LoanOutput.PreEmiPayment>() {
+            @Override
+            public LoanOutput.PreEmiPayment get(int index) {
+                return getPreEmiPayment(index);
+            }
+
+            @Override
+            public int size() {
+                return preEmiCount;
+            }
+        };
+    }
+
+    private void addPreEmiRow(int row) {
+        if (preEmiCount == preEmiRows.length) {
+            preEmiRows = Arrays.copyOf(preEmiRows, Math.max(8, preEmiRows.length * 2));
+        }
+        preEmiRows[preEmiCount++] = row;
+    }
+
+    private void rebuildPreEmiRows() {
+        preEmiCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (paymentTypeCode[i] == PRE_EMI) {
+                addPreEmiRow(i);
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= emi.length) {
+            return;
+        }
+        int capacity = Math.max(required, emi.length + (emi.length >> 1) + 1);
+        monthNumber = Arrays.copyOf(monthNumber, capacity);
+        emi = Arrays.copyOf(emi, capacity);
+        principal = Arrays.copyOf(principal, capacity);
+        interest = Arrays.copyOf(interest, capacity);
+        balance = Arrays.copyOf(balance, capacity);
+        rate = Arrays.copyOf(rate, capacity);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        paymentTypeCode = Arrays.copyOf(paymentTypeCode, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mybank.lms.calculator;
+
+import java.time.LocalDate;
+
+/**
+ * Persisted schedule state after installment {@code monthNumber}, used to recompute only the months after it.
+ *
+ * {@code emi} is the installment in force (0 = re-solve). {@code prefix}, if set, holds the rows up to the
+ * checkpoint and is copied ahead of the recomputed rows. Checkpoints are immutable, except the start-of-loan
+ * checkpoint a {@link CalculationContext} reuses between loans.
+ */
+public class ScheduleCheckpoint {
+    private int monthNumber;
+    private double balance;
+    private LocalDate nextPaymentDate;
+    private double emi;
+    private ScheduleBuffer prefix;
+    
+    public ScheduleCheckpoint(int monthNumber, double balance, LocalDate nextPaymentDate, double emi) {
+        this(monthNumber, balance, nextPaymentDate, emi, null);
+    }
+    
+    public ScheduleCheckpoint(int monthNumber, double balance, LocalDate nextPaymentDate, double emi, ScheduleBuffer prefix) {
+        this.monthNumber = monthNumber;
+        this.balance = balance;
+        this.nextPaymentDate = nextPaymentDate;
+        this.emi = emi;
+        this.prefix = prefix;
+    }
+    
+    /**
+     * Checkpoint after the first {@code monthNumber} rows of a calculated schedule, carrying those rows as prefix
+     */
+    public static ScheduleCheckpoint fromSchedule(ScheduleBuffer schedule, int monthNumber, double emi) {
+        if (monthNumber < 1 || monthNumber > schedule.size()) {
+            throw new IllegalArgumentException("Checkpoint month " + monthNumber + " outside schedule of " + schedule.size() + " rows");
+        }
+        int last = monthNumber - 1;
+        return new ScheduleCheckpoint(monthNumber, schedule.getRemainingBalance(last),
+            schedule.getPaymentDate(last).plusMonths(1), emi, schedule.copyOf(monthNumber));
+    }
+    
+    // Start-of-loan state for a reused checkpoint; no prefix
+    ScheduleCheckpoint reset(int monthNumber, double balance, LocalDate nextPaymentDate, double emi) {
+        this.monthNumber = monthNumber;
+        this.balance = balance;
+        this.nextPaymentDate = nextPaymentDate;
+        this.emi = emi;
+        this.prefix = null;
+        return this;
+    }
+    
+    public int getMonthNumber() { return monthNumber; }
+    public double getBalance() { return balance; }
+    public LocalDate getNextPaymentDate() { return nextPaymentDate; }
+    public double getEmi() { return emi; }
+    public ScheduleBuffer getPrefix() { return prefix; }
+}
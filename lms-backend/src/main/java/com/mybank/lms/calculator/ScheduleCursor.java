@@ -0,0 +1,418 @@
+package com.mybank.lms.calculator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Schedule simulation that produces one row per {@link #advance()}.
+ *
+ * This is the month loop of {@link LoanCalculator} (monthly or daily compounding, moratoria, and the
+ * EXTENDED rows of an EMI_CONSTANT loan) kept as resumable state, so rows can be pulled one at a time
+ * with constant memory. The current row is read through the getters or written to a {@link ScheduleSink};
+ * {@link #iterator()} and {@link #spliterator()} wrap the cursor for callers that want
+ * {@link LoanOutput.MonthlyPayment} objects.
+ * A cursor is not thread-safe; it runs one schedule, except the one a {@link CalculationContext} resets for
+ * each loan it calculates.
+ *
+ * With {@link LoanInput.Arithmetic#PAISE} the balance and every amount are whole paise: interest is rounded
+ * to the paisa each month, the EMI is rounded up to the paisa, and the installment that leaves less than one
+ * rupee outstanding pays off the exact remainder. Every row then has emi = principal + interest, and the
+ * balance moves by exactly the principal (FULL moratorium months capitalise the interest instead). The
+ * double getters return those paise as rupees.
+ */
+public final class ScheduleCursor {
+
+    private static final int MAX_MONTHS = 1200; // Safety limit: 100 years max
+    private static final long PAYOFF_TOLERANCE_PAISE = 100;
+
+    private boolean monthlyCompounding;
+    private double emi;
+    private double monthlyRate;
+    private double currentRate;
+    private AccrualFactorTable accruals;
+    private MoratoriumIndex moratoria;
+    private boolean extendTenure;
+    private int emiSolverIterations;
+    private boolean paise;
+    private long emiPaise;
+
+    // Added to the first row's emi and interest (BPI), which then becomes NORMAL_WITH_BPI
+    private double firstRowAdjustment;
+    private long firstRowAdjustmentPaise;
+    private LoanOutput.BrokenPeriodInterest brokenPeriodInterest;
+
+    private double balance;
+    private long balancePaise;
+    private int monthOrdinal;
+    private int dayOfMonth;
+    private int month;
+    private int monthCount;
+    private boolean extending;
+    private boolean extendable;
+    private int rows;
+
+    private int rowMonth;
+    private double rowEmi;
+    private double rowPrincipal;
+    private double rowInterest;
+    private double rowBalance;
+    private int rowEpochDay;
+    private byte rowType;
+
+    private long rowEmiPaise;
+    private long rowPrincipalPaise;
+    private long rowInterestPaise;
+
+    ScheduleCursor(LoanInput input, ScheduleCheckpoint start, double emi, int emiSolverIterations) {
+        reset(input, start, emi, emiSolverIterations, AccrualFactorTable.forRate(input.getAnnualRate()));
+    }
+
+    // Unset cursor for a CalculationContext, which resets it before each schedule
+    ScheduleCursor() {
+    }
+
+    /**
+     * Start a new schedule from {@code start}; {@code accruals} is the daily accrual table for the input's rate
+     */
+    void reset(LoanInput input, ScheduleCheckpoint start, double emi, int emiSolverIterations, AccrualFactorTable accruals) {
+        this.monthlyCompounding = input.getCompoundingFrequency() == LoanInput.CompoundingFrequency.MONTHLY;
+        this.paise = input.isPaiseArithmetic();
+        this.emiPaise = paise ? installmentPaise(emi, start, input.getMonths()) : 0;
+        this.emi = paise ? Paise.toRupees(emiPaise) : emi;
+        this.monthlyRate = input.getAnnualRate() / 12 / 100.0;
+        this.currentRate = input.getAnnualRate();
+        this.accruals = monthlyCompounding ? null : accruals;
+        this.moratoria = input.getMoratoriumIndex();
+        this.extendTenure = !monthlyCompounding && input.getStrategy() == LoanInput.FloatingStrategy.EMI_CONSTANT;
+        this.emiSolverIterations = emiSolverIterations;
+        this.firstRowAdjustment = 0;
+        this.firstRowAdjustmentPaise = 0;
+        this.brokenPeriodInterest = null;
+        this.balance = start.getBalance();
+        this.balancePaise = paise ? Paise.round(start.getBalance()) : 0;
+        this.monthOrdinal = CalendarTable.monthOrdinal(start.getNextPaymentDate());
+        this.dayOfMonth = start.getNextPaymentDate().getDayOfMonth();
+        this.month = start.getMonthNumber();
+        this.monthCount = start.getMonthNumber();
+        this.extending = false;
+        this.extendable = false;
+        this.rows = 0;
+    }
+
+    void applyBrokenPeriodInterest(LoanOutput.BrokenPeriodInterest bpi) {
+        this.brokenPeriodInterest = bpi;
+        if (bpi != null && bpi.isAddedToFirstEMI()) {
+            this.firstRowAdjustment = bpi.getInterestAmount();
+            this.firstRowAdjustmentPaise = paise ? Paise.round(bpi.getInterestAmount()) : 0;
+        }
+    }
+
+    private static long installmentPaise(double emi, ScheduleCheckpoint start, int months) {
+        if (Double.isFinite(emi)) {
+            return Paise.ceil(emi);
+        }
+        // No EMI could be solved (e.g. a zero rate under monthly compounding): spread the balance evenly
+        int remainingMonths = Math.max(months - start.getMonthNumber(), 1);
+        return Paise.ceil(start.getBalance() / remainingMonths);
+    }
+
+    /**
+     * Compute the next row; false once the schedule is complete
+     */
+    public boolean advance() {
+        if (paise) {
+            return advancePaise();
+        }
+        if (!extending) {
+            if (balance >= 1 && monthCount < MAX_MONTHS) {
+                monthCount++;
+                month++;
+                if (monthlyCompounding) {
+                    monthlyCompoundingRow();
+                } else {
+                    dailyCompoundingRow();
+                }
+                completeRow();
+                return true;
+            }
+            extending = true;
+            extendable = extendTenure && balance > 0.01;
+        }
+
+        if (extendable && balance > 0.01 && monthCount < MAX_MONTHS) {
+            monthCount++;
+            extendedRow();
+            completeRow();
+            return true;
+        }
+        return false;
+    }
+
+    private void monthlyCompoundingRow() {
+        double monthlyInterest = balance * monthlyRate;
+
+        LoanInput.MoratoriumType moratoriumType = moratoria.typeForMonth(month);
+
+        byte paymentType = ScheduleBuffer.NORMAL;
+        double actualEMI = emi;
+        double principalPaid = 0;
+        double interestPaid = monthlyInterest;
+
+        if (moratoriumType != null) {
+            double partialPayment = moratoria.partialPaymentForMonth(month);
+
+            switch (moratoriumType) {
+                case INTEREST_ONLY:
+                    paymentType = ScheduleBuffer.MORATORIUM_INTEREST;
+                    actualEMI = monthlyInterest;
+                    principalPaid = 0;
+                    break;
+                case PARTIAL:
+                    paymentType = ScheduleBuffer.MORATORIUM_PARTIAL;
+                    actualEMI = partialPayment;
+                    principalPaid = Math.max(0, partialPayment - monthlyInterest);
+                    balance -= (partialPayment - monthlyInterest);
+                    break;
+                case FULL:
+                    paymentType = ScheduleBuffer.MORATORIUM_FULL;
+                    actualEMI = 0;
+                    principalPaid = 0;
+                    interestPaid = 0;
+                    balance += monthlyInterest;
+                    break;
+            }
+        } else {
+            balance -= emi;
+            principalPaid = emi - monthlyInterest;
+
+            // Ensure balance doesn't go negative
+            if (balance < 1) {
+                balance = 0;
+            }
+        }
+
+        setRow(month, actualEMI, principalPaid, interestPaid, paymentType);
+    }
+
+    private void dailyCompoundingRow() {
+        int daysInMonth = CalendarTable.lengthOfMonth(monthOrdinal);
+        int yearLength = CalendarTable.lengthOfYear(monthOrdinal);
+
+        // Closed-form daily compounding: balance grows by (1 + r/yearLength)^days
+        double monthlyInterest = accruals.accrueInterest(balance, yearLength, daysInMonth);
+        balance += monthlyInterest;
+
+        LoanInput.MoratoriumType moratoriumType = moratoria.typeForMonth(month);
+
+        byte paymentType = ScheduleBuffer.NORMAL;
+        double actualEMI = emi;
+        double principalPaid = 0;
+        double interestPaid = monthlyInterest;
+
+        if (moratoriumType != null) {
+            double partialPayment = moratoria.partialPaymentForMonth(month);
+
+            switch (moratoriumType) {
+                case INTEREST_ONLY:
+                    paymentType = ScheduleBuffer.MORATORIUM_INTEREST;
+                    actualEMI = monthlyInterest;
+                    balance -= monthlyInterest;
+                    principalPaid = 0;
+                    break;
+                case PARTIAL:
+                    paymentType = ScheduleBuffer.MORATORIUM_PARTIAL;
+                    actualEMI = partialPayment;
+                    balance -= partialPayment;
+                    principalPaid = partialPayment - monthlyInterest;
+                    break;
+                case FULL:
+                    paymentType = ScheduleBuffer.MORATORIUM_FULL;
+                    actualEMI = 0;
+                    principalPaid = 0;
+                    interestPaid = 0;
+                    break;
+            }
+        } else {
+            balance -= emi;
+            principalPaid = emi - monthlyInterest;
+
+            // Ensure balance doesn't go negative
+            if (balance < 1) {
+                balance = 0;
+            }
+        }
+
+        setRow(month, actualEMI, principalPaid, interestPaid, paymentType);
+    }
+
+    // EMI_CONSTANT loans keep paying the same EMI past the tenure until the balance is cleared
+    private void extendedRow() {
+        int daysInMonth = CalendarTable.lengthOfMonth(monthOrdinal);
+        int yearLength = CalendarTable.lengthOfYear(monthOrdinal);
+
+        double monthlyInterest = accruals.accrueInterest(balance, yearLength, daysInMonth);
+        balance += monthlyInterest;
+
+        balance -= emi;
+        double principalPaid = emi - monthlyInterest;
+
+        setRow(monthCount, emi, principalPaid, monthlyInterest, ScheduleBuffer.EXTENDED);
+    }
+
+    // Whole-paise month: the loop runs until the balance is exactly zero, so no EXTENDED rows are needed
+    private boolean advancePaise() {
+        if (balancePaise <= 0 || monthCount >= MAX_MONTHS) {
+            return false;
+        }
+        monthCount++;
+        month++;
+
+        long interest;
+        if (monthlyCompounding) {
+            interest = Paise.roundFraction(balancePaise * monthlyRate);
+        } else {
+            int daysInMonth = CalendarTable.lengthOfMonth(monthOrdinal);
+            int yearLength = CalendarTable.lengthOfYear(monthOrdinal);
+            interest = Paise.roundFraction(accruals.accrueInterest(balancePaise, yearLength, daysInMonth));
+        }
+        long due = balancePaise + interest;
+
+        LoanInput.MoratoriumType moratoriumType = moratoria.typeForMonth(month);
+
+        byte paymentType = ScheduleBuffer.NORMAL;
+        long payment;
+        long interestPaid = interest;
+        if (moratoriumType == null) {
+            payment = due < emiPaise + PAYOFF_TOLERANCE_PAISE ? due : emiPaise;
+        } else {
+            switch (moratoriumType) {
+                case INTEREST_ONLY:
+                    paymentType = ScheduleBuffer.MORATORIUM_INTEREST;
+                    payment = interest;
+                    break;
+                case PARTIAL:
+                    paymentType = ScheduleBuffer.MORATORIUM_PARTIAL;
+                    payment = Math.min(Paise.round(moratoria.partialPaymentForMonth(month)), due);
+                    break;
+                default:
+                    paymentType = ScheduleBuffer.MORATORIUM_FULL;
+                    payment = 0;
+                    interestPaid = 0;
+                    break;
+            }
+        }
+        balancePaise = due - payment;
+
+        rowMonth = month;
+        rowEmiPaise = payment;
+        rowInterestPaise = interestPaid;
+        rowPrincipalPaise = payment - interestPaid;
+        rowType = paymentType;
+        completeRow();
+        return true;
+    }
+
+    private void setRow(int number, double actualEMI, double principalPaid, double interestPaid, byte paymentType) {
+        rowMonth = number;
+        rowEmi = actualEMI;
+        rowPrincipal = principalPaid;
+        rowInterest = interestPaid;
+        rowType = paymentType;
+    }
+
+    private void completeRow() {
+        rowEpochDay = CalendarTable.epochDay(monthOrdinal, dayOfMonth);
+        if (paise) {
+            if (rows == 0 && firstRowAdjustmentPaise != 0) {
+                rowEmiPaise += firstRowAdjustmentPaise;
+                rowInterestPaise += firstRowAdjustmentPaise;
+                rowType = ScheduleBuffer.NORMAL_WITH_BPI;
+            }
+            rowEmi = Paise.toRupees(rowEmiPaise);
+            rowPrincipal = Paise.toRupees(rowPrincipalPaise);
+            rowInterest = Paise.toRupees(rowInterestPaise);
+            rowBalance = Paise.toRupees(balancePaise);
+        } else {
+            rowBalance = balance;
+            if (rows == 0 && firstRowAdjustment != 0) {
+                rowEmi += firstRowAdjustment;
+                rowInterest += firstRowAdjustment;
+                rowType = ScheduleBuffer.NORMAL_WITH_BPI;
+            }
+        }
+        rows++;
+
+        monthOrdinal++;
+        dayOfMonth = CalendarTable.nextDayOfMonth(monthOrdinal, dayOfMonth);
+    }
+
+    /**
+     * Write the current row to {@code sink}
+     */
+    public void writeTo(ScheduleSink sink) {
+        writeTo(sink, 0);
+    }
+
+    /**
+     * Write the current row to {@code sink} with its month number shifted by {@code monthOffset}
+     */
+    public void writeTo(ScheduleSink sink, int monthOffset) {
+        sink.add(rowMonth + monthOffset, rowEmi, rowPrincipal, rowInterest, rowBalance, currentRate, rowEpochDay, rowType);
+    }
+
+    public double getEmi() { return emi; }
+    public int getEmiSolverIterations() { return emiSolverIterations; }
+    public LoanOutput.BrokenPeriodInterest getBrokenPeriodInterest() { return brokenPeriodInterest; }
+
+    // Current row
+    public int getMonthNumber() { return rowMonth; }
+    public double getRowEmi() { return rowEmi; }
+    public double getPrincipalPaid() { return rowPrincipal; }
+    public double getInterestPaid() { return rowInterest; }
+    public double getRemainingBalance() { return rowBalance; }
+    public double getCurrentRate() { return currentRate; }
+    public int getEpochDay() { return rowEpochDay; }
+    public byte getPaymentTypeCode() { return rowType; }
+
+    // Rows produced so far
+    public int getRowCount() { return rows; }
+
+    public LoanOutput.MonthlyPayment toMonthlyPayment() {
+        return new LoanOutput.MonthlyPayment(rowMonth, rowEmi, rowPrincipal, rowInterest, rowBalance, currentRate,
+            ScheduleBuffer.toLocalDate(rowEpochDay), ScheduleBuffer.paymentTypeName(rowType));
+    }
+
+    /**
+     * Remaining rows as {@link LoanOutput.MonthlyPayment} objects, each built when it is requested
+     */
+    public Iterator<LoanOutput.MonthlyPayment> iterator() {
+        return new Iterator<LoanOutput.MonthlyPayment>() {
+            private boolean pending;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (!pending && !done) {
+                    pending = advance();
+                    done = !pending;
+                }
+                return pending;
+            }
+
+            @Override
+            public LoanOutput.MonthlyPayment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                pending = false;
+                return toMonthlyPayment();
+            }
+        };
+    }
+
+    public Spliterator<LoanOutput.MonthlyPayment> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+}
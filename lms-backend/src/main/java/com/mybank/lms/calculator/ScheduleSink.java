@@ -0,0 +1,12 @@
+package com.mybank.lms.calculator;
+
+/**
+ * Receiver for schedule rows as the simulation produces them.
+ *
+ * {@link ScheduleBuffer} stores every row; {@link LoanSummary} only folds them into totals.
+ */
+public interface ScheduleSink {
+
+    void add(int month, double emiAmount, double principalPaid, double interestPaid,
+             double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode);
+}
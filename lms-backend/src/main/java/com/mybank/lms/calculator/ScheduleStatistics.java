@@ -0,0 +1,132 @@
+package com.mybank.lms.calculator;
+
+/**
+ * Running statistics of a schedule, updated as each row is emitted.
+ *
+ * Amounts are kept in whole paise after rounding every row to the paisa, the way rows are persisted, so
+ * the totals equal sums over the stored two-decimal rows. EMI rows are paying NORMAL, NORMAL_WITH_BPI and
+ * EXTENDED rows; capitalised interest is interest on rows with no payment (full moratorium).
+ */
+public final class ScheduleStatistics implements ScheduleSink {
+
+    private int rowCount;
+    private long totalInterest;
+    private long totalPrincipal;
+    private long totalPaid;
+    private long capitalisedInterest;
+    private long preEmiTotal;
+    private long firstEmi;
+    private long lastEmi;
+    private int emiCount;
+    private int moratoriumMonths;
+    private long minBalance;
+    private long maxBalance;
+
+    /**
+     * Statistics of rows already stored in a buffer
+     */
+    public static ScheduleStatistics of(ScheduleBuffer schedule) {
+        ScheduleStatistics statistics = new ScheduleStatistics();
+        schedule.copyTo(statistics);
+        return statistics;
+    }
+
+    @Override
+    public void add(int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        addPaise(Paise.roundDecimal(emiAmount), Paise.roundDecimal(principalPaid), Paise.roundDecimal(interestPaid),
+            Paise.roundDecimal(remainingBalance), typeCode);
+    }
+
+    /**
+     * Add a row given in paise (e.g. a persisted row)
+     */
+    public void addPaise(long emi, long principal, long interest, long balance, byte typeCode) {
+        totalInterest += interest;
+        totalPrincipal += principal;
+        totalPaid += emi;
+        if (emi == 0) {
+            capitalisedInterest += interest;
+        }
+
+        switch (typeCode) {
+            case ScheduleBuffer.PRE_EMI:
+                preEmiTotal += emi;
+                break;
+            case ScheduleBuffer.MORATORIUM_INTEREST:
+            case ScheduleBuffer.MORATORIUM_PARTIAL:
+            case ScheduleBuffer.MORATORIUM_FULL:
+                moratoriumMonths++;
+                break;
+            default:
+                if (emi > 0) {
+                    if (emiCount == 0) {
+                        firstEmi = emi;
+                    }
+                    lastEmi = emi;
+                    emiCount++;
+                }
+        }
+
+        if (rowCount == 0 || balance < minBalance) {
+            minBalance = balance;
+        }
+        if (rowCount == 0 || balance > maxBalance) {
+            maxBalance = balance;
+        }
+        rowCount++;
+    }
+
+    public ScheduleStatistics copy() {
+        ScheduleStatistics copy = new ScheduleStatistics();
+        copy.rowCount = rowCount;
+        copy.totalInterest = totalInterest;
+        copy.totalPrincipal = totalPrincipal;
+        copy.totalPaid = totalPaid;
+        copy.capitalisedInterest = capitalisedInterest;
+        copy.preEmiTotal = preEmiTotal;
+        copy.firstEmi = firstEmi;
+        copy.lastEmi = lastEmi;
+        copy.emiCount = emiCount;
+        copy.moratoriumMonths = moratoriumMonths;
+        copy.minBalance = minBalance;
+        copy.maxBalance = maxBalance;
+        return copy;
+    }
+
+    /**
+     * Back to an empty schedule, for reuse
+     */
+    public void reset() {
+        rowCount = 0;
+        totalInterest = 0;
+        totalPrincipal = 0;
+        totalPaid = 0;
+        capitalisedInterest = 0;
+        preEmiTotal = 0;
+        firstEmi = 0;
+        lastEmi = 0;
+        emiCount = 0;
+        moratoriumMonths = 0;
+        minBalance = 0;
+        maxBalance = 0;
+    }
+
+    public int getRowCount() { return rowCount; }
+    public int getEmiCount() { return emiCount; }
+    public int getMoratoriumMonths() { return moratoriumMonths; }
+
+    // Amounts in paise; see Paise.toRupees / Paise.toBigDecimal
+    public long getTotalInterest() { return totalInterest; }
+    public long getTotalPrincipal() { return totalPrincipal; }
+    public long getTotalPaid() { return totalPaid; }
+    public long getCapitalisedInterest() { return capitalisedInterest; }
+    public long getPreEmiTotal() { return preEmiTotal; }
+    public long getFirstEmi() { return firstEmi; }
+    public long getLastEmi() { return lastEmi; }
+    public long getMinBalance() { return minBalance; }
+    public long getMaxBalance() { return maxBalance; }
+
+    // Interest on rows that carry a payment
+    public long getPaidInterest() { return totalInterest - capitalisedInterest; }
+}
@@ -0,0 +1,36 @@
+package com.mybank.lms.config;
+
+import com.mybank.lms.calculator.LoanResultCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@Slf4j
+public class CalculatorConfig {
+    
+    /**
+     * Pool for batch loan calculations (rate resets, portfolio recomputes).
+     * lms.calculator.parallelism = 0 uses one worker per available core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool calculatorPool(@Value("${lms.calculator.parallelism:0}") int parallelism) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        log.info("Loan calculator pool parallelism: {}", workers);
+        return new ForkJoinPool(workers);
+    }
+    
+    /**
+     * Shared cache of calculator results. Bounded by entry count and by total schedule rows
+     * (a row is roughly 50 bytes); set max-entries to 0 to disable caching.
+     */
+    @Bean
+    public LoanResultCache loanResultCache(@Value("${lms.calculator.cache.max-entries:2000}") int maxEntries,
+                                           @Value("${lms.calculator.cache.max-rows:250000}") long maxRows) {
+        log.info("Loan result cache: {} entries, {} schedule rows", maxEntries, maxRows);
+        return new LoanResultCache(maxEntries, maxRows);
+    }
+}
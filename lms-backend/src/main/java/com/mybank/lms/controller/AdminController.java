@@ -1,7 +1,9 @@
 package com.mybank.lms.controller;
 
+import com.mybank.lms.calculator.LoanResultCache;
 import com.mybank.lms.model.dto.BenchmarkDTO;
 import com.mybank.lms.service.BenchmarkService;
+import com.mybank.lms.service.RepaymentSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -19,6 +22,8 @@ import java.util.List;
 public class AdminController {
     
     private final BenchmarkService benchmarkService;
+    private final LoanResultCache loanResultCache;
+    private final RepaymentSnapshotService repaymentSnapshotService;
     
     @PostMapping("/benchmarks")
     public ResponseEntity<BenchmarkDTO> addBenchmark(@Valid @RequestBody BenchmarkDTO benchmarkDTO) {
@@ -75,4 +80,44 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+    
+    @PostMapping("/benchmarks/reload")
+    public ResponseEntity<Map<String, Integer>> reloadBenchmarkRates() {
+        log.info("Reloading benchmark rates");
+        
+        try {
+            int rates = benchmarkService.reloadBenchmarkRates();
+            return ResponseEntity.ok(Map.of("rates", rates));
+        } catch (Exception e) {
+            log.error("Error reloading benchmark rates", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/calculator-cache")
+    public ResponseEntity<LoanResultCache.Stats> getCalculatorCacheStats() {
+        LoanResultCache.Stats stats = loanResultCache.getStats();
+        log.info("Calculator cache stats: {}", stats);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @DeleteMapping("/calculator-cache")
+    public ResponseEntity<Void> clearCalculatorCache() {
+        log.info("Clearing calculator cache");
+        loanResultCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/schedule-rows/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillScheduleRows(@RequestParam(defaultValue = "100") int limit) {
+        log.info("Backfilling repayment rows for up to {} blob snapshots", limit);
+        
+        try {
+            int snapshots = repaymentSnapshotService.backfillRows(limit);
+            return ResponseEntity.ok(Map.of("snapshots", snapshots));
+        } catch (Exception e) {
+            log.error("Error backfilling repayment rows", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
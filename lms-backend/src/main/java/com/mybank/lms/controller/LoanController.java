@@ -2,6 +2,8 @@ package com.mybank.lms.controller;
 
 import com.mybank.lms.model.dto.LoanInputDTO;
 import com.mybank.lms.model.dto.LoanOutputDTO;
+import com.mybank.lms.model.dto.LoanPageDTO;
+import com.mybank.lms.model.dto.LoanSummaryDTO;
 import com.mybank.lms.model.dto.RepaymentScheduleDTO;
 import com.mybank.lms.model.dto.LoanEditDTO;
 import com.mybank.lms.model.dto.LoanVersionDTO;
@@ -58,6 +60,28 @@ public class LoanController {
         }
     }
     
+    @GetMapping("/summaries")
+    public ResponseEntity<LoanPageDTO> getLoanPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String productType,
+            @RequestParam(required = false) String rateType,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Fetching loan summaries, cursor: {}", cursor);
+        
+        try {
+            LoanPageDTO page = loanService.getLoanPage(status, productType, rateType, customerId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid loan list request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching loan summaries", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<LoanOutputDTO> createLoan(@Valid @RequestBody LoanInputDTO loanInputDTO) {
         log.info("Creating loan for customer: {}", loanInputDTO.getCustomerId());
@@ -87,14 +111,35 @@ public class LoanController {
         }
     }
     
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<LoanSummaryDTO> getLoanSummary(@PathVariable UUID id) {
+        log.info("Fetching summary for loan: {}", id);
+        
+        try {
+            LoanSummaryDTO summary = loanService.getLoanSummary(id);
+            return ResponseEntity.ok(summary);
+        } catch (RuntimeException e) {
+            log.error("Loan not found: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error fetching loan summary", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @GetMapping("/{id}/schedule")
     public ResponseEntity<RepaymentScheduleDTO> getRepaymentSchedule(
             @PathVariable UUID id,
-            @RequestParam(required = false) UUID snapshotId) {
+            @RequestParam(required = false) UUID snapshotId,
+            @RequestParam(required = false) Integer fromMonth,
+            @RequestParam(required = false) Integer toMonth) {
         log.info("Fetching repayment schedule for loan: {}, snapshot: {}", id, snapshotId);
         
         try {
-            RepaymentScheduleDTO schedule = repaymentSnapshotService.getRepaymentSchedule(id);
+            RepaymentScheduleDTO schedule = fromMonth == null && toMonth == null
+                ? repaymentSnapshotService.getRepaymentSchedule(id)
+                : repaymentSnapshotService.getRepaymentSchedule(id,
+                    fromMonth != null ? fromMonth : 1, toMonth != null ? toMonth : Integer.MAX_VALUE);
             return ResponseEntity.ok(schedule);
         } catch (RuntimeException e) {
             log.error("Schedule not found for loan: {}", id);
@@ -0,0 +1,39 @@
+package com.mybank.lms.controller;
+
+import com.mybank.lms.model.dto.EmiGridDTO;
+import com.mybank.lms.model.dto.EmiGridRequestDTO;
+import com.mybank.lms.service.QuoteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/quotes")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class QuoteController {
+    
+    private final QuoteService quoteService;
+    
+    @PostMapping("/emi-grid")
+    public ResponseEntity<EmiGridDTO> calculateEmiGrid(@Valid @RequestBody EmiGridRequestDTO request) {
+        log.info("Calculating EMI grid: {} rates x {} tenures for principal {}",
+            request.getAnnualRates().size(), request.getTenures().size(), request.getPrincipal());
+        
+        try {
+            EmiGridDTO grid = quoteService.calculateEmiGrid(request);
+            return ResponseEntity.ok(grid);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid EMI grid request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error calculating EMI grid", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
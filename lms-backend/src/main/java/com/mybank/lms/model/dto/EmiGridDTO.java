@@ -0,0 +1,28 @@
+package com.mybank.lms.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiGridDTO {
+    
+    private BigDecimal principal;
+    private String compoundingFrequency;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    
+    private List<BigDecimal> annualRates;
+    private List<Integer> tenures;
+    
+    // emis[i][j] is the EMI at annualRates[i] over tenures[j] months
+    private List<List<BigDecimal>> emis;
+}
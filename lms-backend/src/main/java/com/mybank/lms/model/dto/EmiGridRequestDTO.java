@@ -0,0 +1,35 @@
+package com.mybank.lms.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiGridRequestDTO {
+    
+    @NotNull(message = "Principal amount is required")
+    @DecimalMin(value = "0.01", message = "Principal must be greater than 0")
+    private BigDecimal principal;
+    
+    @NotEmpty(message = "At least one annual rate is required")
+    private List<@NotNull @DecimalMin(value = "0.00", message = "Annual rate cannot be negative")
+        @DecimalMax(value = "50.00", message = "Annual rate must be less than 50%") BigDecimal> annualRates;
+    
+    @NotEmpty(message = "At least one tenure is required")
+    private List<@NotNull @Min(value = 1, message = "Months must be at least 1")
+        @Max(value = 600, message = "Months cannot exceed 600") Integer> tenures;
+    
+    private String compoundingFrequency = "DAILY"; // DAILY, MONTHLY
+    
+    // First installment date; daily-compounded EMIs depend on the month lengths from here
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+}
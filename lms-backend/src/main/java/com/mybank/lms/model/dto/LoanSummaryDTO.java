@@ -0,0 +1,45 @@
+package com.mybank.lms.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A loan's terms plus the figures of its latest snapshot, without schedules (loan list and summary reads)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSummaryDTO {
+    
+    private UUID loanId;
+    private String customerId;
+    private String productType;
+    private String status;
+    private String rateType;
+    private BigDecimal principal;
+    private BigDecimal annualRate;
+    private Integer months;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate loanIssueDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    // From the loan_summary row of the latest snapshot (null when the loan has none)
+    private UUID snapshotId;
+    private Integer snapshotVersion;
+    private BigDecimal apr;
+    private BigDecimal outstandingPrincipal;
+    private Integer monthsRemaining;
+    private BigDecimal initialEmi;
+    private BigDecimal totalInterest;
+    private BigDecimal totalAmountPayable;
+}
@@ -31,6 +31,9 @@ public class RepaymentScheduleDTO {
     private List<RepaymentRowDTO> repaymentRows;
     private List<RepaymentRowDTO> installments; // Alias for frontend compatibility
     
+    // Null for snapshots without recorded statistics
+    private ScheduleStatisticsDTO statistics;
+    
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
     
@@ -62,4 +65,20 @@ public class RepaymentScheduleDTO {
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime createdAt;
     }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduleStatisticsDTO {
+        private BigDecimal totalInterest;
+        private BigDecimal totalPrincipal;
+        private BigDecimal totalPaid;
+        private BigDecimal capitalisedInterest;
+        private BigDecimal preEmiTotal;
+        private BigDecimal firstEmi;
+        private BigDecimal lastEmi;
+        private Integer moratoriumMonths;
+        private BigDecimal minBalance;
+        private BigDecimal maxBalance;
+    }
 }
@@ -107,6 +107,14 @@ public class LoanEntity {
     @Enumerated(EnumType.STRING)
     private LoanStatus status = LoanStatus.ACTIVE;
     
+    // Latest published repayment snapshot; only LoanRepository.publishSnapshot writes these, so saving a
+    // loan never moves the pointer back
+    @Column(name = "current_snapshot_id", insertable = false, updatable = false)
+    private UUID currentSnapshotId;
+    
+    @Column(name = "current_snapshot_version", insertable = false, updatable = false)
+    private Integer currentSnapshotVersion;
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,61 @@
+package com.mybank.lms.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Headline figures of a loan's latest snapshot, rewritten by RepaymentSnapshotService whenever it creates one
+ */
+@Entity
+@Table(name = "loan_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSummaryEntity {
+    
+    @Id
+    @Column(name = "loan_id")
+    private UUID loanId;
+    
+    @Column(name = "snapshot_id", nullable = false)
+    private UUID snapshotId;
+    
+    @Column(name = "snapshot_version", nullable = false)
+    private Integer snapshotVersion;
+    
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+    
+    // EMI of the first installment of the schedule
+    @Column(name = "initial_emi", precision = 18, scale = 2)
+    private BigDecimal initialEmi;
+    
+    @Column(name = "apr", precision = 10, scale = 4)
+    private BigDecimal apr;
+    
+    @Column(name = "outstanding_principal", precision = 18, scale = 2)
+    private BigDecimal outstandingPrincipal;
+    
+    @Column(name = "months_remaining")
+    private Integer monthsRemaining;
+    
+    // Interest on installments with a non-zero EMI (capitalised moratorium interest excluded)
+    @Column(name = "total_interest", precision = 18, scale = 2)
+    private BigDecimal totalInterest;
+    
+    // Loan principal plus totalInterest
+    @Column(name = "total_amount_payable", precision = 18, scale = 2)
+    private BigDecimal totalAmountPayable;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
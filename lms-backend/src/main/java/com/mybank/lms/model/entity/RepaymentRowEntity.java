@@ -26,6 +26,10 @@ public class RepaymentRowEntity {
     @JoinColumn(name = "snapshot_id", nullable = false)
     private RepaymentSnapshotEntity snapshot;
     
+    // Partition key, copied from the snapshot's loan
+    @Column(name = "loan_id", nullable = false)
+    private UUID loanId;
+    
     @Column(name = "month_number", nullable = false)
     private Integer monthNumber;
     
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "repayment_snapshot")
+@Table(name = "repayment_snapshot", uniqueConstraints = @UniqueConstraint(columnNames = {"loan_id", "version"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +51,60 @@ public class RepaymentSnapshotEntity {
     @Column(name = "version", nullable = false)
     private Integer version = 1;
     
+    // Schedule statistics (null for snapshots created before they were recorded)
+    @Column(name = "total_interest", precision = 18, scale = 2)
+    private BigDecimal totalInterest;
+    
+    @Column(name = "total_principal", precision = 18, scale = 2)
+    private BigDecimal totalPrincipal;
+    
+    @Column(name = "total_paid", precision = 18, scale = 2)
+    private BigDecimal totalPaid;
+    
+    @Column(name = "capitalised_interest", precision = 18, scale = 2)
+    private BigDecimal capitalisedInterest;
+    
+    @Column(name = "pre_emi_total", precision = 18, scale = 2)
+    private BigDecimal preEmiTotal;
+    
+    @Column(name = "first_emi", precision = 18, scale = 2)
+    private BigDecimal firstEmi;
+    
+    @Column(name = "last_emi", precision = 18, scale = 2)
+    private BigDecimal lastEmi;
+    
+    @Column(name = "moratorium_months")
+    private Integer moratoriumMonths;
+    
+    @Column(name = "min_balance", precision = 18, scale = 2)
+    private BigDecimal minBalance;
+    
+    @Column(name = "max_balance", precision = 18, scale = 2)
+    private BigDecimal maxBalance;
+    
+    // Schedule encoded by ScheduleBlobCodec when stored as a blob instead of repayment rows
+    @Column(name = "schedule_blob")
+    private byte[] scheduleBlob;
+    
+    @Column(name = "schedule_row_count")
+    private Integer scheduleRowCount;
+    
+    // Delta snapshots: rows up to inheritedThroughMonth are read from the parent's schedule, re-typed as
+    // inheritedPaymentType; only the later rows are stored with this snapshot
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_snapshot_id")
+    private RepaymentSnapshotEntity parentSnapshot;
+    
+    @Column(name = "inherited_through_month")
+    private Integer inheritedThroughMonth;
+    
+    @Column(name = "inherited_payment_type", length = 50)
+    private String inheritedPaymentType;
+    
+    // Number of parents to read through to rebuild the schedule; 0 for a full snapshot
+    @Column(name = "chain_depth", nullable = false)
+    private Integer chainDepth = 0;
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
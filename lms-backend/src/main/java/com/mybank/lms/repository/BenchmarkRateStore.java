@@ -0,0 +1,170 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.model.entity.BenchmarkHistoryEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-memory index of {@code benchmark_history}: one date-sorted map per benchmark, so latest and as-of-date
+ * rate lookups take O(log n) and never touch the database.
+ *
+ * The whole table is loaded on first use. Rows saved through {@link #addAfterCommit} are applied once the
+ * surrounding transaction commits; rows written any other way (another instance, manual SQL) are seen after
+ * the next {@link #reload()}, which runs every {@code lms.benchmarks.refresh-interval-ms} and on demand from
+ * the admin API. Several rows for one benchmark and date resolve to the most recently created one. Readers
+ * see immutable {@link Rate} values in immutable maps that are replaced, never modified, on every change.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class BenchmarkRateStore {
+
+    private final BenchmarkHistoryRepository benchmarkRepository;
+
+    private volatile Map<String, NavigableMap<LocalDate, Rate>> rates;
+
+    /**
+     * A {@code benchmark_history} row as loaded into the index
+     */
+    public static final class Rate {
+        private final UUID id;
+        private final String benchmarkName;
+        private final LocalDate benchmarkDate;
+        private final BigDecimal benchmarkRate;
+        private final LocalDateTime createdAt;
+
+        public Rate(UUID id, String benchmarkName, LocalDate benchmarkDate, BigDecimal benchmarkRate,
+                    LocalDateTime createdAt) {
+            this.id = id;
+            this.benchmarkName = benchmarkName;
+            this.benchmarkDate = benchmarkDate;
+            this.benchmarkRate = benchmarkRate;
+            this.createdAt = createdAt;
+        }
+
+        static Rate of(BenchmarkHistoryEntity entity) {
+            return new Rate(entity.getId(), entity.getBenchmarkName(), entity.getBenchmarkDate(),
+                entity.getBenchmarkRate(), entity.getCreatedAt());
+        }
+
+        public UUID getId() { return id; }
+        public String getBenchmarkName() { return benchmarkName; }
+        public LocalDate getBenchmarkDate() { return benchmarkDate; }
+        public BigDecimal getBenchmarkRate() { return benchmarkRate; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    /**
+     * Rate with the latest benchmark date; same as {@link BenchmarkHistoryRepository#findLatestByBenchmarkName}
+     */
+    public Optional<Rate> findLatestByBenchmarkName(String benchmarkName) {
+        NavigableMap<LocalDate, Rate> history = rates().get(benchmarkName);
+        return history != null && !history.isEmpty() ? Optional.of(history.lastEntry().getValue()) : Optional.empty();
+    }
+
+    /**
+     * Rate in force on {@code date}: the latest one dated on or before it
+     */
+    public Optional<Rate> findLatestByBenchmarkNameAndDate(String benchmarkName, LocalDate date) {
+        NavigableMap<LocalDate, Rate> history = rates().get(benchmarkName);
+        if (history == null) {
+            return Optional.empty();
+        }
+        Map.Entry<LocalDate, Rate> entry = history.floorEntry(date);
+        return entry != null ? Optional.of(entry.getValue()) : Optional.empty();
+    }
+
+    /**
+     * Add a saved row once the current transaction commits (immediately when there is none); nothing happens
+     * on rollback
+     */
+    public void addAfterCommit(BenchmarkHistoryEntity entity) {
+        // Captured now, so later changes to the entity cannot reach the index
+        Rate rate = Rate.of(entity);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(rate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(rate);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the index from the database; returns the number of rates loaded
+     */
+    @Scheduled(fixedDelayString = "${lms.benchmarks.refresh-interval-ms:300000}",
+               initialDelayString = "${lms.benchmarks.refresh-interval-ms:300000}")
+    public synchronized int reload() {
+        Map<String, NavigableMap<LocalDate, Rate>> loaded = new HashMap<>();
+        int count = 0;
+        for (BenchmarkHistoryEntity entity : benchmarkRepository.findAll()) {
+            if (entity.getBenchmarkName() != null && entity.getBenchmarkDate() != null) {
+                put(loaded.computeIfAbsent(entity.getBenchmarkName(), name -> new TreeMap<>()), Rate.of(entity));
+                count++;
+            }
+        }
+        loaded.replaceAll((name, history) -> Collections.unmodifiableNavigableMap(history));
+        rates = Collections.unmodifiableMap(loaded);
+        log.info("Loaded {} benchmark rates for {} benchmarks", count, loaded.size());
+        return count;
+    }
+
+    private Map<String, NavigableMap<LocalDate, Rate>> rates() {
+        Map<String, NavigableMap<LocalDate, Rate>> current = rates;
+        if (current == null) {
+            synchronized (this) {
+                if (rates == null) {
+                    reload();
+                }
+                current = rates;
+            }
+        }
+        return current;
+    }
+
+    // Synchronized with reload, so a row committed while the table is being read is applied after the load
+    private synchronized void add(Rate rate) {
+        if (rates == null) {
+            // Not loaded yet; the first lookup will read the committed row
+            return;
+        }
+        if (rate.getBenchmarkName() == null || rate.getBenchmarkDate() == null) {
+            return;
+        }
+        NavigableMap<LocalDate, Rate> history = rates.get(rate.getBenchmarkName());
+        TreeMap<LocalDate, Rate> updated = history != null ? new TreeMap<>(history) : new TreeMap<>();
+        put(updated, rate);
+
+        Map<String, NavigableMap<LocalDate, Rate>> next = new HashMap<>(rates);
+        next.put(rate.getBenchmarkName(), Collections.unmodifiableNavigableMap(updated));
+        rates = Collections.unmodifiableMap(next);
+    }
+
+    private static void put(NavigableMap<LocalDate, Rate> history, Rate rate) {
+        history.merge(rate.getBenchmarkDate(), rate,
+            (existing, added) -> createdAt(added).isBefore(createdAt(existing)) ? existing : added);
+    }
+
+    private static LocalDateTime createdAt(Rate rate) {
+        return rate.getCreatedAt() != null ? rate.getCreatedAt() : LocalDateTime.MIN;
+    }
+}
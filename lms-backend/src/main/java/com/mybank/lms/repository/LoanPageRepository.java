@@ -0,0 +1,106 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.model.dto.LoanSummaryDTO;
+import com.mybank.lms.model.entity.LoanEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Loan list queries that select columns rather than entities, so neither disbursement phases nor schedules
+ * are loaded. Each loan is joined to its {@code loan_summary} row, making a page of the list one query: newest
+ * loans first, by keyset on (created_at, id). A summary row not written for the loan's current snapshot is
+ * left out, so its figures read as null rather than stale.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanPageRepository {
+
+    private static final String SELECT_SUMMARIES = "SELECT l.id, l.customerId, l.productType, l.status, l.rateType, "
+        + "l.principal, l.annualRate, l.months, l.loanIssueDate, l.createdAt, s.snapshotId, s.snapshotVersion, "
+        + "s.apr, s.outstandingPrincipal, s.monthsRemaining, s.initialEmi, s.totalInterest, s.totalAmountPayable "
+        + "FROM LoanEntity l LEFT JOIN LoanSummaryEntity s ON s.loanId = l.id AND s.snapshotId = l.currentSnapshotId";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Up to {@code limit} loans matching the non-null filters, ordered by creation time then id, both
+     * descending, starting after the loan ({@code afterCreatedAt}, {@code afterId}) when given
+     */
+    public List<LoanSummaryDTO> findPage(LoanEntity.LoanStatus status, String productType, LoanEntity.RateType rateType,
+                                         String customerId, LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARIES).append(" WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (status != null) {
+            jpql.append(" AND l.status = :status");
+            parameters.put("status", status);
+        }
+        if (productType != null) {
+            jpql.append(" AND l.productType = :productType");
+            parameters.put("productType", productType);
+        }
+        if (rateType != null) {
+            jpql.append(" AND l.rateType = :rateType");
+            parameters.put("rateType", rateType);
+        }
+        if (customerId != null) {
+            jpql.append(" AND l.customerId = :customerId");
+            parameters.put("customerId", customerId);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            jpql.append(" AND (l.createdAt < :afterCreatedAt OR (l.createdAt = :afterCreatedAt AND l.id < :afterId))");
+            parameters.put("afterCreatedAt", afterCreatedAt);
+            parameters.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY l.createdAt DESC, l.id DESC");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList().stream()
+            .map(LoanPageRepository::toSummary)
+            .collect(Collectors.toList());
+    }
+
+    public Optional<LoanSummaryDTO> findByLoanId(UUID loanId) {
+        return entityManager.createQuery(SELECT_SUMMARIES + " WHERE l.id = :loanId", Object[].class)
+            .setParameter("loanId", loanId)
+            .getResultStream()
+            .findFirst()
+            .map(LoanPageRepository::toSummary);
+    }
+
+    private static LoanSummaryDTO toSummary(Object[] row) {
+        LoanSummaryDTO loan = new LoanSummaryDTO();
+        loan.setLoanId((UUID) row[0]);
+        loan.setCustomerId((String) row[1]);
+        loan.setProductType((String) row[2]);
+        loan.setStatus(row[3] != null ? ((LoanEntity.LoanStatus) row[3]).name() : null);
+        loan.setRateType(row[4] != null ? ((LoanEntity.RateType) row[4]).name() : null);
+        loan.setPrincipal((BigDecimal) row[5]);
+        loan.setAnnualRate((BigDecimal) row[6]);
+        loan.setMonths((Integer) row[7]);
+        loan.setLoanIssueDate((LocalDate) row[8]);
+        loan.setCreatedAt((LocalDateTime) row[9]);
+        loan.setSnapshotId((UUID) row[10]);
+        loan.setSnapshotVersion((Integer) row[11]);
+        loan.setApr((BigDecimal) row[12]);
+        loan.setOutstandingPrincipal((BigDecimal) row[13]);
+        loan.setMonthsRemaining((Integer) row[14]);
+        loan.setInitialEmi((BigDecimal) row[15]);
+        loan.setTotalInterest((BigDecimal) row[16]);
+        loan.setTotalAmountPayable((BigDecimal) row[17]);
+        return loan;
+    }
+}
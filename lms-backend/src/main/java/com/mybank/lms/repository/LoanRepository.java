@@ -2,6 +2,7 @@ package com.mybank.lms.repository;
 
 import com.mybank.lms.model.entity.LoanEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,4 +25,14 @@ public interface LoanRepository extends JpaRepository<LoanEntity, UUID> {
     
     // Find all loans ordered by creation date (newest first)
     List<LoanEntity> findAllByOrderByCreatedAtDesc();
+    
+    // Locks the loan row until the transaction ends, serializing snapshot publication per loan; 0 before the first snapshot
+    @Query(value = "SELECT COALESCE(current_snapshot_version, 0) FROM loans WHERE id = :loanId FOR UPDATE", nativeQuery = true)
+    Integer lockCurrentSnapshotVersion(@Param("loanId") UUID loanId);
+    
+    // Native so it also sets the pointer columns, which the entity maps read-only; flushes the snapshot INSERT first.
+    // A managed LoanEntity is not refreshed: RepaymentSnapshotService.publish sets its pointer fields to match.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE loans SET current_snapshot_id = :snapshotId, current_snapshot_version = :version WHERE id = :loanId", nativeQuery = true)
+    int publishSnapshot(@Param("loanId") UUID loanId, @Param("snapshotId") UUID snapshotId, @Param("version") Integer version);
 }
@@ -0,0 +1,11 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.model.entity.LoanSummaryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface LoanSummaryRepository extends JpaRepository<LoanSummaryEntity, UUID> {
+}
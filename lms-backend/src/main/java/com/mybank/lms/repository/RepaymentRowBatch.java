@@ -0,0 +1,214 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.calculator.Paise;
+import com.mybank.lms.calculator.ScheduleBuffer;
+import com.mybank.lms.calculator.ScheduleSink;
+import com.mybank.lms.calculator.ScheduleStatistics;
+import com.mybank.lms.model.entity.RepaymentRowEntity;
+import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Repayment rows waiting to be written by {@link RepaymentRowWriter}, held column by column.
+ *
+ * Amounts are whole paise and dates are epoch days, so calculator rows go in without creating entities or
+ * {@code BigDecimal}s. Missing values (a null amount or date on a copied row) are stored as {@link #NO_AMOUNT}
+ * and {@link ScheduleBuffer#NO_DATE} and written as NULL.
+ */
+public final class RepaymentRowBatch implements ScheduleSink {
+
+    public static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    private int size;
+    private int[] monthNumber;
+    private int[] epochDay;
+    private long[] emi;
+    private long[] principal;
+    private long[] interest;
+    private long[] balance;
+    private String[] paymentType;
+
+    public RepaymentRowBatch() {
+        this(16);
+    }
+
+    public RepaymentRowBatch(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        monthNumber = new int[capacity];
+        epochDay = new int[capacity];
+        emi = new long[capacity];
+        principal = new long[capacity];
+        interest = new long[capacity];
+        balance = new long[capacity];
+        paymentType = new String[capacity];
+    }
+
+    /**
+     * Calculator row, rounded to the paisa the way {@link Paise#toBigDecimal(double)} rounds it
+     */
+    @Override
+    public void add(int month, double emiAmount, double principalPaid, double interestPaid,
+                    double remainingBalance, double currentRate, int paymentEpochDay, byte typeCode) {
+        add(month, paymentEpochDay, Paise.roundDecimal(emiAmount), Paise.roundDecimal(principalPaid), Paise.roundDecimal(interestPaid),
+            Paise.roundDecimal(remainingBalance), ScheduleBuffer.paymentTypeName(typeCode));
+    }
+
+    public void add(int month, int paymentEpochDay, long emiPaise, long principalPaise, long interestPaise,
+                    long balancePaise, String type) {
+        if (size == monthNumber.length) {
+            grow();
+        }
+        monthNumber[size] = month;
+        epochDay[size] = paymentEpochDay;
+        emi[size] = emiPaise;
+        principal[size] = principalPaise;
+        interest[size] = interestPaise;
+        balance[size] = balancePaise;
+        paymentType[size] = type;
+        size++;
+    }
+
+    /**
+     * Row with persisted (two-decimal) amounts, e.g. a paid installment carried into a new snapshot
+     */
+    public void add(int month, LocalDate paymentDate, BigDecimal emiAmount, BigDecimal principalPaid,
+                    BigDecimal interestPaid, BigDecimal remainingBalance, String type) {
+        add(month, ScheduleBuffer.toEpochDay(paymentDate), paise(emiAmount), paise(principalPaid), paise(interestPaid),
+            paise(remainingBalance), type);
+    }
+
+    /**
+     * Persisted rows, e.g. the schedule of a parent snapshot
+     */
+    public static RepaymentRowBatch of(List<RepaymentRowEntity> entities) {
+        RepaymentRowBatch rows = new RepaymentRowBatch(entities.size());
+        for (RepaymentRowEntity row : entities) {
+            rows.add(row.getMonthNumber(), row.getPaymentDate(), row.getEmi(), row.getPrincipalPaid(),
+                row.getInterestPaid(), row.getRemainingBalance(), row.getPaymentType());
+        }
+        return rows;
+    }
+
+    /**
+     * Rows from {@code fromIndex} to the end
+     */
+    public RepaymentRowBatch from(int fromIndex) {
+        RepaymentRowBatch rows = new RepaymentRowBatch(size - fromIndex);
+        for (int i = fromIndex; i < size; i++) {
+            rows.add(monthNumber[i], epochDay[i], emi[i], principal[i], interest[i], balance[i], paymentType[i]);
+        }
+        return rows;
+    }
+
+    /**
+     * Number of leading rows a delta snapshot can inherit from {@code parent} (rows in month order): they
+     * match the parent's first rows in month, date and amounts, share one payment type, cover every parent row
+     * up to their last month, and every later row of this batch has a greater month.
+     */
+    public int inheritablePrefix(RepaymentRowBatch parent) {
+        int count = 0;
+        while (count < size && count < parent.size
+                && monthNumber[count] == parent.monthNumber[count]
+                && epochDay[count] == parent.epochDay[count]
+                && emi[count] == parent.emi[count]
+                && principal[count] == parent.principal[count]
+                && interest[count] == parent.interest[count]
+                && balance[count] == parent.balance[count]
+                && Objects.equals(paymentType[count], paymentType[0])) {
+            count++;
+        }
+        while (count > 0 && !splitsAfter(count, parent)) {
+            count--;
+        }
+        return count;
+    }
+
+    private boolean splitsAfter(int count, RepaymentRowBatch parent) {
+        int lastMonth = monthNumber[count - 1];
+        if (count < parent.size && parent.monthNumber[count] <= lastMonth) {
+            return false;
+        }
+        for (int i = count; i < size; i++) {
+            if (monthNumber[i] <= lastMonth) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long paise(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : NO_AMOUNT;
+    }
+
+    private void grow() {
+        int capacity = monthNumber.length * 2;
+        monthNumber = Arrays.copyOf(monthNumber, capacity);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        emi = Arrays.copyOf(emi, capacity);
+        principal = Arrays.copyOf(principal, capacity);
+        interest = Arrays.copyOf(interest, capacity);
+        balance = Arrays.copyOf(balance, capacity);
+        paymentType = Arrays.copyOf(paymentType, capacity);
+    }
+
+    /**
+     * Statistics of the batch; missing amounts count as zero and unknown payment types (PAID, FUTURE, ...)
+     * as NORMAL
+     */
+    public ScheduleStatistics statistics() {
+        ScheduleStatistics statistics = new ScheduleStatistics();
+        for (int i = 0; i < size; i++) {
+            byte typeCode = ScheduleBuffer.isPaymentType(paymentType[i])
+                ? ScheduleBuffer.paymentTypeCode(paymentType[i]) : ScheduleBuffer.NORMAL;
+            statistics.addPaise(orZero(emi[i]), orZero(principal[i]), orZero(interest[i]), orZero(balance[i]), typeCode);
+        }
+        return statistics;
+    }
+
+    /**
+     * The rows as (unsaved) entities of {@code snapshot}; rows decoded from a blob take its creation time
+     */
+    public List<RepaymentRowEntity> toEntities(RepaymentSnapshotEntity snapshot) {
+        List<RepaymentRowEntity> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RepaymentRowEntity row = new RepaymentRowEntity();
+            row.setSnapshot(snapshot);
+            row.setLoanId(snapshot.getLoan().getId());
+            row.setMonthNumber(monthNumber[i]);
+            row.setPaymentDate(ScheduleBuffer.toLocalDate(epochDay[i]));
+            row.setEmi(amount(emi[i]));
+            row.setPrincipalPaid(amount(principal[i]));
+            row.setInterestPaid(amount(interest[i]));
+            row.setRemainingBalance(amount(balance[i]));
+            row.setPaymentType(paymentType[i]);
+            row.setCreatedAt(snapshot.getCreatedAt());
+            entities.add(row);
+        }
+        return entities;
+    }
+
+    private static BigDecimal amount(long paise) {
+        return paise != NO_AMOUNT ? Paise.toBigDecimal(paise) : null;
+    }
+
+    private static long orZero(long amount) {
+        return amount == NO_AMOUNT ? 0 : amount;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getMonthNumber(int index) { return monthNumber[index]; }
+    public int getEpochDay(int index) { return epochDay[index]; }
+    public long getEmi(int index) { return emi[index]; }
+    public long getPrincipalPaid(int index) { return principal[index]; }
+    public long getInterestPaid(int index) { return interest[index]; }
+    public long getRemainingBalance(int index) { return balance[index]; }
+    public String getPaymentType(int index) { return paymentType[index]; }
+}
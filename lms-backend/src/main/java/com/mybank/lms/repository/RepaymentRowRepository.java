@@ -2,15 +2,25 @@ package com.mybank.lms.repository;
 
 import com.mybank.lms.model.entity.RepaymentRowEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RepaymentRowRepository extends JpaRepository<RepaymentRowEntity, UUID> {
     
-    List<RepaymentRowEntity> findBySnapshotIdOrderByMonthNumber(UUID snapshotId);
+    // repayment_row is partitioned by loan_id; every query names the loan so only its partition is read
     
-    List<RepaymentRowEntity> findBySnapshotId(UUID snapshotId);
+    List<RepaymentRowEntity> findByLoanIdAndSnapshotIdOrderByMonthNumber(UUID loanId, UUID snapshotId);
+    
+    List<RepaymentRowEntity> findByLoanIdAndSnapshotIdAndMonthNumberBetweenOrderByMonthNumber(UUID loanId, UUID snapshotId,
+                                                                                          Integer fromMonth, Integer toMonth);
+    
+    @Query("SELECT r.emi FROM RepaymentRowEntity r WHERE r.loanId = :loanId AND r.snapshot.id = :snapshotId AND r.paymentType = 'NORMAL' ORDER BY r.monthNumber ASC LIMIT 1")
+    Optional<BigDecimal> findFirstRegularEmi(@Param("loanId") UUID loanId, @Param("snapshotId") UUID snapshotId);
 }
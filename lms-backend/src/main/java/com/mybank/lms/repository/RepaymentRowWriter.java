@@ -0,0 +1,265 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.calculator.ScheduleBuffer;
+import com.mybank.lms.model.entity.RepaymentRowEntity;
+import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bulk writer for the rows of a repayment snapshot.
+ *
+ * With {@code lms.persistence.schedule-storage: BLOB} the rows are encoded into the snapshot's
+ * {@code schedule_blob} (see {@link ScheduleBlobCodec}) instead of {@code repayment_row}. Otherwise, on
+ * PostgreSQL the rows are streamed with {@code COPY ... FROM STDIN} in one round trip, straight from the
+ * batch's primitive columns. Other databases (H2 in tests), or {@code lms.persistence.copy-rows: false}, fall
+ * back to {@code saveAll} with Hibernate JDBC batching. All of these run in the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RepaymentRowWriter {
+
+    private static final String COPY_SQL = "COPY repayment_row (loan_id, snapshot_id, month_number, payment_date, "
+        + "emi, principal_paid, interest_paid, remaining_balance, payment_type) FROM STDIN";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final RepaymentRowRepository rowRepository;
+
+    @Value("${lms.persistence.copy-rows:true}")
+    private boolean copyRows;
+
+    @Value("${lms.persistence.schedule-storage:ROWS}")
+    private StorageMode storageMode;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Where snapshot schedules are stored
+     */
+    public enum StorageMode {
+        // One repayment_row per installment
+        ROWS,
+        // One compressed schedule_blob on the snapshot
+        BLOB
+    }
+
+    /**
+     * Store the rows of {@code snapshot}, which must already have been saved; returns the number of rows written
+     */
+    public int write(RepaymentSnapshotEntity snapshot, RepaymentRowBatch rows) {
+        if (storageMode == StorageMode.BLOB) {
+            snapshot.setScheduleBlob(ScheduleBlobCodec.encode(rows));
+            snapshot.setScheduleRowCount(rows.size());
+            return rows.size();
+        }
+        return writeRows(snapshot, rows);
+    }
+
+    /**
+     * Insert {@code repayment_row} rows whatever the storage mode (used to backfill rows of blob snapshots)
+     */
+    public int writeRows(RepaymentSnapshotEntity snapshot, RepaymentRowBatch rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        if (!copyRows || !isPostgres()) {
+            return saveEntities(snapshot, rows);
+        }
+
+        // The snapshot INSERT may still be pending in the persistence context; rows reference it by foreign key
+        entityManager.flush();
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, snapshot, rows));
+        log.debug("Copied {} repayment rows for snapshot: {}", copied, snapshot.getId());
+        return copied != null ? copied.intValue() : 0;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static long copy(Connection connection, RepaymentSnapshotEntity snapshot, RepaymentRowBatch rows)
+            throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            CopyBuffer buffer = new CopyBuffer(copyIn);
+            byte[] loanColumn = snapshot.getLoan().getId().toString().getBytes(StandardCharsets.US_ASCII);
+            byte[] snapshotColumn = snapshot.getId().toString().getBytes(StandardCharsets.US_ASCII);
+            for (int i = 0; i < rows.size(); i++) {
+                buffer.put(loanColumn);
+                buffer.tab();
+                buffer.put(snapshotColumn);
+                buffer.tab();
+                buffer.putLong(rows.getMonthNumber(i));
+                buffer.tab();
+                buffer.putDate(rows.getEpochDay(i));
+                buffer.tab();
+                buffer.putAmount(rows.getEmi(i));
+                buffer.tab();
+                buffer.putAmount(rows.getPrincipalPaid(i));
+                buffer.tab();
+                buffer.putAmount(rows.getInterestPaid(i));
+                buffer.tab();
+                buffer.putAmount(rows.getRemainingBalance(i));
+                buffer.tab();
+                buffer.putText(rows.getPaymentType(i));
+                buffer.put('\n');
+            }
+            buffer.flush();
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private int saveEntities(RepaymentSnapshotEntity snapshot, RepaymentRowBatch rows) {
+        List<RepaymentRowEntity> entities = rows.toEntities(snapshot);
+        rowRepository.saveAll(entities);
+        return entities.size();
+    }
+
+    /**
+     * COPY text-format encoder that hands the server 64 KB at a time; package-private for tests
+     */
+    static final class CopyBuffer {
+        private final CopyIn copyIn;
+        private final byte[] bytes = new byte[64 * 1024];
+        private final byte[] digits = new byte[20];
+        private int length;
+
+        CopyBuffer(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void put(int b) throws SQLException {
+            if (length == bytes.length) {
+                flush();
+            }
+            bytes[length++] = (byte) b;
+        }
+
+        void put(byte[] value) throws SQLException {
+            for (byte b : value) {
+                put(b);
+            }
+        }
+
+        void tab() throws SQLException {
+            put('\t');
+        }
+
+        void putNull() throws SQLException {
+            put('\\');
+            put('N');
+        }
+
+        void putLong(long value) throws SQLException {
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int count = 0;
+            do {
+                digits[count++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (count > 0) {
+                put(digits[--count]);
+            }
+        }
+
+        void putPadded(int value, int width) throws SQLException {
+            for (int limit = 10; width > 1; width--, limit *= 10) {
+                if (value < limit) {
+                    put('0');
+                }
+            }
+            putLong(value);
+        }
+
+        // Paise as a two-decimal rupee amount
+        void putAmount(long paise) throws SQLException {
+            if (paise == RepaymentRowBatch.NO_AMOUNT) {
+                putNull();
+                return;
+            }
+            if (paise < 0) {
+                put('-');
+                paise = -paise;
+            }
+            putLong(paise / 100);
+            put('.');
+            putPadded((int) (paise % 100), 2);
+        }
+
+        void putDate(int epochDay) throws SQLException {
+            if (epochDay == ScheduleBuffer.NO_DATE) {
+                putNull();
+                return;
+            }
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            putPadded(date.getYear(), 4);
+            put('-');
+            putPadded(date.getMonthValue(), 2);
+            put('-');
+            putPadded(date.getDayOfMonth(), 2);
+        }
+
+        void putText(String value) throws SQLException {
+            if (value == null) {
+                putNull();
+                return;
+            }
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                switch (b) {
+                    case '\\':
+                        put('\\');
+                        put('\\');
+                        break;
+                    case '\t':
+                        put('\\');
+                        put('t');
+                        break;
+                    case '\n':
+                        put('\\');
+                        put('n');
+                        break;
+                    case '\r':
+                        put('\\');
+                        put('r');
+                        break;
+                    default:
+                        put(b);
+                }
+            }
+        }
+
+        void flush() throws SQLException {
+            if (length > 0) {
+                copyIn.writeToCopy(bytes, 0, length);
+                length = 0;
+            }
+        }
+    }
+}
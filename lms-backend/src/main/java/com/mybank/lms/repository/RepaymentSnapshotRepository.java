@@ -1,6 +1,7 @@
 package com.mybank.lms.repository;
 
 import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,15 +16,16 @@ public interface RepaymentSnapshotRepository extends JpaRepository<RepaymentSnap
     
     List<RepaymentSnapshotEntity> findByLoanIdOrderBySnapshotDateDesc(UUID loanId);
     
-    @Query("SELECT rs FROM RepaymentSnapshotEntity rs WHERE rs.loan.id = :loanId ORDER BY rs.version DESC LIMIT 1")
+    // Follows the loan's current-snapshot pointer: two primary-key lookups, pruned to the loan's partition
+    @Query("SELECT rs FROM LoanEntity l, RepaymentSnapshotEntity rs WHERE l.id = :loanId "
+         + "AND rs.id = l.currentSnapshotId AND rs.loan.id = :loanId")
     Optional<RepaymentSnapshotEntity> findLatestByLoanId(@Param("loanId") UUID loanId);
     
-    @Query("SELECT MAX(rs.version) FROM RepaymentSnapshotEntity rs WHERE rs.loan.id = :loanId")
-    Integer findMaxVersionByLoanId(@Param("loanId") UUID loanId);
-    
     @Query("SELECT rs FROM RepaymentSnapshotEntity rs WHERE rs.loan.id = :loanId AND rs.version = :version")
     Optional<RepaymentSnapshotEntity> findByLoanIdAndVersion(@Param("loanId") UUID loanId, @Param("version") Integer version);
     
-    @Query("SELECT rs FROM RepaymentSnapshotEntity rs WHERE rs.loan.id = :loanId AND rs.snapshotDate = (SELECT MAX(rs2.snapshotDate) FROM RepaymentSnapshotEntity rs2 WHERE rs2.loan.id = :loanId)")
-    Optional<RepaymentSnapshotEntity> findMostRecentByLoanId(@Param("loanId") UUID loanId);
+    // Blob-stored snapshots whose repayment rows have not been materialized yet
+    @Query("SELECT rs FROM RepaymentSnapshotEntity rs WHERE rs.scheduleBlob IS NOT NULL AND NOT EXISTS "
+         + "(SELECT r.id FROM RepaymentRowEntity r WHERE r.loanId = rs.loan.id AND r.snapshot = rs) ORDER BY rs.createdAt")
+    List<RepaymentSnapshotEntity> findBlobSnapshotsWithoutRows(Pageable pageable);
 }
@@ -0,0 +1,253 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.calculator.ScheduleBuffer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary encoding of a snapshot's repayment rows, stored in {@code repayment_snapshot.schedule_blob}.
+ *
+ * Layout: a format byte, then a deflate stream holding the row count, the table of payment types and one
+ * record per row in month order. A record is a null-flags byte, the month number and payment date as deltas
+ * from the previous row, the payment type as an index into the table, and the four amounts in paise as
+ * deltas from the previous row's. Every number is a zigzag varint, so a level EMI costs one byte a month.
+ * Decoding streams the records and stops once the requested months have been read.
+ */
+public final class ScheduleBlobCodec {
+
+    static final byte FORMAT_V1 = 1;
+
+    private static final int NULL_DATE = 1;
+    private static final int NULL_EMI = 1 << 1;
+    private static final int NULL_PRINCIPAL = 1 << 2;
+    private static final int NULL_INTEREST = 1 << 3;
+    private static final int NULL_BALANCE = 1 << 4;
+
+    // Longer than any payment type name; bounds what a corrupt length can make the decoder allocate
+    private static final int MAX_TYPE_BYTES = 1024;
+
+    private ScheduleBlobCodec() {}
+
+    /**
+     * Encode the rows ordered by month number (stable for equal months), the order rows are read back in
+     */
+    public static byte[] encode(RepaymentRowBatch rows) {
+        int[] order = monthOrder(rows);
+        List<String> types = new ArrayList<>();
+        int[] typeIndex = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String type = rows.getPaymentType(i);
+            int index = types.indexOf(type);
+            if (index < 0) {
+                index = types.size();
+                types.add(type);
+            }
+            typeIndex[i] = index;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows.size() * 4);
+        bytes.write(FORMAT_V1);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new BufferedOutputStream(new DeflaterOutputStream(bytes, deflater), 4096)) {
+            writeVarint(out, rows.size());
+            writeVarint(out, types.size());
+            for (String type : types) {
+                if (type == null) {
+                    writeVarint(out, 0);
+                } else {
+                    byte[] name = type.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(out, name.length + 1);
+                    out.write(name);
+                }
+            }
+
+            long month = 0;
+            long day = 0;
+            long emi = 0;
+            long principal = 0;
+            long interest = 0;
+            long balance = 0;
+            for (int i : order) {
+                int flags = (rows.getEpochDay(i) == ScheduleBuffer.NO_DATE ? NULL_DATE : 0)
+                    | (rows.getEmi(i) == RepaymentRowBatch.NO_AMOUNT ? NULL_EMI : 0)
+                    | (rows.getPrincipalPaid(i) == RepaymentRowBatch.NO_AMOUNT ? NULL_PRINCIPAL : 0)
+                    | (rows.getInterestPaid(i) == RepaymentRowBatch.NO_AMOUNT ? NULL_INTEREST : 0)
+                    | (rows.getRemainingBalance(i) == RepaymentRowBatch.NO_AMOUNT ? NULL_BALANCE : 0);
+                out.write(flags);
+                writeSigned(out, rows.getMonthNumber(i) - month);
+                month = rows.getMonthNumber(i);
+                writeVarint(out, typeIndex[i]);
+                if ((flags & NULL_DATE) == 0) {
+                    writeSigned(out, rows.getEpochDay(i) - day);
+                    day = rows.getEpochDay(i);
+                }
+                if ((flags & NULL_EMI) == 0) {
+                    writeSigned(out, rows.getEmi(i) - emi);
+                    emi = rows.getEmi(i);
+                }
+                if ((flags & NULL_PRINCIPAL) == 0) {
+                    writeSigned(out, rows.getPrincipalPaid(i) - principal);
+                    principal = rows.getPrincipalPaid(i);
+                }
+                if ((flags & NULL_INTEREST) == 0) {
+                    writeSigned(out, rows.getInterestPaid(i) - interest);
+                    interest = rows.getInterestPaid(i);
+                }
+                if ((flags & NULL_BALANCE) == 0) {
+                    writeSigned(out, rows.getRemainingBalance(i) - balance);
+                    balance = rows.getRemainingBalance(i);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode schedule", e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    public static RepaymentRowBatch decode(byte[] blob) {
+        return decode(blob, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rows with {@code fromMonth <= monthNumber <= toMonth}; records after the last such row are not decoded.
+     * A blob that is truncated or not valid in this format fails with an {@link IllegalArgumentException}.
+     */
+    public static RepaymentRowBatch decode(byte[] blob, int fromMonth, int toMonth) {
+        if (blob == null || blob.length == 0 || blob[0] != FORMAT_V1) {
+            throw new IllegalArgumentException("Unsupported schedule blob format");
+        }
+        InputStream compressed = new ByteArrayInputStream(blob, 1, blob.length - 1);
+        try (InputStream in = new BufferedInputStream(new InflaterInputStream(compressed))) {
+            int count = checkedSize(readVarint(in), Integer.MAX_VALUE, "row count");
+            String[] types = new String[checkedSize(readVarint(in), count, "payment type count")];
+            for (int t = 0; t < types.length; t++) {
+                int length = checkedSize(readVarint(in), MAX_TYPE_BYTES + 1, "payment type length");
+                types[t] = length == 0 ? null : new String(readFully(in, length - 1), StandardCharsets.UTF_8);
+            }
+
+            RepaymentRowBatch rows = new RepaymentRowBatch(Math.min(count, 1024));
+            long month = 0;
+            long day = 0;
+            long emi = 0;
+            long principal = 0;
+            long interest = 0;
+            long balance = 0;
+            for (int r = 0; r < count; r++) {
+                int flags = readByte(in);
+                month += readSigned(in);
+                if (month > toMonth) {
+                    break;
+                }
+                String type = types[checkedSize(readVarint(in), types.length - 1, "payment type index")];
+                if ((flags & NULL_DATE) == 0) {
+                    day += readSigned(in);
+                }
+                if ((flags & NULL_EMI) == 0) {
+                    emi += readSigned(in);
+                }
+                if ((flags & NULL_PRINCIPAL) == 0) {
+                    principal += readSigned(in);
+                }
+                if ((flags & NULL_INTEREST) == 0) {
+                    interest += readSigned(in);
+                }
+                if ((flags & NULL_BALANCE) == 0) {
+                    balance += readSigned(in);
+                }
+                if (month >= fromMonth) {
+                    rows.add((int) month,
+                        (flags & NULL_DATE) == 0 ? (int) day : ScheduleBuffer.NO_DATE,
+                        (flags & NULL_EMI) == 0 ? emi : RepaymentRowBatch.NO_AMOUNT,
+                        (flags & NULL_PRINCIPAL) == 0 ? principal : RepaymentRowBatch.NO_AMOUNT,
+                        (flags & NULL_INTEREST) == 0 ? interest : RepaymentRowBatch.NO_AMOUNT,
+                        (flags & NULL_BALANCE) == 0 ? balance : RepaymentRowBatch.NO_AMOUNT,
+                        type);
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt schedule blob", e);
+        }
+    }
+
+    // Row indices sorted by month number; rows are nearly always in order already, so insertion sort
+    private static int[] monthOrder(RepaymentRowBatch rows) {
+        int[] order = new int[rows.size()];
+        for (int i = 0; i < order.length; i++) {
+            int j = i;
+            while (j > 0 && rows.getMonthNumber(order[j - 1]) > rows.getMonthNumber(i)) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    private static int checkedSize(long value, int max, String what) throws IOException {
+        if (value < 0 || value > max) {
+            throw new IOException("Invalid " + what + " " + value);
+        }
+        return (int) value;
+    }
+
+    private static void writeSigned(OutputStream out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readSigned(InputStream in) throws IOException {
+        long value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated schedule blob");
+        }
+        return b;
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] value = new byte[length];
+        for (int n = 0; n < length; n++) {
+            value[n] = (byte) readByte(in);
+        }
+        return value;
+    }
+}
@@ -1,12 +1,23 @@
 package com.mybank.lms.scheduler;
 
+import com.mybank.lms.model.entity.LoanEntity;
 import com.mybank.lms.service.BenchmarkService;
 import com.mybank.lms.service.LoanService;
+import com.mybank.lms.service.RateResetBatchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -14,6 +25,7 @@ public class RateResetScheduler {
     
     private final BenchmarkService benchmarkService;
     private final LoanService loanService;
+    private final RateResetBatchService rateResetBatchService;
     
     /**
      * Scheduled job that runs daily at 2 AM to check for rate resets
@@ -24,19 +36,33 @@ public class RateResetScheduler {
         log.info("Starting scheduled floating rate reset process");
         
         try {
+            // Rates may have been added through another instance since the last refresh
+            benchmarkService.reloadBenchmarkRates();
+            
             // Get all active floating loans
             var activeFloatingLoans = loanService.getActiveFloatingLoans();
             log.info("Found {} active floating loans", activeFloatingLoans.size());
             
-            // Process each loan for potential rate reset
+            // Collect loans due for a reset, grouped by benchmark
+            Map<String, List<UUID>> loansByBenchmark = new LinkedHashMap<>();
+            Map<String, BigDecimal> benchmarkRates = new HashMap<>();
             for (var loan : activeFloatingLoans) {
                 try {
-                    processLoanForRateReset(loan);
+                    BigDecimal benchmarkRate = getRateResetBenchmarkRate(loan);
+                    if (benchmarkRate != null) {
+                        loansByBenchmark.computeIfAbsent(loan.getBenchmarkName(), name -> new ArrayList<>()).add(loan.getId());
+                        benchmarkRates.put(loan.getBenchmarkName(), benchmarkRate);
+                    }
                 } catch (Exception e) {
                     log.error("Error processing rate reset for loan: {}", loan.getId(), e);
                 }
             }
             
+            // Recalculate each benchmark's loans as one parallel batch
+            for (var entry : loansByBenchmark.entrySet()) {
+                rateResetBatchService.applyBenchmarkToLoans(entry.getValue(), entry.getKey(), benchmarkRates.get(entry.getKey()));
+            }
+            
             log.info("Completed scheduled floating rate reset process");
             
         } catch (Exception e) {
@@ -44,16 +70,20 @@ public class RateResetScheduler {
         }
     }
     
-    private void processLoanForRateReset(com.mybank.lms.model.entity.LoanEntity loan) {
+    /**
+     * Benchmark rate in force today if the loan is due for a rate reset, otherwise null; rates dated in the
+     * future are not applied before their date
+     */
+    private BigDecimal getRateResetBenchmarkRate(LoanEntity loan) {
         // Check if loan has a benchmark and is eligible for reset
         if (loan.getBenchmarkName() == null || loan.getResetPeriodicityMonths() == null) {
-            return;
+            return null;
         }
         
-        // Get latest benchmark rate
-        var latestBenchmark = benchmarkService.getLatestBenchmark(loan.getBenchmarkName());
+        // Get the benchmark rate in force today
+        var latestBenchmark = benchmarkService.getBenchmarkAsOf(loan.getBenchmarkName(), LocalDate.now());
         if (latestBenchmark == null) {
-            return;
+            return null;
         }
         
         // Calculate new rate with spread
@@ -63,11 +93,12 @@ public class RateResetScheduler {
         }
         
         // Check if rate has changed
-        if (newRate.compareTo(loan.getAnnualRate()) != 0) {
-            log.info("Rate reset required for loan: {} from {}% to {}%", 
-                loan.getId(), loan.getAnnualRate(), newRate);
-            
-            loanService.applyBenchmarkToLoan(loan.getId(), loan.getBenchmarkName(), latestBenchmark.getBenchmarkRate());
+        if (newRate.compareTo(loan.getAnnualRate()) == 0) {
+            return null;
         }
+        
+        log.info("Rate reset required for loan: {} from {}% to {}%", 
+            loan.getId(), loan.getAnnualRate(), newRate);
+        return latestBenchmark.getBenchmarkRate();
     }
 }
@@ -1,77 +1,187 @@
 package com.mybank.lms.service;
 
+import com.mybank.lms.calculator.AprSolver;
+import com.mybank.lms.calculator.CalculationContext;
+import com.mybank.lms.calculator.CashFlows;
+import com.mybank.lms.calculator.LoanCalculator;
 import com.mybank.lms.calculator.LoanInput;
 import com.mybank.lms.calculator.LoanOutput;
+import com.mybank.lms.calculator.ScheduleBuffer;
+import com.mybank.lms.calculator.ScheduleCursor;
 import com.mybank.lms.model.dto.LoanInputDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 @Slf4j
 public class AprCalculationService {
     
     /**
-     * Calculate APR using formula: ((total fees + total interest)/loan amount/number of months)*100 + interest rate
-     * APR includes the effect of fees and charges on the effective cost of borrowing plus the base interest rate
+     * APR as the XIRR of the loan's dated cash flows: disbursements (or the principal on the issue date)
+     * out, and in: one-off charges and upfront BPI on the first disbursement date, every scheduled payment
+     * with the recurring charges on its date. Falls back to the effective annual rate of the nominal rate,
+     * without charges, if the solve fails.
      */
     public BigDecimal calculateAPR(LoanInput loanInput, LoanOutput loanOutput, List<LoanInputDTO.LoanChargeDTO> charges) {
-        log.debug("Calculating APR for loan with principal: {}", loanInput.getPrincipal());
-        
         try {
-            double loanAmount = loanInput.getPrincipal();
-            int numberOfMonths = loanInput.getMonths();
-            
-            // Calculate total interest from payment schedule
-            double totalInterest = loanOutput.getPaymentSchedule().stream()
-                .mapToDouble(payment -> payment.getInterestPaid())
-                .sum();
-            
-            // Calculate total fees
-            double totalFees = 0.0;
-            if (charges != null) {
-                // One-time charges
-                double oneTimeFees = charges.stream()
-                    .filter(charge -> !charge.getIsRecurring())
-                    .mapToDouble(charge -> charge.getAmount().doubleValue())
-                    .sum();
-                
-                // Recurring charges (multiply by number of months)
-                double recurringFees = charges.stream()
-                    .filter(charge -> charge.getIsRecurring())
-                    .mapToDouble(charge -> charge.getAmount().doubleValue())
-                    .sum() * numberOfMonths;
-                
-                totalFees = oneTimeFees + recurringFees;
-            }
-            
-            // APR formula: ((total fees + total interest)/loan amount/number of months)*100 + interest rate
-            double feeAndInterestRate = ((totalFees + totalInterest) / loanAmount / numberOfMonths) * 100;
-            double baseInterestRate = loanInput.getAnnualRate();
-            double apr = feeAndInterestRate + baseInterestRate;
-            
-            BigDecimal aprPercentage = BigDecimal.valueOf(apr)
-                .setScale(4, RoundingMode.HALF_UP);
-            
-            log.info("Calculated APR: {}% (Total Interest: {}, Total Fees: {}, Loan Amount: {}, Months: {}, Fee Rate: {})", 
-                aprPercentage, totalInterest, totalFees, loanAmount, numberOfMonths, feeAndInterestRate);
-            
-            // Add validation to prevent overflow
-            if (aprPercentage.compareTo(BigDecimal.valueOf(9999.9999)) > 0) {
-                log.warn("APR calculation resulted in overflow value: {}. Using fallback to nominal rate.", aprPercentage);
-                return BigDecimal.valueOf(loanInput.getAnnualRate()).setScale(4, RoundingMode.HALF_UP);
+            CashFlows flows = buildCashFlows(loanInput, loanOutput, charges);
+            return toPercentage(loanInput, AprSolver.solve(flows, warmStart(loanInput)));
+        } catch (Exception e) {
+            log.error("Error calculating APR", e);
+            return effectiveNominalRate(loanInput);
+        }
+    }
+    
+    /**
+     * Same APR for a plain (non-phased) loan, streaming the schedule instead of storing it
+     */
+    public BigDecimal calculateAPR(LoanInput loanInput, List<LoanInputDTO.LoanChargeDTO> charges) {
+        try {
+            ScheduleCursor cursor = LoanCalculator.openSchedule(loanInput, CalculationContext.current());
+            CashFlows flows = new CashFlows(loanInput.getMonths() + 4);
+            addUpfrontFlows(flows, loanInput, null, cursor.getBrokenPeriodInterest(), charges);
+            while (cursor.advance()) {
+                cursor.writeTo(flows);
             }
-            
-            return aprPercentage;
-            
+            return toPercentage(loanInput, AprSolver.solve(flows, warmStart(loanInput)));
         } catch (Exception e) {
             log.error("Error calculating APR", e);
-            // Fallback to nominal rate if APR calculation fails
-            return BigDecimal.valueOf(loanInput.getAnnualRate())
-                .setScale(4, RoundingMode.HALF_UP);
+            return effectiveNominalRate(loanInput);
+        }
+    }
+    
+    /**
+     * APRs for many calculated loans, solved in parallel on {@code pool}. Results are in input order;
+     * {@code charges} may be null (no charges) or hold one list per loan.
+     */
+    public List<AprResult> calculateAPRs(List<LoanInput> loanInputs, List<LoanOutput> loanOutputs,
+                                         List<List<LoanInputDTO.LoanChargeDTO>> charges, ForkJoinPool pool) {
+        int count = loanInputs.size();
+        CashFlows[] flows = new CashFlows[count];
+        double[] guesses = new double[count];
+        for (int i = 0; i < count; i++) {
+            LoanInput loanInput = loanInputs.get(i);
+            try {
+                flows[i] = buildCashFlows(loanInput, loanOutputs.get(i), charges != null ? charges.get(i) : null);
+            } catch (Exception e) {
+                log.error("Error building APR cash flows for loan {} of batch", i, e);
+                flows[i] = new CashFlows(1);
+            }
+            guesses[i] = warmStart(loanInput);
+        }
+        
+        long start = System.nanoTime();
+        AprSolver.Solution[] solutions = AprSolver.solveAll(flows, guesses, pool);
+        
+        List<AprResult> results = new ArrayList<>(count);
+        int totalIterations = 0;
+        for (int i = 0; i < count; i++) {
+            totalIterations += solutions[i].getIterations();
+            results.add(new AprResult(toPercentage(loanInputs.get(i), solutions[i]), solutions[i].getIterations(),
+                solutions[i].isConverged()));
         }
+        log.info("Solved {} APRs in {} ms, {} present-value evaluations", count,
+            (System.nanoTime() - start) / 1_000_000, totalIterations);
+        return results;
+    }
+    
+    /**
+     * The loan's dated cash flows for the APR solve (lender's side: disbursements negative)
+     */
+    public CashFlows buildCashFlows(LoanInput loanInput, LoanOutput loanOutput, List<LoanInputDTO.LoanChargeDTO> charges) {
+        ScheduleBuffer schedule = loanOutput.getScheduleBuffer();
+        List<LoanOutput.DisbursementEntry> disbursements = loanOutput.getDisbursementSchedule();
+        CashFlows flows = new CashFlows(schedule.size() + (disbursements != null ? disbursements.size() : 0) + 4);
+        addUpfrontFlows(flows, loanInput, disbursements, loanOutput.getBrokenPeriodInterest(), charges);
+        flows.addSchedule(schedule);
+        return flows;
+    }
+    
+    // Disbursements, one-off charges and upfront BPI; sets the recurring charge per installment
+    private void addUpfrontFlows(CashFlows flows, LoanInput loanInput, List<LoanOutput.DisbursementEntry> disbursements,
+                                 LoanOutput.BrokenPeriodInterest bpi, List<LoanInputDTO.LoanChargeDTO> charges) {
+        LocalDate firstDisbursement;
+        if (disbursements != null && !disbursements.isEmpty()) {
+            firstDisbursement = disbursements.get(0).getDisbursementDate();
+            for (LoanOutput.DisbursementEntry disbursement : disbursements) {
+                flows.add(disbursement.getDisbursementDate(), -disbursement.getAmount());
+                if (disbursement.getDisbursementDate().isBefore(firstDisbursement)) {
+                    firstDisbursement = disbursement.getDisbursementDate();
+                }
+            }
+        } else {
+            firstDisbursement = loanInput.getLoanIssueDate() != null
+                ? loanInput.getLoanIssueDate() : loanInput.getStartDate().minusMonths(1);
+            flows.add(firstDisbursement, -loanInput.getPrincipal());
+        }
+        
+        if (bpi != null && !bpi.isAddedToFirstEMI() && bpi.getInterestAmount() > 0) {
+            flows.add(firstDisbursement, bpi.getInterestAmount());
+        }
+        
+        double oneTimeFees = 0.0;
+        double recurringFees = 0.0;
+        if (charges != null) {
+            for (LoanInputDTO.LoanChargeDTO charge : charges) {
+                if (Boolean.TRUE.equals(charge.getIsRecurring())) {
+                    recurringFees += charge.getAmount().doubleValue();
+                } else {
+                    oneTimeFees += charge.getAmount().doubleValue();
+                }
+            }
+        }
+        if (oneTimeFees != 0) {
+            flows.add(firstDisbursement, oneTimeFees);
+        }
+        flows.setPerInstallment(recurringFees);
+    }
+    
+    private double warmStart(LoanInput loanInput) {
+        return AprSolver.effectiveAnnualRate(loanInput.getAnnualRate());
+    }
+    
+    private BigDecimal toPercentage(LoanInput loanInput, AprSolver.Solution solution) {
+        if (!solution.isConverged() || !Double.isFinite(solution.getRate())) {
+            log.warn("APR solve did not converge after {} iterations. Using the effective nominal rate.", solution.getIterations());
+            return effectiveNominalRate(loanInput);
+        }
+        
+        BigDecimal aprPercentage = BigDecimal.valueOf(solution.getRate() * 100)
+            .setScale(4, RoundingMode.HALF_UP);
+        log.debug("Calculated APR: {}% in {} iterations (nominal {}%)", aprPercentage, solution.getIterations(),
+            loanInput.getAnnualRate());
+        
+        // Add validation to prevent overflow
+        if (aprPercentage.compareTo(BigDecimal.valueOf(9999.9999)) > 0) {
+            log.warn("APR calculation resulted in overflow value: {}. Using the effective nominal rate.", aprPercentage);
+            return effectiveNominalRate(loanInput);
+        }
+        return aprPercentage;
+    }
+    
+    // Same annual-effective basis as a solved APR, so a failed solve is not quoted below the nominal rate
+    private BigDecimal effectiveNominalRate(LoanInput loanInput) {
+        return BigDecimal.valueOf(AprSolver.effectiveAnnualRate(loanInput.getAnnualRate()) * 100)
+            .setScale(4, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * One loan's APR from a batch solve
+     */
+    @Data
+    @AllArgsConstructor
+    public static class AprResult {
+        private BigDecimal apr;
+        private int iterations;
+        private boolean converged;
     }
 }
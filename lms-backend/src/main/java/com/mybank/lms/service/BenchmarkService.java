@@ -5,6 +5,7 @@ import com.mybank.lms.model.dto.LoanOutputDTO;
 import com.mybank.lms.model.entity.BenchmarkHistoryEntity;
 import com.mybank.lms.model.entity.KfsVersionEntity;
 import com.mybank.lms.repository.BenchmarkHistoryRepository;
+import com.mybank.lms.repository.BenchmarkRateStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,8 +22,10 @@ import java.util.stream.Collectors;
 public class BenchmarkService {
     
     private final BenchmarkHistoryRepository benchmarkRepository;
+    private final BenchmarkRateStore benchmarkRateStore;
     private final LoanService loanService;
     private final KfsVersionService kfsVersionService;
+    private final RateResetBatchService rateResetBatchService;
     
     @Transactional
     public BenchmarkDTO addBenchmark(String benchmarkName, java.math.BigDecimal rate) {
@@ -34,6 +37,7 @@ public class BenchmarkService {
         entity.setBenchmarkDate(LocalDate.now());
         
         BenchmarkHistoryEntity saved = benchmarkRepository.save(entity);
+        benchmarkRateStore.addAfterCommit(saved);
         
         // Trigger rate reset for all floating loans using this benchmark
         triggerRateResetForBenchmark(benchmarkName, rate);
@@ -51,6 +55,7 @@ public class BenchmarkService {
         entity.setBenchmarkRate(benchmarkDTO.getBenchmarkRate());
         
         entity = benchmarkRepository.save(entity);
+        benchmarkRateStore.addAfterCommit(entity);
         
         // Trigger rate reset for affected loans
         triggerRateResetForBenchmark(benchmarkDTO.getBenchmarkName(), benchmarkDTO.getBenchmarkRate());
@@ -71,11 +76,7 @@ public class BenchmarkService {
     }
 
     public BenchmarkDTO getCurrentBenchmarkRate(String benchmarkName) {
-        List<BenchmarkHistoryEntity> history = benchmarkRepository.findByBenchmarkNameOrderByBenchmarkDateDesc(benchmarkName);
-        if (!history.isEmpty()) {
-            return mapToDTO(history.get(0));
-        }
-        return null;
+        return getLatestBenchmark(benchmarkName);
     }
 
     public List<String> getAllBenchmarkNames() {
@@ -83,11 +84,28 @@ public class BenchmarkService {
     }
     
     public BenchmarkDTO getLatestBenchmark(String benchmarkName) {
-        return benchmarkRepository.findLatestByBenchmarkName(benchmarkName)
+        return benchmarkRateStore.findLatestByBenchmarkName(benchmarkName)
             .map(this::mapToDTO)
             .orElse(null);
     }
     
+    /**
+     * Benchmark rate in force on {@code date}, or null if the benchmark has no rate dated on or before it
+     */
+    public BenchmarkDTO getBenchmarkAsOf(String benchmarkName, LocalDate date) {
+        return benchmarkRateStore.findLatestByBenchmarkNameAndDate(benchmarkName, date)
+            .map(this::mapToDTO)
+            .orElse(null);
+    }
+    
+    /**
+     * Re-read all benchmark rates into the in-memory index, picking up rows written outside this instance;
+     * returns the number of rates loaded
+     */
+    public int reloadBenchmarkRates() {
+        return benchmarkRateStore.reload();
+    }
+    
     private void triggerRateResetForBenchmark(String benchmarkName, java.math.BigDecimal newRate) {
         log.info("Triggering rate reset for benchmark: {} with rate: {}", benchmarkName, newRate);
         
@@ -98,23 +116,36 @@ public class BenchmarkService {
             return;
         }
         
-        for (var loan : affectedLoans) {
+        List<UUID> loanIds = affectedLoans.stream()
+            .map(loan -> loan.getId())
+            .collect(Collectors.toList());
+        List<UUID> resetLoanIds = rateResetBatchService.applyBenchmarkToLoans(loanIds, benchmarkName, newRate);
+        
+        for (UUID loanId : resetLoanIds) {
             try {
-                loanService.applyBenchmarkToLoan(loan.getId(), benchmarkName, newRate);
-                
                 // Generate new KFS version for rate change
-                LoanOutputDTO kfsData = loanService.getLoanKFS(loan.getId());
-                kfsVersionService.createKfsVersion(loan.getId(), kfsData, 
+                LoanOutputDTO kfsData = loanService.getLoanKFS(loanId);
+                kfsVersionService.createKfsVersion(loanId, kfsData, 
                     KfsVersionEntity.TriggerReason.BENCHMARK_RESET, 
                     "KFS regenerated due to benchmark rate reset: " + benchmarkName, "system");
                 
-                log.info("Rate reset applied to loan: {}", loan.getId());
+                log.info("Rate reset applied to loan: {}", loanId);
             } catch (Exception e) {
-                log.error("Failed to apply rate reset to loan: {}", loan.getId(), e);
+                log.error("Failed to regenerate KFS after rate reset for loan: {}", loanId, e);
             }
         }
         
-        log.info("Rate reset completed for {} loans", affectedLoans.size());
+        log.info("Rate reset completed for {} of {} loans", resetLoanIds.size(), affectedLoans.size());
+    }
+    
+    private BenchmarkDTO mapToDTO(BenchmarkRateStore.Rate rate) {
+        BenchmarkDTO dto = new BenchmarkDTO();
+        dto.setId(rate.getId());
+        dto.setBenchmarkName(rate.getBenchmarkName());
+        dto.setBenchmarkDate(rate.getBenchmarkDate());
+        dto.setBenchmarkRate(rate.getBenchmarkRate());
+        dto.setCreatedAt(rate.getCreatedAt());
+        return dto;
     }
     
     private BenchmarkDTO mapToDTO(BenchmarkHistoryEntity entity) {
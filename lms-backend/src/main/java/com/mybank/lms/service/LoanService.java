@@ -2,9 +2,13 @@ package com.mybank.lms.service;
 
 import com.mybank.lms.calculator.LoanInput;
 import com.mybank.lms.calculator.LoanOutput;
-import com.mybank.lms.calculator.HomeLoan;
+import com.mybank.lms.calculator.LoanCalculator;
+import com.mybank.lms.calculator.LoanResultCache;
+import com.mybank.lms.calculator.ScheduleCheckpoint;
 import com.mybank.lms.model.dto.LoanInputDTO;
 import com.mybank.lms.model.dto.LoanOutputDTO;
+import com.mybank.lms.model.dto.LoanPageDTO;
+import com.mybank.lms.model.dto.LoanSummaryDTO;
 import com.mybank.lms.model.dto.LoanVersionDTO;
 import com.mybank.lms.model.dto.KfsVersionDTO;
 import com.mybank.lms.model.dto.RepaymentScheduleDTO;
@@ -14,23 +18,29 @@ import com.mybank.lms.model.entity.LoanVersionEntity;
 import com.mybank.lms.model.entity.KfsVersionEntity;
 import com.mybank.lms.model.entity.DisbursementPhaseEntity;
 import com.mybank.lms.model.entity.LoanChargeEntity;
+import com.mybank.lms.model.entity.LoanSummaryEntity;
 import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
 import com.mybank.lms.repository.DisbursementRepository;
 import com.mybank.lms.repository.LoanAuditRepository;
 import com.mybank.lms.repository.LoanChargesRepository;
 import com.mybank.lms.repository.LoanRepository;
+import com.mybank.lms.repository.LoanPageRepository;
+import com.mybank.lms.repository.LoanSummaryRepository;
 import com.mybank.lms.service.AprCalculationService;
 import com.mybank.lms.service.KfsVersionService;
 import com.mybank.lms.service.LoanVersionService;
 import com.mybank.lms.service.RepaymentSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +53,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LoanService {
     
+    private static final int MAX_LOAN_PAGE_SIZE = 500;
+    
     private final LoanRepository loanRepository;
     private final DisbursementRepository disbursementRepository;
     private final LoanChargesRepository loanChargesRepository;
@@ -51,6 +63,13 @@ public class LoanService {
     private final LoanVersionService loanVersionService;
     private final KfsVersionService kfsVersionService;
     private final LoanAuditRepository loanAuditRepository;
+    private final LoanResultCache loanResultCache;
+    private final LoanPageRepository loanPageRepository;
+    private final LoanSummaryRepository loanSummaryRepository;
+    
+    // Calculator arithmetic for every LoanInput built here (DOUBLE or PAISE)
+    @Value("${lms.calculator.arithmetic:DOUBLE}")
+    private LoanInput.Arithmetic arithmetic;
     
     @Transactional
     public LoanOutputDTO createLoan(LoanInputDTO loanInputDTO) {
@@ -131,6 +150,64 @@ public class LoanService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * One page of the loan list, newest first. {@code cursor} is the {@code nextCursor} of the previous page;
+     * an unknown status or rate type or a malformed cursor is an {@link IllegalArgumentException}.
+     */
+    public LoanPageDTO getLoanPage(String status, String productType, String rateType, String customerId,
+                                   String cursor, int limit) {
+        log.info("Fetching loan page: status={}, productType={}, rateType={}, customerId={}, limit={}",
+            status, productType, rateType, customerId, limit);
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_LOAN_PAGE_SIZE));
+        LocalDateTime afterCreatedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] position = decodeCursor(cursor);
+                afterCreatedAt = LocalDateTime.parse(position[0]);
+                afterId = UUID.fromString(position[1]);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        
+        // One extra row tells whether there is a next page
+        List<LoanSummaryDTO> loans = loanPageRepository.findPage(
+            status != null ? LoanEntity.LoanStatus.valueOf(status) : null,
+            productType,
+            rateType != null ? LoanEntity.RateType.valueOf(rateType) : null,
+            customerId, afterCreatedAt, afterId, pageSize + 1);
+        String nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            LoanSummaryDTO last = loans.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt() + "|" + last.getLoanId());
+        }
+        return new LoanPageDTO(new ArrayList<>(loans), nextCursor);
+    }
+    
+    /**
+     * Headline figures of a loan from its loan_summary row, without reading the schedule
+     */
+    public LoanSummaryDTO getLoanSummary(UUID loanId) {
+        log.info("Fetching summary for loan: {}", loanId);
+        return loanPageRepository.findByLoanId(loanId)
+            .orElseThrow(() -> new RuntimeException("Loan not found: " + loanId));
+    }
+    
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeCursor(String cursor) {
+        String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        if (position.length != 2) {
+            throw new IllegalArgumentException("Expected createdAt|id");
+        }
+        return position;
+    }
+    
     public LoanOutputDTO getLoanKFS(UUID loanId) {
         log.info("Fetching KFS for loan: {}", loanId);
         
@@ -153,6 +230,21 @@ public class LoanService {
     
     @Transactional
     public void applyBenchmarkToLoan(UUID loanId, String benchmarkName, BigDecimal newRate) {
+        RateResetPlan plan = prepareRateReset(loanId, benchmarkName, newRate);
+        
+        // Recalculate schedule
+        LoanOutput recalcOutput = loanResultCache.calculateLoan(plan.getInput());
+        BigDecimal newApr = aprCalculationService.calculateAPR(plan.getInput(), recalcOutput, null);
+        
+        completeRateReset(plan, recalcOutput, newApr);
+    }
+    
+    /**
+     * Build the recalculation input for a benchmark rate reset without calculating it,
+     * so rate resets over many loans can be calculated as one batch
+     */
+    @Transactional(readOnly = true)
+    public RateResetPlan prepareRateReset(UUID loanId, String benchmarkName, BigDecimal newRate) {
         log.info("Applying benchmark {} with rate {} to loan: {}", benchmarkName, newRate, loanId);
         
         LoanEntity loanEntity = loanRepository.findById(loanId)
@@ -171,18 +263,29 @@ public class LoanService {
         // Create new loan input for recalculation
         LoanInput recalcInput = createRecalculationInput(loanEntity, latestSnapshot, finalRate);
         
-        // Recalculate schedule
-        LoanOutput recalcOutput = HomeLoan.calculateLoan(recalcInput);
+        // Warm-start the EMI solver from the current EMI
+        repaymentSnapshotService.getRegularEmi(latestSnapshot)
+            .ifPresent(emi -> recalcInput.setWarmStartEMI(emi.doubleValue()));
         
-        // Calculate new APR
-        BigDecimal newApr = aprCalculationService.calculateAPR(recalcInput, recalcOutput, null);
+        return new RateResetPlan(loanId, finalRate, recalcInput);
+    }
+    
+    /**
+     * Persist a calculated rate reset: rate-reset snapshot with its APR and the loan's new rate
+     */
+    @Transactional
+    public void completeRateReset(RateResetPlan plan, LoanOutput recalcOutput, BigDecimal newApr) {
+        UUID loanId = plan.getLoanId();
+        LoanEntity loanEntity = loanRepository.findById(loanId)
+            .orElseThrow(() -> new RuntimeException("Loan not found: " + loanId));
+        log.debug("Rate reset EMI for loan {} solved in {} iterations", loanId, recalcOutput.getEmiSolverIterations());
         
         // Create new snapshot
         repaymentSnapshotService.createRateResetSnapshot(loanEntity, recalcOutput, newApr, 
-            loanEntity.getAnnualRate(), finalRate);
+            loanEntity.getAnnualRate(), plan.getFinalRate());
         
         // Update loan's current rate
-        loanEntity.setAnnualRate(finalRate);
+        loanEntity.setAnnualRate(plan.getFinalRate());
         loanRepository.save(loanEntity);
         
         log.info("Benchmark applied successfully to loan: {}", loanId);
@@ -268,6 +371,7 @@ public class LoanService {
     
     private LoanInput mapToCalculatorInput(LoanInputDTO dto) {
         LoanInput input = new LoanInput();
+        input.setArithmetic(arithmetic);
         input.setPrincipal(dto.getPrincipal().doubleValue());
         input.setAnnualRate(dto.getAnnualRate().doubleValue());
         input.setMonths(dto.getMonths());
@@ -301,14 +405,15 @@ public class LoanService {
     
     private LoanOutput calculateLoanSchedule(LoanInput input, LoanInputDTO dto) {
         if (dto.getDisbursementPhases() != null && !dto.getDisbursementPhases().isEmpty()) {
-            return HomeLoan.calculateHomeLoan(input);
+            return loanResultCache.calculateHomeLoan(input);
         } else {
-            return HomeLoan.calculateLoan(input);
+            return loanResultCache.calculateLoan(input);
         }
     }
     
     private LoanInput createRecalculationInput(LoanEntity loanEntity, RepaymentSnapshotEntity snapshot, BigDecimal newRate) {
         LoanInput input = new LoanInput();
+        input.setArithmetic(arithmetic);
         input.setPrincipal(snapshot.getPrincipalBalance().doubleValue());
         input.setAnnualRate(newRate.doubleValue());
         input.setMonths(snapshot.getMonthsRemaining());
@@ -386,8 +491,11 @@ public class LoanService {
             RepaymentScheduleDTO scheduleDTO = repaymentSnapshotService.getRepaymentSchedule(entity.getId());
             dto.setRepaymentSchedule(scheduleDTO);
                 
-            // Set initial EMI from first installment
-            if (scheduleDTO != null && scheduleDTO.getRepaymentRows() != null && !scheduleDTO.getRepaymentRows().isEmpty()) {
+            // Figures recorded when the snapshot was written; computed from the schedule for older loans
+            Optional<LoanSummaryEntity> summary = currentSummary(entity.getId(), scheduleDTO);
+            if (summary.isPresent()) {
+                applySummary(dto, summary.get());
+            } else if (scheduleDTO != null && scheduleDTO.getRepaymentRows() != null && !scheduleDTO.getRepaymentRows().isEmpty()) {
                 RepaymentScheduleDTO.RepaymentRowDTO firstInstallment = scheduleDTO.getRepaymentRows().get(0);
                 dto.setInitialEmi(firstInstallment.getEmi());
                 log.info("Set initial EMI for loan {}: {}", entity.getId(), firstInstallment.getEmi());
@@ -398,10 +506,7 @@ public class LoanService {
                 }
                 
                 // Calculate and set totals
-                BigDecimal totalInterest = scheduleDTO.getRepaymentRows().stream()
-                    .filter(row -> row.getEmi() != null && row.getEmi().compareTo(BigDecimal.ZERO) > 0)
-                    .map(row -> row.getInterestPaid() != null ? row.getInterestPaid() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal totalInterest = paidInterest(scheduleDTO);
                 // Total amount payable = Principal + Total Interest
                 BigDecimal totalAmount = entity.getPrincipal().add(totalInterest);
                 
@@ -505,6 +610,7 @@ public class LoanService {
 
         // Create LoanInput from the entity for calculation
         LoanInput calculatorInput = new LoanInput();
+        calculatorInput.setArithmetic(arithmetic);
         calculatorInput.setPrincipal(loanEntity.getPrincipal().doubleValue());
         calculatorInput.setAnnualRate(loanEntity.getAnnualRate().doubleValue());
         calculatorInput.setMonths(loanEntity.getMonths());
@@ -535,13 +641,22 @@ public class LoanService {
         // Calculate the loan with moratorium - use appropriate method based on loan type
         LoanOutput calculatorOutput;
         if ("HOME_LOAN".equals(loanEntity.getProductType()) && loanEntity.getDisbursementPhases() != null && !loanEntity.getDisbursementPhases().isEmpty()) {
-            calculatorOutput = HomeLoan.calculateHomeLoan(calculatorInput);
+            calculatorOutput = loanResultCache.calculateHomeLoan(calculatorInput);
             log.info("Used HomeLoan.calculateHomeLoan() for loan with disbursement phases");
         } else {
-            calculatorOutput = HomeLoan.calculateLoan(calculatorInput);
-            log.info("Used HomeLoan.calculateLoan() for regular loan");
+            // Installments before the moratorium are unchanged: keep them and recompute only from its start
+            Optional<ScheduleCheckpoint> checkpoint = startMonth != null
+                ? repaymentSnapshotService.getCheckpointAfter(loanEntity, startMonth - 1)
+                : Optional.empty();
+            if (checkpoint.isPresent()) {
+                calculatorOutput = LoanCalculator.calculateFromCheckpoint(calculatorInput, checkpoint.get());
+                log.info("Recalculated loan from installment {} onwards", startMonth);
+            } else {
+                calculatorOutput = loanResultCache.calculateLoan(calculatorInput);
+                log.info("Used HomeLoan.calculateLoan() for regular loan");
+            }
         }
-        log.info("Calculated loan with moratorium - total installments: {}", calculatorOutput.getPaymentSchedule().size());
+        log.info("Calculated loan with moratorium - total installments: {}", calculatorOutput.getScheduleBuffer().size());
 
         // Calculate new APR
         BigDecimal newApr = aprCalculationService.calculateAPR(calculatorInput, calculatorOutput, null);
@@ -568,13 +683,9 @@ public class LoanService {
         }
         loanEntity = loanRepository.save(loanEntity);
 
-        // Get the next version number
-        Integer maxVersion = repaymentSnapshotService.getMaxVersionForLoan(loanEntity.getId());
-        int nextVersion = (maxVersion != null ? maxVersion : 0) + 1;
-
         // Create new snapshot directly with the moratorium-adjusted schedule
-        repaymentSnapshotService.createSnapshot(loanEntity, calculatorOutput, newApr, changedBy, nextVersion);
-        log.info("Created new repayment snapshot version {} with moratorium schedule", nextVersion);
+        RepaymentSnapshotEntity snapshot = repaymentSnapshotService.createSnapshot(loanEntity, calculatorOutput, newApr, changedBy);
+        log.info("Created new repayment snapshot version {} with moratorium schedule", snapshot.getVersion());
 
         // Generate new KFS
         LoanOutputDTO kfsData = mapToLoanOutputDTOFromSnapshot(loanEntity);
@@ -608,26 +719,20 @@ public class LoanService {
     }
     
     private void createVersionedSnapshot(LoanEntity loanEntity, Map<String, String[]> changes, String changedBy, LocalDate cutoffDate) {
-        // Get the next version number
-        Integer maxVersion = repaymentSnapshotService.getMaxVersionForLoan(loanEntity.getId());
-        int nextVersion = (maxVersion != null ? maxVersion : 0) + 1;
-        
         // Get the last snapshot to preserve paid installments
         Optional<RepaymentSnapshotEntity> lastSnapshot = repaymentSnapshotService.getLatestSnapshot(loanEntity.getId());
         
         if (lastSnapshot.isPresent()) {
             // Create hybrid schedule with change markers
             repaymentSnapshotService.createVersionedHybridSnapshot(loanEntity, lastSnapshot.get(), 
-                changes, changedBy, nextVersion, cutoffDate);
+                changes, changedBy, cutoffDate);
         } else {
             // First time - create initial snapshot
             LoanInput calculatorInput = createLoanInputFromEntity(loanEntity);
-            LoanOutput calculatorOutput = HomeLoan.calculateLoan(calculatorInput);
-            LoanInput loanInput = createLoanInputFromEntity(loanEntity);
-            LoanOutput loanOutput = HomeLoan.calculateLoan(loanInput);
-            BigDecimal newApr = aprCalculationService.calculateAPR(loanInput, loanOutput, null);
+            LoanOutput calculatorOutput = loanResultCache.calculateLoan(calculatorInput);
+            BigDecimal newApr = aprCalculationService.calculateAPR(calculatorInput, calculatorOutput, null);
             
-            repaymentSnapshotService.createSnapshot(loanEntity, calculatorOutput, newApr, changedBy, nextVersion);
+            repaymentSnapshotService.createSnapshot(loanEntity, calculatorOutput, newApr, changedBy);
         }
     }
     
@@ -652,7 +757,10 @@ public class LoanService {
             RepaymentScheduleDTO schedule = repaymentSnapshotService.getLatestRepaymentSchedule(entity.getId());
             dto.setRepaymentSchedule(schedule);
             
-            if (schedule != null && schedule.getRepaymentRows() != null && !schedule.getRepaymentRows().isEmpty()) {
+            Optional<LoanSummaryEntity> summary = currentSummary(entity.getId(), schedule);
+            if (summary.isPresent()) {
+                applySummary(dto, summary.get());
+            } else if (schedule != null && schedule.getRepaymentRows() != null && !schedule.getRepaymentRows().isEmpty()) {
                 var firstRow = schedule.getRepaymentRows().get(0);
                 dto.setInitialEmi(firstRow.getEmi());
                 
@@ -662,10 +770,7 @@ public class LoanService {
                 }
                 
                 // Calculate totals from non-zero EMI rows only
-                BigDecimal totalInterest = schedule.getRepaymentRows().stream()
-                    .filter(row -> row.getEmi() != null && row.getEmi().compareTo(BigDecimal.ZERO) > 0)
-                    .map(row -> row.getInterestPaid() != null ? row.getInterestPaid() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal totalInterest = paidInterest(schedule);
                 // Total amount payable = Principal + Total Interest
                 BigDecimal totalAmount = entity.getPrincipal().add(totalInterest);
                 
@@ -680,6 +785,43 @@ public class LoanService {
         return dto;
     }
     
+    /**
+     * The loan's summary row if it was written for the snapshot {@code schedule} was read from; a row left behind
+     * by an earlier snapshot, or without an initial EMI, is ignored
+     */
+    private Optional<LoanSummaryEntity> currentSummary(UUID loanId, RepaymentScheduleDTO schedule) {
+        if (schedule == null || schedule.getSnapshotId() == null) {
+            return Optional.empty();
+        }
+        return loanSummaryRepository.findById(loanId)
+            .filter(summary -> schedule.getSnapshotId().equals(summary.getSnapshotId()))
+            .filter(summary -> summary.getInitialEmi() != null);
+    }
+    
+    private void applySummary(LoanOutputDTO dto, LoanSummaryEntity summary) {
+        dto.setInitialEmi(summary.getInitialEmi());
+        if (summary.getApr() != null) {
+            dto.setApr(summary.getApr());
+        }
+        dto.setTotalInterest(summary.getTotalInterest());
+        dto.setTotalAmountPayable(summary.getTotalAmountPayable());
+    }
+    
+    /**
+     * Interest on rows with a non-zero EMI: from the snapshot's recorded statistics when present,
+     * otherwise summed over the rows
+     */
+    private BigDecimal paidInterest(RepaymentScheduleDTO schedule) {
+        RepaymentScheduleDTO.ScheduleStatisticsDTO statistics = schedule.getStatistics();
+        if (statistics != null && statistics.getTotalInterest() != null && statistics.getCapitalisedInterest() != null) {
+            return statistics.getTotalInterest().subtract(statistics.getCapitalisedInterest());
+        }
+        return schedule.getRepaymentRows().stream()
+            .filter(row -> row.getEmi() != null && row.getEmi().compareTo(BigDecimal.ZERO) > 0)
+            .map(row -> row.getInterestPaid() != null ? row.getInterestPaid() : BigDecimal.ZERO)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
     @Transactional
     public void createHybridRepaymentSchedule(LoanEntity loanEntity, String updatedBy, LocalDate effectiveFrom) {
         log.info("Creating hybrid repayment schedule for loan: {} effective from: {}", loanEntity.getId(), effectiveFrom);
@@ -728,6 +870,7 @@ public class LoanService {
         
         // Create loan input for recalculation with new rate
         LoanInput recalcInput = new LoanInput();
+        recalcInput.setArithmetic(arithmetic);
         recalcInput.setPrincipal(remainingPrincipal);
         recalcInput.setAnnualRate(loanEntity.getAnnualRate().doubleValue());
         recalcInput.setMonths(remainingMonths);
@@ -739,7 +882,7 @@ public class LoanService {
         }
         
         // Recalculate schedule for remaining months
-        LoanOutput recalcOutput = HomeLoan.calculateLoan(recalcInput);
+        LoanOutput recalcOutput = loanResultCache.calculateLoan(recalcInput);
         
         // Calculate new APR for the entire loan (considering both old and new schedules)
         BigDecimal newApr = aprCalculationService.calculateAPR(recalcInput, recalcOutput, null);
@@ -750,6 +893,7 @@ public class LoanService {
     
     private LoanInput createLoanInputFromEntity(LoanEntity entity) {
         LoanInput input = new LoanInput();
+        input.setArithmetic(arithmetic);
         input.setPrincipal(entity.getPrincipal().doubleValue());
         input.setAnnualRate(entity.getAnnualRate().doubleValue());
         input.setMonths(entity.getMonths());
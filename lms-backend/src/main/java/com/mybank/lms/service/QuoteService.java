@@ -0,0 +1,68 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.calculator.EmiGrid;
+import com.mybank.lms.calculator.LoanInput;
+import com.mybank.lms.calculator.Paise;
+import com.mybank.lms.model.dto.EmiGridDTO;
+import com.mybank.lms.model.dto.EmiGridRequestDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Indicative quotes computed on the fly; nothing is persisted
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteService {
+    
+    // Upper bound on rates x tenures per request
+    private static final int MAX_GRID_CELLS = 10_000;
+    
+    private final ForkJoinPool calculatorPool;
+    
+    public EmiGridDTO calculateEmiGrid(EmiGridRequestDTO request) {
+        List<BigDecimal> rates = request.getAnnualRates();
+        List<Integer> tenures = request.getTenures();
+        long cells = (long) rates.size() * tenures.size();
+        if (cells > MAX_GRID_CELLS) {
+            throw new IllegalArgumentException("EMI grid of " + cells + " cells exceeds the limit of " + MAX_GRID_CELLS);
+        }
+        
+        String compounding = request.getCompoundingFrequency() != null ? request.getCompoundingFrequency() : "DAILY";
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        
+        double[] annualRates = new double[rates.size()];
+        for (int i = 0; i < annualRates.length; i++) {
+            annualRates[i] = rates.get(i).doubleValue();
+        }
+        int[] months = new int[tenures.size()];
+        for (int j = 0; j < months.length; j++) {
+            months[j] = tenures.get(j);
+        }
+        
+        long start = System.nanoTime();
+        EmiGrid grid = EmiGrid.calculate(request.getPrincipal().doubleValue(), annualRates, months,
+            LoanInput.CompoundingFrequency.valueOf(compounding), startDate, calculatorPool);
+        log.debug("EMI grid of {} rates x {} tenures in {} us", annualRates.length, months.length,
+            (System.nanoTime() - start) / 1000);
+        
+        List<List<BigDecimal>> emis = new ArrayList<>(annualRates.length);
+        for (int i = 0; i < annualRates.length; i++) {
+            List<BigDecimal> row = new ArrayList<>(months.length);
+            for (int j = 0; j < months.length; j++) {
+                row.add(Paise.toBigDecimal(grid.getEmi(i, j)));
+            }
+            emis.add(row);
+        }
+        
+        return new EmiGridDTO(request.getPrincipal(), compounding, startDate, rates, tenures, emis);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.calculator.LoanBatchCalculator;
+import com.mybank.lms.calculator.LoanInput;
+import com.mybank.lms.calculator.LoanOutput;
+import com.mybank.lms.calculator.LoanResultCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateResetBatchService {
+    
+    private final LoanService loanService;
+    private final AprCalculationService aprCalculationService;
+    private final ForkJoinPool calculatorPool;
+    private final LoanResultCache loanResultCache;
+    
+    /**
+     * Apply a benchmark rate to many loans: prepare every recalculation input, calculate the loans and
+     * then their APRs as parallel batches, then persist each loan in its own call through the service.
+     * A loan that fails in any step is logged and skipped. Returns the ids of the loans that were reset.
+     */
+    public List<UUID> applyBenchmarkToLoans(List<UUID> loanIds, String benchmarkName, BigDecimal newRate) {
+        List<RateResetPlan> plans = new ArrayList<>(loanIds.size());
+        for (UUID loanId : loanIds) {
+            try {
+                plans.add(loanService.prepareRateReset(loanId, benchmarkName, newRate));
+            } catch (Exception e) {
+                log.error("Failed to prepare rate reset for loan: {}", loanId, e);
+            }
+        }
+        
+        List<LoanInput> inputs = new ArrayList<>(plans.size());
+        for (RateResetPlan plan : plans) {
+            inputs.add(plan.getInput());
+        }
+        LoanBatchCalculator.BatchResult result = LoanBatchCalculator.calculateLoans(inputs, calculatorPool, loanResultCache);
+        log.info("Rate reset batch for benchmark {}: {}", benchmarkName, result);
+        
+        List<RateResetPlan> calculatedPlans = new ArrayList<>(plans.size());
+        List<LoanInput> calculatedInputs = new ArrayList<>(plans.size());
+        List<LoanOutput> outputs = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            if (!result.isSuccess(i)) {
+                log.error("Failed to calculate rate reset for loan: {}", plans.get(i).getLoanId(), result.getFailure(i));
+                continue;
+            }
+            calculatedPlans.add(plans.get(i));
+            calculatedInputs.add(inputs.get(i));
+            outputs.add(result.getOutput(i));
+        }
+        List<AprCalculationService.AprResult> aprs =
+            aprCalculationService.calculateAPRs(calculatedInputs, outputs, null, calculatorPool);
+        
+        List<UUID> resetLoanIds = new ArrayList<>(calculatedPlans.size());
+        for (int i = 0; i < calculatedPlans.size(); i++) {
+            UUID loanId = calculatedPlans.get(i).getLoanId();
+            try {
+                loanService.completeRateReset(calculatedPlans.get(i), outputs.get(i), aprs.get(i).getApr());
+                resetLoanIds.add(loanId);
+            } catch (Exception e) {
+                log.error("Failed to apply rate reset to loan: {}", loanId, e);
+            }
+        }
+        
+        return resetLoanIds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.calculator.LoanInput;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A prepared benchmark rate reset: the loan, its new effective rate and the calculator input to solve
+ */
+@Data
+@AllArgsConstructor
+public class RateResetPlan {
+    
+    private UUID loanId;
+    private BigDecimal finalRate;
+    private LoanInput input;
+}
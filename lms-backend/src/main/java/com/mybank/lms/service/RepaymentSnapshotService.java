@@ -1,13 +1,19 @@
 package com.mybank.lms.service;
 
-import com.mybank.lms.calculator.HomeLoan;
 import com.mybank.lms.calculator.LoanInput;
 import com.mybank.lms.calculator.LoanOutput;
+import com.mybank.lms.calculator.LoanResultCache;
+import com.mybank.lms.calculator.Paise;
+import com.mybank.lms.calculator.ScheduleBuffer;
+import com.mybank.lms.calculator.ScheduleCheckpoint;
+import com.mybank.lms.calculator.ScheduleStatistics;
 import com.mybank.lms.model.dto.RepaymentScheduleDTO;
 import com.mybank.lms.model.entity.*;
 import com.mybank.lms.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +32,22 @@ import java.util.HashMap;
 @Slf4j
 public class RepaymentSnapshotService {
     
+    private final LoanRepository loanRepository;
     private final RepaymentSnapshotRepository snapshotRepository;
     private final RepaymentSnapshotRepository repaymentSnapshotRepository;
     private final RepaymentRowRepository rowRepository;
+    private final RepaymentRowWriter rowWriter;
     private final RateResetAuditRepository rateResetAuditRepository;
+    private final LoanSummaryRepository loanSummaryRepository;
+    private final LoanResultCache loanResultCache;
+    
+    // Calculator arithmetic for every LoanInput built here (DOUBLE or PAISE)
+    @Value("${lms.calculator.arithmetic:DOUBLE}")
+    private LoanInput.Arithmetic arithmetic;
+    
+    // Longest chain of delta snapshots before a full snapshot is written; 0 disables delta snapshots
+    @Value("${lms.persistence.max-delta-chain:8}")
+    private int maxDeltaChain;
     
     @Transactional
     public RepaymentSnapshotEntity createInitialSnapshot(LoanEntity loanEntity, LoanOutput calculatorOutput, BigDecimal apr) {
@@ -43,13 +61,15 @@ public class RepaymentSnapshotService {
         snapshot.setAnnualRate(loanEntity.getAnnualRate());
         snapshot.setRateType(loanEntity.getRateType().name());
         snapshot.setApr(apr);
-        snapshot.setVersion(1);
+        snapshot.setVersion(nextVersion(loanEntity));
         snapshot.setMemo("Initial repayment schedule");
+        applyStatistics(snapshot, calculatorOutput.getStatistics());
         
         snapshot = repaymentSnapshotRepository.save(snapshot);
         
         // Create repayment rows
         createRepaymentRows(snapshot, calculatorOutput);
+        publish(snapshot);
         
         log.info("Initial snapshot created with ID: {}", snapshot.getId());
         return snapshot;
@@ -63,17 +83,20 @@ public class RepaymentSnapshotService {
         RepaymentSnapshotEntity snapshot = new RepaymentSnapshotEntity();
         snapshot.setLoan(loanEntity);
         snapshot.setSnapshotDate(LocalDate.now());
-        snapshot.setPrincipalBalance(BigDecimal.valueOf(calculatorOutput.getPaymentSchedule().get(0).getRemainingBalance()));
+        snapshot.setPrincipalBalance(Paise.toBigDecimal(calculatorOutput.getScheduleBuffer().getRemainingBalance(0)));
         snapshot.setMonthsRemaining(calculatorOutput.getActualTenure());
         snapshot.setAnnualRate(newRate);
         snapshot.setRateType(loanEntity.getRateType().name());
         snapshot.setApr(apr);
+        snapshot.setVersion(nextVersion(loanEntity));
         snapshot.setMemo(String.format("Rate reset from %.4f%% to %.4f%%", previousRate, newRate));
+        applyStatistics(snapshot, calculatorOutput.getStatistics());
         
         snapshot = repaymentSnapshotRepository.save(snapshot);
         
         // Create repayment rows
         createRepaymentRows(snapshot, calculatorOutput);
+        publish(snapshot);
         
         // Create rate reset audit entry
         createRateResetAudit(loanEntity, previousRate, newRate, snapshot);
@@ -91,9 +114,14 @@ public class RepaymentSnapshotService {
                                                        LocalDate effectiveFrom) {
         log.info("Creating hybrid snapshot for loan: {} with {} paid installments", loanEntity.getId(), paidInstallments.size());
         
+        // The paid installments were read from the current latest snapshot, which becomes the delta parent
+        int version = nextVersion(loanEntity);
+        RepaymentSnapshotEntity parent = repaymentSnapshotRepository.findLatestByLoanId(loanEntity.getId()).orElse(null);
+        
         RepaymentSnapshotEntity snapshot = new RepaymentSnapshotEntity();
         snapshot.setLoan(loanEntity);
         snapshot.setSnapshotDate(LocalDate.now());
+        snapshot.setVersion(version);
         
         // Calculate remaining principal from last paid installment or original principal
         BigDecimal remainingPrincipal = loanEntity.getPrincipal();
@@ -115,7 +143,8 @@ public class RepaymentSnapshotService {
         snapshot = repaymentSnapshotRepository.save(snapshot);
         
         // Create hybrid repayment rows (old + new)
-        createHybridRepaymentRows(snapshot, paidInstallments, newCalculatorOutput, effectiveFrom);
+        createHybridRepaymentRows(snapshot, parent, paidInstallments, newCalculatorOutput, effectiveFrom);
+        publish(snapshot);
         
         log.info("Hybrid snapshot created with ID: {}", snapshot.getId());
         return snapshot;
@@ -125,6 +154,23 @@ public class RepaymentSnapshotService {
         return getLatestRepaymentSchedule(loanId);
     }
     
+    /**
+     * Installments {@code fromMonth..toMonth} of the latest schedule; blob-stored schedules are decoded only
+     * as far as {@code toMonth}
+     */
+    public RepaymentScheduleDTO getRepaymentSchedule(UUID loanId, int fromMonth, int toMonth) {
+        log.info("Fetching repayment schedule months {}-{} for loan: {}", fromMonth, toMonth, loanId);
+        
+        Optional<RepaymentSnapshotEntity> snapshotOpt = repaymentSnapshotRepository.findLatestByLoanId(loanId);
+        if (snapshotOpt.isEmpty()) {
+            log.warn("No repayment snapshot found for loan: {}", loanId);
+            return null;
+        }
+        
+        RepaymentSnapshotEntity snapshot = snapshotOpt.get();
+        return mapToRepaymentScheduleDTO(snapshot, loadRows(snapshot, fromMonth, toMonth));
+    }
+    
     public RepaymentScheduleDTO getLatestRepaymentSchedule(UUID loanId) {
         log.info("Fetching latest repayment schedule for loan: {}", loanId);
         
@@ -135,14 +181,10 @@ public class RepaymentSnapshotService {
             return null;
         }
         
-        List<RepaymentRowEntity> rows = rowRepository.findBySnapshotIdOrderByMonthNumber(snapshotOpt.get().getId());
+        List<RepaymentRowEntity> rows = loadRows(snapshotOpt.get());
         return mapToRepaymentScheduleDTO(snapshotOpt.get(), rows);
     }
     
-    public Integer getMaxVersionForLoan(UUID loanId) {
-        return repaymentSnapshotRepository.findMaxVersionByLoanId(loanId);
-    }
-    
     public Optional<RepaymentSnapshotEntity> getLatestSnapshot(UUID loanId) {
         return repaymentSnapshotRepository.findLatestByLoanId(loanId);
     }
@@ -155,8 +197,133 @@ public class RepaymentSnapshotService {
         return repaymentSnapshotRepository.findLatestByLoanId(loanId).orElse(null);
     }
 
+    /**
+     * Checkpoint after installment {@code monthNumber} of the loan's latest snapshot, carrying installments
+     * 1..monthNumber as prefix. Empty when that snapshot is not a plain calculator schedule of the whole loan
+     * (rate-reset or hybrid snapshots, PAID/MODIFICATION rows), in which case callers recalculate the loan.
+     */
+    public Optional<ScheduleCheckpoint> getCheckpointAfter(LoanEntity loanEntity, int monthNumber) {
+        if (monthNumber < 1) {
+            return Optional.empty();
+        }
+        Optional<RepaymentSnapshotEntity> latest = repaymentSnapshotRepository.findLatestByLoanId(loanEntity.getId());
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        RepaymentSnapshotEntity snapshot = latest.get();
+        List<RepaymentRowEntity> rows = loadRows(snapshot, Integer.MIN_VALUE, monthNumber);
+        if (rows.size() != monthNumber || !loanEntity.getStartDate().equals(rows.get(0).getPaymentDate())) {
+            return Optional.empty();
+        }
+        
+        double rate = snapshot.getAnnualRate() != null ? snapshot.getAnnualRate().doubleValue() : 0.0;
+        ScheduleBuffer prefix = new ScheduleBuffer(monthNumber);
+        for (int i = 0; i < rows.size(); i++) {
+            RepaymentRowEntity row = rows.get(i);
+            if (row.getMonthNumber() != i + 1 || row.getPaymentDate() == null || row.getRemainingBalance() == null
+                    || !ScheduleBuffer.isPaymentType(row.getPaymentType())) {
+                return Optional.empty();
+            }
+            prefix.add(row.getMonthNumber(),
+                row.getEmi() != null ? row.getEmi().doubleValue() : 0.0,
+                row.getPrincipalPaid() != null ? row.getPrincipalPaid().doubleValue() : 0.0,
+                row.getInterestPaid() != null ? row.getInterestPaid().doubleValue() : 0.0,
+                row.getRemainingBalance().doubleValue(),
+                rate,
+                ScheduleBuffer.toEpochDay(row.getPaymentDate()),
+                ScheduleBuffer.paymentTypeCode(row.getPaymentType()));
+        }
+        
+        RepaymentRowEntity last = rows.get(rows.size() - 1);
+        return Optional.of(new ScheduleCheckpoint(monthNumber, last.getRemainingBalance().doubleValue(),
+            last.getPaymentDate().plusMonths(1), 0, prefix));
+    }
+    
     public List<RepaymentRowEntity> getRowsForSnapshot(UUID snapshotId) {
-        return rowRepository.findBySnapshotIdOrderByMonthNumber(snapshotId);
+        return repaymentSnapshotRepository.findById(snapshotId)
+            .map(this::loadRows)
+            .orElseGet(List::of);
+    }
+
+    /**
+     * Rows of a snapshot in month order, decoded from its schedule blob when it has one and merged with the
+     * rows inherited from its parent when it is a delta snapshot. Inherited rows are unsaved copies with no
+     * id, carrying the change marker of the parent row they repeat.
+     */
+    public List<RepaymentRowEntity> loadRows(RepaymentSnapshotEntity snapshot) {
+        return loadRows(snapshot, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+    
+    private List<RepaymentRowEntity> loadRows(RepaymentSnapshotEntity snapshot, int fromMonth, int toMonth) {
+        Integer inheritedThrough = snapshot.getInheritedThroughMonth();
+        if (snapshot.getParentSnapshot() == null || inheritedThrough == null || fromMonth > inheritedThrough) {
+            return loadOwnRows(snapshot, fromMonth, toMonth);
+        }
+        
+        // Inherited rows are copies, so re-typing them never touches the parent's managed rows
+        List<RepaymentRowEntity> parentRows = loadRows(snapshot.getParentSnapshot(), fromMonth, Math.min(toMonth, inheritedThrough));
+        List<RepaymentRowEntity> rows = new ArrayList<>(parentRows.size());
+        for (RepaymentRowEntity parentRow : parentRows) {
+            RepaymentRowEntity row = new RepaymentRowEntity();
+            row.setSnapshot(snapshot);
+            row.setLoanId(parentRow.getLoanId());
+            row.setMonthNumber(parentRow.getMonthNumber());
+            row.setPaymentDate(parentRow.getPaymentDate());
+            row.setEmi(parentRow.getEmi());
+            row.setPrincipalPaid(parentRow.getPrincipalPaid());
+            row.setInterestPaid(parentRow.getInterestPaid());
+            row.setRemainingBalance(parentRow.getRemainingBalance());
+            row.setPaymentType(snapshot.getInheritedPaymentType() != null
+                ? snapshot.getInheritedPaymentType() : parentRow.getPaymentType());
+            row.setChangeMarker(parentRow.getChangeMarker());
+            row.setCreatedAt(snapshot.getCreatedAt());
+            rows.add(row);
+        }
+        if (toMonth > inheritedThrough) {
+            rows.addAll(loadOwnRows(snapshot, fromMonth, toMonth));
+        }
+        return rows;
+    }
+    
+    private List<RepaymentRowEntity> loadOwnRows(RepaymentSnapshotEntity snapshot, int fromMonth, int toMonth) {
+        if (snapshot.getScheduleBlob() != null) {
+            return ScheduleBlobCodec.decode(snapshot.getScheduleBlob(), fromMonth, toMonth).toEntities(snapshot);
+        }
+        UUID loanId = snapshot.getLoan().getId();
+        if (fromMonth == Integer.MIN_VALUE && toMonth == Integer.MAX_VALUE) {
+            return rowRepository.findByLoanIdAndSnapshotIdOrderByMonthNumber(loanId, snapshot.getId());
+        }
+        return rowRepository.findByLoanIdAndSnapshotIdAndMonthNumberBetweenOrderByMonthNumber(loanId, snapshot.getId(),
+            fromMonth, toMonth);
+    }
+
+    /**
+     * EMI of the first regular installment of a snapshot, used to warm-start the EMI solver on recalculation
+     */
+    public Optional<BigDecimal> getRegularEmi(RepaymentSnapshotEntity snapshot) {
+        if (snapshot.getScheduleBlob() == null && snapshot.getParentSnapshot() == null) {
+            return rowRepository.findFirstRegularEmi(snapshot.getLoan().getId(), snapshot.getId());
+        }
+        return loadRows(snapshot).stream()
+            .filter(row -> "NORMAL".equals(row.getPaymentType()) && row.getEmi() != null)
+            .map(RepaymentRowEntity::getEmi)
+            .findFirst();
+    }
+
+    /**
+     * Materialize {@code repayment_row} rows for up to {@code limit} blob-stored snapshots that have none, e.g.
+     * before switching {@code lms.persistence.schedule-storage} back to ROWS; returns the number of snapshots
+     */
+    @Transactional
+    public int backfillRows(int limit) {
+        List<RepaymentSnapshotEntity> snapshots = repaymentSnapshotRepository.findBlobSnapshotsWithoutRows(
+            PageRequest.of(0, Math.max(limit, 1)));
+        for (RepaymentSnapshotEntity snapshot : snapshots) {
+            rowWriter.writeRows(snapshot, ScheduleBlobCodec.decode(snapshot.getScheduleBlob()));
+        }
+        log.info("Backfilled repayment rows for {} blob snapshots", snapshots.size());
+        return snapshots.size();
     }
 
     /**
@@ -181,7 +348,7 @@ public class RepaymentSnapshotService {
         RepaymentSnapshotEntity previous = snapshots.get(1);
 
         // Build previous schedule rows (historical part)
-        List<RepaymentRowEntity> prevRows = rowRepository.findBySnapshotIdOrderByMonthNumber(previous.getId());
+        List<RepaymentRowEntity> prevRows = loadRows(previous);
         RepaymentScheduleDTO prevDto = mapToRepaymentScheduleDTO(previous, prevRows);
 
         // Build latest schedule rows (new terms)
@@ -234,87 +401,149 @@ public class RepaymentSnapshotService {
     }
     
     private void createRepaymentRows(RepaymentSnapshotEntity snapshot, LoanOutput calculatorOutput) {
-        List<RepaymentRowEntity> rows = new ArrayList<>();
-        
-        for (int i = 0; i < calculatorOutput.getPaymentSchedule().size(); i++) {
-            LoanOutput.MonthlyPayment payment = calculatorOutput.getPaymentSchedule().get(i);
-            
-            RepaymentRowEntity row = new RepaymentRowEntity();
-            row.setSnapshot(snapshot);
-            row.setMonthNumber(payment.getMonthNumber());
-            row.setPaymentDate(payment.getPaymentDate());
-            row.setEmi(BigDecimal.valueOf(payment.getEmi()));
-            row.setPrincipalPaid(BigDecimal.valueOf(payment.getPrincipalPaid()));
-            row.setInterestPaid(BigDecimal.valueOf(payment.getInterestPaid()));
-            row.setRemainingBalance(BigDecimal.valueOf(payment.getRemainingBalance()));
-            row.setPaymentType(payment.getPaymentType());
-            
-            rows.add(row);
-        }
+        ScheduleBuffer schedule = calculatorOutput.getScheduleBuffer();
+        RepaymentRowBatch rows = new RepaymentRowBatch(schedule.size());
+        schedule.copyTo(rows);
         
-        rowRepository.saveAll(rows);
+        rowWriter.write(snapshot, rows);
+        updateLoanSummary(snapshot, rows);
         log.info("Created {} repayment rows for snapshot: {}", rows.size(), snapshot.getId());
     }
     
     private void createHybridRepaymentRows(RepaymentSnapshotEntity snapshot, 
+                                         RepaymentSnapshotEntity parent,
                                          List<RepaymentScheduleDTO.RepaymentRowDTO> paidInstallments,
                                          LoanOutput newCalculatorOutput, 
                                          LocalDate effectiveFrom) {
-        List<RepaymentRowEntity> rows = new ArrayList<>();
+        ScheduleBuffer schedule = newCalculatorOutput.getScheduleBuffer();
+        RepaymentRowBatch rows = new RepaymentRowBatch(paidInstallments.size() + 1 + schedule.size());
         int monthNumber = 1;
         
         // Add existing paid installments
         for (RepaymentScheduleDTO.RepaymentRowDTO paidRow : paidInstallments) {
-            RepaymentRowEntity row = new RepaymentRowEntity();
-            row.setSnapshot(snapshot);
-            row.setMonthNumber(monthNumber++);
-            row.setPaymentDate(paidRow.getPaymentDate());
-            row.setEmi(paidRow.getEmi());
-            row.setPrincipalPaid(paidRow.getPrincipalPaid());
-            row.setInterestPaid(paidRow.getInterestPaid());
-            row.setRemainingBalance(paidRow.getRemainingBalance());
-            row.setPaymentType("PAID");
-            
-            rows.add(row);
+            rows.add(monthNumber++, paidRow.getPaymentDate(), paidRow.getEmi(), paidRow.getPrincipalPaid(),
+                paidRow.getInterestPaid(), paidRow.getRemainingBalance(), "PAID");
         }
         
         // Add modification marker row if there are paid installments
         if (!paidInstallments.isEmpty()) {
-            RepaymentRowEntity modificationRow = new RepaymentRowEntity();
-            modificationRow.setSnapshot(snapshot);
-            modificationRow.setMonthNumber(monthNumber++);
-            modificationRow.setPaymentDate(effectiveFrom);
-            modificationRow.setEmi(BigDecimal.ZERO);
-            modificationRow.setPrincipalPaid(BigDecimal.ZERO);
-            modificationRow.setInterestPaid(BigDecimal.ZERO);
-            
             // Get remaining balance from last paid installment
             RepaymentScheduleDTO.RepaymentRowDTO lastPaid = paidInstallments.get(paidInstallments.size() - 1);
-            modificationRow.setRemainingBalance(lastPaid.getRemainingBalance());
-            modificationRow.setPaymentType("MODIFICATION");
-            
-            rows.add(modificationRow);
+            rows.add(monthNumber++, effectiveFrom, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                lastPaid.getRemainingBalance(), "MODIFICATION");
         }
         
         // Add new calculated installments
-        for (LoanOutput.MonthlyPayment payment : newCalculatorOutput.getPaymentSchedule()) {
-            RepaymentRowEntity row = new RepaymentRowEntity();
-            row.setSnapshot(snapshot);
-            row.setMonthNumber(monthNumber++);
-            row.setPaymentDate(payment.getPaymentDate());
-            row.setEmi(BigDecimal.valueOf(payment.getEmi()));
-            row.setPrincipalPaid(BigDecimal.valueOf(payment.getPrincipalPaid()));
-            row.setInterestPaid(BigDecimal.valueOf(payment.getInterestPaid()));
-            row.setRemainingBalance(BigDecimal.valueOf(payment.getRemainingBalance()));
-            row.setPaymentType("FUTURE");
-            
-            rows.add(row);
+        for (int i = 0; i < schedule.size(); i++) {
+            rows.add(monthNumber++, schedule.getEpochDay(i), Paise.roundDecimal(schedule.getEmi(i)),
+                Paise.roundDecimal(schedule.getPrincipalPaid(i)), Paise.roundDecimal(schedule.getInterestPaid(i)),
+                Paise.roundDecimal(schedule.getRemainingBalance(i)), "FUTURE");
         }
         
-        rowRepository.saveAll(rows);
+        applyStatistics(snapshot, rows.statistics());
+        if (paidInstallments.isEmpty() || parent == null) {
+            writeRows(snapshot, null, null, rows);
+        } else {
+            writeRows(snapshot, parent, loadRows(parent, Integer.MIN_VALUE, paidInstallments.size() + 1), rows);
+        }
+        updateLoanSummary(snapshot, rows);
         log.info("Created {} hybrid repayment rows for snapshot: {}", rows.size(), snapshot.getId());
     }
     
+    /**
+     * Write {@code rows} as a delta of {@code parent} when their leading rows repeat the parent's schedule
+     * ({@code parentRows}, in month order, covering the rows to inherit and the row after them). Once the
+     * parent is {@code lms.persistence.max-delta-chain} deltas deep the rows are written in full, so reads
+     * merge a bounded number of snapshots.
+     */
+    private void writeRows(RepaymentSnapshotEntity snapshot, RepaymentSnapshotEntity parent,
+                           List<RepaymentRowEntity> parentRows, RepaymentRowBatch rows) {
+        int parentDepth = parent != null && parent.getChainDepth() != null ? parent.getChainDepth() : 0;
+        int inherited = parent != null && parentDepth < maxDeltaChain
+            ? rows.inheritablePrefix(RepaymentRowBatch.of(parentRows)) : 0;
+        if (inherited == 0) {
+            snapshot.setChainDepth(0);
+            rowWriter.write(snapshot, rows);
+            return;
+        }
+        
+        snapshot.setParentSnapshot(parent);
+        snapshot.setInheritedThroughMonth(rows.getMonthNumber(inherited - 1));
+        snapshot.setInheritedPaymentType(rows.getPaymentType(0));
+        snapshot.setChainDepth(parentDepth + 1);
+        rowWriter.write(snapshot, rows.from(inherited));
+        log.info("Snapshot {} inherits {} rows from parent snapshot: {}", snapshot.getId(), inherited, parent.getId());
+    }
+    
+    /**
+     * Lock the loan row and return the version of its next snapshot. The lock is held until the surrounding
+     * transaction commits, so concurrent publishers of one loan queue up instead of racing for a version.
+     */
+    private int nextVersion(LoanEntity loanEntity) {
+        // A loan saved earlier in this transaction may not have been inserted yet
+        loanRepository.flush();
+        Integer current = loanRepository.lockCurrentSnapshotVersion(loanEntity.getId());
+        if (current == null) {
+            throw new IllegalStateException("Loan not found: " + loanEntity.getId());
+        }
+        return current + 1;
+    }
+    
+    /**
+     * Make {@code snapshot}, whose rows are written, the loan's current snapshot
+     */
+    private void publish(RepaymentSnapshotEntity snapshot) {
+        LoanEntity loan = snapshot.getLoan();
+        loanRepository.publishSnapshot(loan.getId(), snapshot.getId(), snapshot.getVersion());
+        // The native UPDATE bypasses the persistence context, so bring the managed loan's read-only pointer up to
+        // date; the loan row is locked (nextVersion), so this is what the database now holds
+        loan.setCurrentSnapshotId(snapshot.getId());
+        loan.setCurrentSnapshotVersion(snapshot.getVersion());
+    }
+    
+    /**
+     * Point the loan's summary row at {@code snapshot}, whose statistics are already applied, unless it holds a
+     * higher snapshot version
+     */
+    private void updateLoanSummary(RepaymentSnapshotEntity snapshot, RepaymentRowBatch rows) {
+        UUID loanId = snapshot.getLoan().getId();
+        LoanSummaryEntity summary = loanSummaryRepository.findById(loanId).orElseGet(LoanSummaryEntity::new);
+        if (summary.getSnapshotVersion() != null && summary.getSnapshotVersion() > snapshot.getVersion()) {
+            return;
+        }
+        
+        // Same figures the KFS mapping derives from the schedule: the first row's EMI, and interest net of
+        // capitalised interest
+        BigDecimal totalInterest = snapshot.getTotalInterest().subtract(snapshot.getCapitalisedInterest());
+        summary.setLoanId(loanId);
+        summary.setSnapshotId(snapshot.getId());
+        summary.setSnapshotVersion(snapshot.getVersion());
+        summary.setSnapshotDate(snapshot.getSnapshotDate());
+        summary.setInitialEmi(!rows.isEmpty() && rows.getEmi(0) != RepaymentRowBatch.NO_AMOUNT
+            ? Paise.toBigDecimal(rows.getEmi(0)) : null);
+        summary.setApr(snapshot.getApr());
+        summary.setOutstandingPrincipal(snapshot.getPrincipalBalance());
+        summary.setMonthsRemaining(snapshot.getMonthsRemaining());
+        summary.setTotalInterest(totalInterest);
+        summary.setTotalAmountPayable(snapshot.getLoan().getPrincipal().add(totalInterest));
+        // The snapshot INSERT may still be pending; the summary references it by foreign key
+        repaymentSnapshotRepository.flush();
+        loanSummaryRepository.save(summary);
+    }
+    
+    private void applyStatistics(RepaymentSnapshotEntity snapshot, ScheduleStatistics statistics) {
+        snapshot.setTotalInterest(Paise.toBigDecimal(statistics.getTotalInterest()));
+        snapshot.setTotalPrincipal(Paise.toBigDecimal(statistics.getTotalPrincipal()));
+        snapshot.setTotalPaid(Paise.toBigDecimal(statistics.getTotalPaid()));
+        snapshot.setCapitalisedInterest(Paise.toBigDecimal(statistics.getCapitalisedInterest()));
+        snapshot.setPreEmiTotal(Paise.toBigDecimal(statistics.getPreEmiTotal()));
+        snapshot.setFirstEmi(Paise.toBigDecimal(statistics.getFirstEmi()));
+        snapshot.setLastEmi(Paise.toBigDecimal(statistics.getLastEmi()));
+        snapshot.setMoratoriumMonths(statistics.getMoratoriumMonths());
+        snapshot.setMinBalance(Paise.toBigDecimal(statistics.getMinBalance()));
+        snapshot.setMaxBalance(Paise.toBigDecimal(statistics.getMaxBalance()));
+    }
+    
     private void createRateResetAudit(LoanEntity loanEntity, BigDecimal previousRate, BigDecimal newRate, 
                                     RepaymentSnapshotEntity snapshot) {
         RateResetAuditEntity audit = new RateResetAuditEntity();
@@ -327,7 +556,8 @@ public class RepaymentSnapshotService {
         rateResetAuditRepository.save(audit);
     }
     
-    private RepaymentScheduleDTO mapToRepaymentScheduleDTO(RepaymentSnapshotEntity snapshot, List<RepaymentRowEntity> rows) {
+    // Static and package-private for ScheduleMappingBenchmark, which then needs no service instance
+    static RepaymentScheduleDTO mapToRepaymentScheduleDTO(RepaymentSnapshotEntity snapshot, List<RepaymentRowEntity> rows) {
         RepaymentScheduleDTO dto = new RepaymentScheduleDTO();
         dto.setSnapshotId(snapshot.getId());
         dto.setSnapshotDate(snapshot.getSnapshotDate());
@@ -338,6 +568,20 @@ public class RepaymentSnapshotService {
         dto.setMemo(snapshot.getMemo());
         dto.setCreatedAt(snapshot.getCreatedAt());
         dto.setRateType(snapshot.getRateType());
+        if (snapshot.getTotalInterest() != null) {
+            dto.setStatistics(new RepaymentScheduleDTO.ScheduleStatisticsDTO(
+                snapshot.getTotalInterest(),
+                snapshot.getTotalPrincipal(),
+                snapshot.getTotalPaid(),
+                snapshot.getCapitalisedInterest(),
+                snapshot.getPreEmiTotal(),
+                snapshot.getFirstEmi(),
+                snapshot.getLastEmi(),
+                snapshot.getMoratoriumMonths(),
+                snapshot.getMinBalance(),
+                snapshot.getMaxBalance()
+            ));
+        }
         List<RepaymentScheduleDTO.RepaymentRowDTO> installmentList = rows.stream()
             .map(row -> {
                 RepaymentScheduleDTO.RepaymentRowDTO rowDto = new RepaymentScheduleDTO.RepaymentRowDTO();
@@ -370,12 +614,6 @@ public class RepaymentSnapshotService {
     @Transactional
     public RepaymentSnapshotEntity createSnapshot(LoanEntity loanEntity, LoanOutput calculatorOutput, 
                                                  BigDecimal apr, String createdBy) {
-        return createSnapshot(loanEntity, calculatorOutput, apr, createdBy, 1);
-    }
-    
-    @Transactional
-    public RepaymentSnapshotEntity createSnapshot(LoanEntity loanEntity, LoanOutput calculatorOutput, 
-                                                 BigDecimal apr, String createdBy, Integer version) {
         log.info("Creating modification snapshot for loan: {}", loanEntity.getId());
         
         RepaymentSnapshotEntity snapshot = new RepaymentSnapshotEntity();
@@ -386,13 +624,16 @@ public class RepaymentSnapshotService {
         snapshot.setAnnualRate(loanEntity.getAnnualRate());
         snapshot.setRateType(loanEntity.getRateType().name());
         snapshot.setApr(apr);
+        int version = nextVersion(loanEntity);
         snapshot.setVersion(version);
         snapshot.setMemo(version == 1 ? "Initial repayment schedule" : "Updated repayment schedule v" + version);
+        applyStatistics(snapshot, calculatorOutput.getStatistics());
         
         snapshot = repaymentSnapshotRepository.save(snapshot);
         
         // Save repayment rows
         createRepaymentRows(snapshot, calculatorOutput);
+        publish(snapshot);
         
         log.info("Modification snapshot created with ID: {}", snapshot.getId());
         return snapshot;
@@ -403,12 +644,12 @@ public class RepaymentSnapshotService {
                                                                RepaymentSnapshotEntity lastSnapshot,
                                                                Map<String, String[]> changes, 
                                                                String changedBy, 
-                                                               Integer version,
                                                                LocalDate cutoffDate) {
+        int version = nextVersion(loanEntity);
         log.info("Creating versioned hybrid snapshot for loan: {} version: {} with cutoff date: {}", loanEntity.getId(), version, cutoffDate);
         
         // Get all rows from last snapshot
-        List<RepaymentRowEntity> lastRows = rowRepository.findBySnapshotIdOrderByMonthNumber(lastSnapshot.getId());
+        List<RepaymentRowEntity> lastRows = loadRows(lastSnapshot);
         
         // Find the cutoff point - installments before the cutoff date
         int paidInstallments = 0;
@@ -451,6 +692,7 @@ public class RepaymentSnapshotService {
         
         // Calculate APR for the modified loan
         LoanInput modifiedInput = new LoanInput();
+        modifiedInput.setArithmetic(arithmetic);
         modifiedInput.setPrincipal(remainingPrincipal.doubleValue());
         modifiedInput.setAnnualRate(loanEntity.getAnnualRate().doubleValue());
         modifiedInput.setMonths(loanEntity.getMonths() - paidInstallments);
@@ -483,10 +725,10 @@ public class RepaymentSnapshotService {
         // Calculate using appropriate method based on loan type and disbursement phases
         LoanOutput modifiedOutput;
         if ("HOME_LOAN".equals(loanEntity.getProductType()) && hasActiveDisbursements) {
-            modifiedOutput = HomeLoan.calculateHomeLoan(modifiedInput);
+            modifiedOutput = loanResultCache.calculateHomeLoan(modifiedInput);
             log.info("Used HomeLoan.calculateHomeLoan() for hybrid snapshot with disbursement phases");
         } else {
-            modifiedOutput = HomeLoan.calculateLoan(modifiedInput);
+            modifiedOutput = loanResultCache.calculateLoan(modifiedInput);
             log.info("Used HomeLoan.calculateLoan() for hybrid snapshot without disbursement phases");
         }
         BigDecimal calculatedApr = loanEntity.getAnnualRate();
@@ -495,17 +737,21 @@ public class RepaymentSnapshotService {
         snapshot = repaymentSnapshotRepository.save(snapshot);
         
         // Create hybrid schedule: preserve paid + recalculate remaining
-        createHybridRepaymentRows(snapshot, lastRows, paidInstallments, modifiedOutput);
+        createHybridRepaymentRows(snapshot, lastSnapshot, lastRows, paidInstallments, modifiedOutput);
+        publish(snapshot);
         
         log.info("Hybrid snapshot created with ID: {}", snapshot.getId());
         return snapshot;
     }
     
     private void createHybridRepaymentRows(RepaymentSnapshotEntity snapshot, 
+                                         RepaymentSnapshotEntity originalSnapshot,
                                          List<RepaymentRowEntity> originalRows,
                                          int paidInstallments,
                                          LoanOutput newCalculation) {
-        List<RepaymentRowEntity> hybridRows = new ArrayList<>();
+        ScheduleBuffer schedule = newCalculation.getScheduleBuffer();
+        RepaymentRowBatch hybridRows = new RepaymentRowBatch(paidInstallments + schedule.size());
+        int actualPaidRows = 0;
         
         // 1. Copy only actual paid installments (skip zero EMI rows)
         LocalDate today = LocalDate.now();
@@ -519,17 +765,11 @@ public class RepaymentSnapshotService {
             
             if (originalRow.getPaymentDate().isBefore(today) || originalRow.getPaymentDate().isEqual(today)) {
                 // Copy paid installment as-is
-                RepaymentRowEntity paidRow = new RepaymentRowEntity();
-                paidRow.setSnapshot(snapshot);
-                paidRow.setMonthNumber(originalRow.getMonthNumber());
-                paidRow.setPaymentDate(originalRow.getPaymentDate());
-                paidRow.setEmi(originalRow.getEmi());
-                paidRow.setPrincipalPaid(originalRow.getPrincipalPaid());
-                paidRow.setInterestPaid(originalRow.getInterestPaid());
-                paidRow.setRemainingBalance(originalRow.getRemainingBalance());
-                paidRow.setPaymentType("PAID");
-                paidRow.setChangeMarker(false);
-                hybridRows.add(paidRow);
+                hybridRows.add(originalRow.getMonthNumber(), originalRow.getPaymentDate(), originalRow.getEmi(),
+                    originalRow.getPrincipalPaid(), originalRow.getInterestPaid(), originalRow.getRemainingBalance(), "PAID");
+                if (originalRow.getEmi().compareTo(BigDecimal.ZERO) > 0) {
+                    actualPaidRows++;
+                }
             } else {
                 break; // Stop at first unpaid installment
             }
@@ -538,58 +778,30 @@ public class RepaymentSnapshotService {
         // Skip change marker row to avoid extra zero row
         
         // Add new calculated installments from LoanOutput with proper termination logic
-        int actualPaidRows = (int) hybridRows.stream().filter(row -> row.getEmi().compareTo(BigDecimal.ZERO) > 0).count();
         int newRowsAdded = 0;
         
-        for (int i = 0; i < newCalculation.getPaymentSchedule().size(); i++) {
-            var entry = newCalculation.getPaymentSchedule().get(i);
-            
+        for (int i = 0; i < schedule.size(); i++) {
             // Skip rows with zero or negative EMI amounts
-            if (entry.getEmi() <= 0.01) {
+            if (schedule.getEmi(i) <= 0.01) {
                 continue;
             }
             
-            RepaymentRowEntity newRow = new RepaymentRowEntity();
-            newRow.setSnapshot(snapshot);
-            newRow.setMonthNumber(actualPaidRows + 1 + newRowsAdded);
-            newRow.setPaymentDate(LocalDate.now().plusMonths(newRowsAdded + 1));
-            newRow.setEmi(BigDecimal.valueOf(entry.getEmi()));
-            newRow.setPrincipalPaid(BigDecimal.valueOf(entry.getPrincipalPaid()));
-            newRow.setInterestPaid(BigDecimal.valueOf(entry.getInterestPaid()));
-            newRow.setRemainingBalance(BigDecimal.valueOf(Math.max(0, entry.getRemainingBalance())));
-            newRow.setPaymentType("NORMAL");
-            newRow.setChangeMarker(false);
-            hybridRows.add(newRow);
+            hybridRows.add(actualPaidRows + 1 + newRowsAdded, ScheduleBuffer.toEpochDay(today.plusMonths(newRowsAdded + 1)),
+                Paise.roundDecimal(schedule.getEmi(i)), Paise.roundDecimal(schedule.getPrincipalPaid(i)),
+                Paise.roundDecimal(schedule.getInterestPaid(i)),
+                Paise.roundDecimal(Math.max(0, schedule.getRemainingBalance(i))), "NORMAL");
             newRowsAdded++;
             
             // Stop after adding the row that brings balance to zero or very close to zero
-            if (entry.getRemainingBalance() <= 0.01) {
+            if (schedule.getRemainingBalance(i) <= 0.01) {
                 break;
             }
         }
         
-        rowRepository.saveAll(hybridRows);
+        applyStatistics(snapshot, hybridRows.statistics());
+        writeRows(snapshot, originalSnapshot, originalRows, hybridRows);
+        updateLoanSummary(snapshot, hybridRows);
         log.info("Created {} hybrid repayment rows ({} paid + {} new)", 
-                hybridRows.size(), paidInstallments, newCalculation.getPaymentSchedule().size());
-    }
-    
-    private void copyPaidRows(RepaymentSnapshotEntity snapshot, List<RepaymentRowEntity> paidRows) {
-        List<RepaymentRowEntity> copiedRows = new ArrayList<>();
-        
-        for (RepaymentRowEntity paidRow : paidRows) {
-            RepaymentRowEntity newRow = new RepaymentRowEntity();
-            newRow.setSnapshot(snapshot);
-            newRow.setMonthNumber(paidRow.getMonthNumber());
-            newRow.setPaymentDate(paidRow.getPaymentDate());
-            newRow.setEmi(paidRow.getEmi());
-            newRow.setPrincipalPaid(paidRow.getPrincipalPaid());
-            newRow.setInterestPaid(paidRow.getInterestPaid());
-            newRow.setRemainingBalance(paidRow.getRemainingBalance());
-            newRow.setPaymentType("PAID");
-            // newRow.setChangeMarker(false); // Remove if field doesn't exist
-            copiedRows.add(newRow);
-        }
-        
-        rowRepository.saveAll(copiedRows);
+                hybridRows.size(), paidInstallments, schedule.size());
     }
 }
@@ -0,0 +1,33 @@
+-- loans.current_snapshot_id/current_snapshot_version point at each loan's latest published repayment snapshot,
+-- so latest-schedule reads are primary-key lookups. New versions are allocated from the pointer under a row lock
+-- on the loan, and (loan_id, version) becomes unique.
+
+-- Rate-reset and hybrid snapshots used to be saved as version 1, so renumber each loan's snapshots 1..n in the
+-- order latest-snapshot reads ranked them (version, then creation time)
+UPDATE repayment_snapshot s
+SET version = v.new_version
+FROM (SELECT id, loan_id,
+             ROW_NUMBER() OVER (PARTITION BY loan_id ORDER BY version, created_at, id) AS new_version
+      FROM repayment_snapshot) v
+WHERE s.id = v.id AND s.loan_id = v.loan_id AND s.version <> v.new_version;
+
+UPDATE loan_summary ls
+SET snapshot_version = s.version
+FROM repayment_snapshot s
+WHERE s.id = ls.snapshot_id AND s.loan_id = ls.loan_id AND ls.snapshot_version <> s.version;
+
+-- Includes the partition key, so it can be enforced on the partitioned table
+CREATE UNIQUE INDEX uq_repayment_snapshot_loan_version ON repayment_snapshot(loan_id, version);
+
+ALTER TABLE loans ADD COLUMN current_snapshot_id UUID;
+ALTER TABLE loans ADD COLUMN current_snapshot_version INTEGER;
+
+UPDATE loans l
+SET current_snapshot_id = s.id, current_snapshot_version = s.version
+FROM (SELECT DISTINCT ON (loan_id) id, loan_id, version
+      FROM repayment_snapshot
+      ORDER BY loan_id, version DESC) s
+WHERE s.loan_id = l.id;
+
+ALTER TABLE loans ADD CONSTRAINT loans_current_snapshot_fkey
+  FOREIGN KEY (current_snapshot_id, id) REFERENCES repayment_snapshot (id, loan_id);
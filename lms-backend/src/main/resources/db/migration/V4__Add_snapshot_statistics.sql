@@ -0,0 +1,12 @@
+-- Schedule statistics accumulated by the calculator, so reads do not re-aggregate repayment rows.
+-- Snapshots created before this migration keep NULLs and are summed from their rows.
+ALTER TABLE repayment_snapshot ADD COLUMN total_interest NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN total_principal NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN total_paid NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN capitalised_interest NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN pre_emi_total NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN first_emi NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN last_emi NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN moratorium_months INTEGER;
+ALTER TABLE repayment_snapshot ADD COLUMN min_balance NUMERIC(18,2);
+ALTER TABLE repayment_snapshot ADD COLUMN max_balance NUMERIC(18,2);
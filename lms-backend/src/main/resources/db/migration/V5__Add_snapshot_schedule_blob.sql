@@ -0,0 +1,4 @@
+-- Optional compact schedule storage: the whole schedule of a snapshot as one compressed, delta-encoded
+-- column (see ScheduleBlobCodec). Snapshots stored this way have no repayment_row rows until backfilled.
+ALTER TABLE repayment_snapshot ADD COLUMN schedule_blob BYTEA;
+ALTER TABLE repayment_snapshot ADD COLUMN schedule_row_count INTEGER;
@@ -0,0 +1,8 @@
+-- Delta snapshots: a snapshot may inherit the leading rows of its parent's schedule instead of copying them.
+-- chain_depth bounds how many parents a read has to merge; a full snapshot (depth 0) is written periodically.
+ALTER TABLE repayment_snapshot ADD COLUMN parent_snapshot_id UUID REFERENCES repayment_snapshot(id);
+ALTER TABLE repayment_snapshot ADD COLUMN inherited_through_month INTEGER;
+ALTER TABLE repayment_snapshot ADD COLUMN inherited_payment_type VARCHAR(50);
+ALTER TABLE repayment_snapshot ADD COLUMN chain_depth INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_repayment_snapshot_parent ON repayment_snapshot(parent_snapshot_id);
@@ -0,0 +1,98 @@
+-- Hash-partition repayment_snapshot and repayment_row by loan_id (16 partitions each, same remainders), so a
+-- loan's snapshots and rows live in one small partition of each table. repayment_row gets its own loan_id.
+-- Partitioned primary keys must include the partition key, so both keys become (id, loan_id) and foreign keys
+-- to repayment_snapshot become (snapshot_id, loan_id). Queries should filter on loan_id to prune partitions.
+
+ALTER TABLE rate_reset_audit DROP CONSTRAINT IF EXISTS rate_reset_audit_snapshot_id_fkey;
+
+ALTER TABLE repayment_row RENAME TO repayment_row_unpartitioned;
+ALTER TABLE repayment_snapshot RENAME TO repayment_snapshot_unpartitioned;
+
+CREATE TABLE repayment_snapshot (
+  id UUID NOT NULL DEFAULT gen_random_uuid(),
+  loan_id UUID NOT NULL REFERENCES loans(id) ON DELETE CASCADE,
+  snapshot_date DATE NOT NULL,
+  principal_balance NUMERIC(18,2) NOT NULL,
+  months_remaining INTEGER NOT NULL,
+  annual_rate NUMERIC(6,4) NOT NULL,
+  rate_type VARCHAR(20),
+  apr NUMERIC(6,4),
+  memo TEXT,
+  created_at TIMESTAMP DEFAULT now(),
+  version INTEGER NOT NULL DEFAULT 1,
+  total_interest NUMERIC(18,2),
+  total_principal NUMERIC(18,2),
+  total_paid NUMERIC(18,2),
+  capitalised_interest NUMERIC(18,2),
+  pre_emi_total NUMERIC(18,2),
+  first_emi NUMERIC(18,2),
+  last_emi NUMERIC(18,2),
+  moratorium_months INTEGER,
+  min_balance NUMERIC(18,2),
+  max_balance NUMERIC(18,2),
+  schedule_blob BYTEA,
+  schedule_row_count INTEGER,
+  parent_snapshot_id UUID,
+  inherited_through_month INTEGER,
+  inherited_payment_type VARCHAR(50),
+  chain_depth INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (id, loan_id)
+) PARTITION BY HASH (loan_id);
+
+CREATE TABLE repayment_row (
+  id UUID NOT NULL DEFAULT gen_random_uuid(),
+  loan_id UUID NOT NULL,
+  snapshot_id UUID NOT NULL,
+  month_number INTEGER NOT NULL,
+  payment_date DATE,
+  emi NUMERIC(18,2),
+  principal_paid NUMERIC(18,2),
+  interest_paid NUMERIC(18,2),
+  remaining_balance NUMERIC(18,2),
+  payment_type VARCHAR(50),
+  created_at TIMESTAMP DEFAULT now(),
+  change_marker BOOLEAN DEFAULT FALSE,
+  PRIMARY KEY (id, loan_id)
+) PARTITION BY HASH (loan_id);
+
+DO $$
+BEGIN
+  FOR i IN 0..15 LOOP
+    EXECUTE format('CREATE TABLE repayment_snapshot_p%s PARTITION OF repayment_snapshot '
+                   'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(i::text, 2, '0'), i);
+    EXECUTE format('CREATE TABLE repayment_row_p%s PARTITION OF repayment_row '
+                   'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(i::text, 2, '0'), i);
+  END LOOP;
+END $$;
+
+-- Fails on snapshots without a loan; those have to be fixed or removed before migrating
+INSERT INTO repayment_snapshot (id, loan_id, snapshot_date, principal_balance, months_remaining, annual_rate,
+  rate_type, apr, memo, created_at, version, total_interest, total_principal, total_paid, capitalised_interest,
+  pre_emi_total, first_emi, last_emi, moratorium_months, min_balance, max_balance, schedule_blob,
+  schedule_row_count, parent_snapshot_id, inherited_through_month, inherited_payment_type, chain_depth)
+SELECT id, loan_id, snapshot_date, principal_balance, months_remaining, annual_rate,
+  rate_type, apr, memo, created_at, version, total_interest, total_principal, total_paid, capitalised_interest,
+  pre_emi_total, first_emi, last_emi, moratorium_months, min_balance, max_balance, schedule_blob,
+  schedule_row_count, parent_snapshot_id, inherited_through_month, inherited_payment_type, chain_depth
+FROM repayment_snapshot_unpartitioned;
+
+INSERT INTO repayment_row (id, loan_id, snapshot_id, month_number, payment_date, emi, principal_paid,
+  interest_paid, remaining_balance, payment_type, created_at, change_marker)
+SELECT r.id, s.loan_id, r.snapshot_id, r.month_number, r.payment_date, r.emi, r.principal_paid,
+  r.interest_paid, r.remaining_balance, r.payment_type, r.created_at, r.change_marker
+FROM repayment_row_unpartitioned r
+JOIN repayment_snapshot_unpartitioned s ON s.id = r.snapshot_id;
+
+DROP TABLE repayment_row_unpartitioned;
+DROP TABLE repayment_snapshot_unpartitioned;
+
+ALTER TABLE repayment_snapshot ADD CONSTRAINT repayment_snapshot_parent_fkey
+  FOREIGN KEY (parent_snapshot_id, loan_id) REFERENCES repayment_snapshot (id, loan_id);
+ALTER TABLE repayment_row ADD CONSTRAINT repayment_row_snapshot_fkey
+  FOREIGN KEY (snapshot_id, loan_id) REFERENCES repayment_snapshot (id, loan_id) ON DELETE CASCADE;
+ALTER TABLE rate_reset_audit ADD CONSTRAINT rate_reset_audit_snapshot_fkey
+  FOREIGN KEY (snapshot_id, loan_id) REFERENCES repayment_snapshot (id, loan_id);
+
+CREATE INDEX idx_repayment_snapshot_loan_id ON repayment_snapshot(loan_id);
+CREATE INDEX idx_repayment_snapshot_parent ON repayment_snapshot(loan_id, parent_snapshot_id);
+CREATE INDEX idx_repayment_row_loan_snapshot_month ON repayment_row(loan_id, snapshot_id, month_number);
@@ -0,0 +1,2 @@
+-- Keyset pagination of the loan list (newest first, ties broken by id)
+CREATE INDEX idx_loans_created_at_id ON loans(created_at DESC, id DESC);
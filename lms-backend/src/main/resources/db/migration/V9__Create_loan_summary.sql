@@ -0,0 +1,45 @@
+-- One row per loan with the headline figures of its latest snapshot, maintained by RepaymentSnapshotService
+CREATE TABLE loan_summary (
+  loan_id UUID PRIMARY KEY REFERENCES loans(id) ON DELETE CASCADE,
+  snapshot_id UUID NOT NULL,
+  snapshot_version INTEGER NOT NULL,
+  snapshot_date DATE,
+  initial_emi NUMERIC(18,2),
+  apr NUMERIC(10,4),
+  outstanding_principal NUMERIC(18,2),
+  months_remaining INTEGER,
+  total_interest NUMERIC(18,2),
+  total_amount_payable NUMERIC(18,2),
+  updated_at TIMESTAMP DEFAULT now()
+);
+
+-- A summary row always describes a snapshot that still exists; deleting that snapshot drops the row and readers
+-- fall back to the schedule until the next snapshot is written
+ALTER TABLE loan_summary ADD CONSTRAINT loan_summary_snapshot_fkey
+  FOREIGN KEY (snapshot_id, loan_id) REFERENCES repayment_snapshot (id, loan_id) ON DELETE CASCADE;
+
+-- Backfill from the latest snapshot of each loan. Snapshots written before V4 have no statistics, so their
+-- interest is summed from their rows the way the KFS mapping does (interest of rows with a non-zero EMI), and
+-- the initial EMI is their first row's. Snapshots that inherit or blob-encode their rows keep a NULL initial EMI,
+-- which readers recompute from the schedule.
+INSERT INTO loan_summary (loan_id, snapshot_id, snapshot_version, snapshot_date, initial_emi, apr,
+  outstanding_principal, months_remaining, total_interest, total_amount_payable)
+SELECT s.loan_id, s.id, s.version, s.snapshot_date,
+  CASE WHEN s.parent_snapshot_id IS NULL AND s.schedule_blob IS NULL THEN r.first_emi END,
+  s.apr, s.principal_balance, s.months_remaining,
+  COALESCE(s.total_interest - s.capitalised_interest, r.paid_interest),
+  l.principal + COALESCE(s.total_interest - s.capitalised_interest, r.paid_interest)
+FROM (
+  SELECT DISTINCT ON (loan_id) *
+  FROM repayment_snapshot
+  ORDER BY loan_id, version DESC, created_at DESC
+) s
+JOIN loans l ON l.id = s.loan_id
+CROSS JOIN LATERAL (
+  SELECT (ARRAY_AGG(rr.emi ORDER BY rr.month_number, rr.created_at))[1] AS first_emi,
+    COALESCE(SUM(rr.interest_paid) FILTER (WHERE rr.emi > 0), 0) AS paid_interest,
+    COUNT(*) AS row_count
+  FROM repayment_row rr
+  WHERE rr.loan_id = s.loan_id AND rr.snapshot_id = s.id
+) r
+WHERE (s.total_interest IS NOT NULL AND s.capitalised_interest IS NOT NULL) OR r.row_count > 0;
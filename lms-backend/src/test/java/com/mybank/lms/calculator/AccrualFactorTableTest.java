@@ -0,0 +1,28 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccrualFactorTableTest {
+
+    @Test
+    void testMatchesPerDayCompounding() {
+        // Given
+        double balance = 5000000.0;
+        double dailyRate = 8.5 / 366 / 100.0;
+        double expectedInterest = 0;
+        double compounded = balance;
+        for (int d = 0; d < 29; d++) {
+            expectedInterest += compounded * dailyRate;
+            compounded += compounded * dailyRate;
+        }
+
+        // When
+        double interest = AccrualFactorTable.forRate(8.5).accrueInterest(balance, 366, 29);
+
+        // Then
+        assertEquals(expectedInterest, interest, 1e-6);
+        assertEquals(0.0, AccrualFactorTable.forRate(0.0).accrueInterest(balance, 365, 31), 0.0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculationContextTest {
+
+    private LoanInput loanInput;
+
+    @BeforeEach
+    void setUp() {
+        loanInput = new LoanInput();
+        loanInput.setPrincipal(5000000.0);
+        loanInput.setAnnualRate(8.5);
+        loanInput.setMonths(240);
+        loanInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void testReusedOutputMatchesFreshCalculation() {
+        // Given
+        LoanInput monthly = new LoanInput();
+        monthly.setPrincipal(800000.0);
+        monthly.setAnnualRate(10.0);
+        monthly.setMonths(36);
+        monthly.setCompoundingFrequency(LoanInput.CompoundingFrequency.MONTHLY);
+        monthly.setArithmetic(LoanInput.Arithmetic.PAISE);
+        monthly.setLoanIssueDate(LocalDate.of(2024, 1, 25));
+        monthly.setStartDate(LocalDate.of(2024, 2, 1));
+        CalculationContext context = new CalculationContext();
+
+        for (LoanInput input : Arrays.asList(loanInput, monthly, loanInput)) {
+            // When
+            LoanOutput expected = LoanCalculator.calculateLoan(input);
+            LoanOutput reused = LoanCalculator.calculateLoan(input, context);
+
+            // Then
+            assertEquals(expected.getInitialEMI(), reused.getInitialEMI());
+            assertEquals(expected.getTotalInterestPaid(), reused.getTotalInterestPaid());
+            assertEquals(expected.getTotalAmountPaid(), reused.getTotalAmountPaid());
+            assertEquals(expected.getActualTenure(), reused.getScheduleBuffer().size());
+            assertEquals(expected.getStatistics().getTotalPaid(), reused.getStatistics().getTotalPaid());
+            assertEquals(expected.getBrokenPeriodInterest().getDescription(), reused.getBrokenPeriodInterest().getDescription());
+            assertEquals(LoanCalculator.calculateSummary(input).getTotalInterestPaid(),
+                LoanCalculator.calculateSummary(input, context).getTotalInterestPaid());
+        }
+        assertSame(LoanCalculator.calculateLoan(loanInput, context), LoanCalculator.calculateLoan(monthly, context));
+    }
+
+    @Test
+    void testHomeLoanAndBatchCopyResultsOutOfThreadContext() {
+        // Given
+        LoanInput phased = new LoanInput();
+        phased.setPrincipal(5000000.0);
+        phased.setAnnualRate(8.5);
+        phased.setMonths(240);
+        phased.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        phased.setStartDate(LocalDate.of(2024, 2, 1));
+        phased.setDisbursementPhases(new ArrayList<>(Arrays.asList(
+            new LoanInput.DisbursementPhase(LocalDate.of(2024, 2, 10), 3000000.0, "Booking"),
+            new LoanInput.DisbursementPhase(LocalDate.of(2024, 5, 10), 2000000.0, "Slab"))));
+        LoanOutput expected = HomeLoan.calculateHomeLoan(phased);
+
+        // When
+        LoanOutput reused = HomeLoan.calculateHomeLoan(phased, new CalculationContext());
+        LoanOutput batched = LoanBatchCalculator.calculateLoans(Collections.singletonList(phased)).getOutput(0);
+        LoanOutput overwritten = LoanCalculator.calculateLoan(loanInput, CalculationContext.current());
+
+        // Then
+        assertEquals(expected.getTotalInterestPaid(), reused.getTotalInterestPaid());
+        assertEquals(expected.getActualTenure(), reused.getScheduleBuffer().size());
+        assertEquals(expected.getDisbursementSchedule().size(), reused.getDisbursementSchedule().size());
+        assertNotSame(overwritten, batched);
+        assertEquals(expected.getTotalInterestPaid(), batched.getTotalInterestPaid());
+        assertEquals(expected.getActualTenure(), batched.getScheduleBuffer().size());
+        assertEquals(expected.getStatistics().getTotalPaid(), batched.getStatistics().getTotalPaid());
+    }
+}
@@ -0,0 +1,28 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarTableTest {
+
+    @Test
+    void testMatchesPlusMonths() {
+        // Given
+        LocalDate date = LocalDate.of(2147, 1, 31);
+        int monthOrdinal = CalendarTable.monthOrdinal(date);
+        int dayOfMonth = date.getDayOfMonth();
+
+        // When / Then - walks past the end of the table into the computed range
+        for (int i = 0; i < 60; i++) {
+            assertEquals(date.toEpochDay(), CalendarTable.epochDay(monthOrdinal, dayOfMonth));
+            assertEquals(date.lengthOfMonth(), CalendarTable.lengthOfMonth(monthOrdinal));
+            assertEquals(date.lengthOfYear(), CalendarTable.lengthOfYear(monthOrdinal));
+            date = date.plusMonths(1);
+            monthOrdinal++;
+            dayOfMonth = CalendarTable.nextDayOfMonth(monthOrdinal, dayOfMonth);
+        }
+    }
+}
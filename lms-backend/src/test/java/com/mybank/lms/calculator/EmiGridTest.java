@@ -0,0 +1,48 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmiGridTest {
+
+    private LoanInput loanInput;
+
+    @BeforeEach
+    void setUp() {
+        loanInput = new LoanInput();
+        loanInput.setPrincipal(5000000.0);
+        loanInput.setAnnualRate(8.5);
+        loanInput.setMonths(240);
+        loanInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void testMatchesCalculatorEmiPerCell() {
+        // Given
+        double[] rates = {6.5, 8.5, 12.0};
+        int[] tenures = {12, 60, 240};
+
+        for (LoanInput.CompoundingFrequency compounding : LoanInput.CompoundingFrequency.values()) {
+            // When
+            EmiGrid grid = EmiGrid.calculate(5000000.0, rates, tenures, compounding, LocalDate.of(2024, 2, 1),
+                ForkJoinPool.commonPool());
+
+            // Then
+            for (int r = 0; r < rates.length; r++) {
+                for (int t = 0; t < tenures.length; t++) {
+                    loanInput.setAnnualRate(rates[r]);
+                    loanInput.setMonths(tenures[t]);
+                    loanInput.setCompoundingFrequency(compounding);
+                    assertEquals(LoanCalculator.calculateSummary(loanInput).getInitialEMI(), grid.getEmi(r, t), 0.0001);
+                }
+            }
+        }
+    }
+}
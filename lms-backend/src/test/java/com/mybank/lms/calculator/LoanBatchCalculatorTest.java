@@ -0,0 +1,52 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanBatchCalculatorTest {
+
+    @Test
+    void testCalculateLoans_KeepsOrderAndIsolatesFailures() {
+        // Given
+        List<LoanInput> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LoanInput input = new LoanInput();
+            input.setPrincipal(1000000.0 + i * 10000.0);
+            input.setAnnualRate(8.5);
+            input.setMonths(120);
+            input.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+            input.setStartDate(LocalDate.of(2024, 2, 1));
+            inputs.add(input);
+        }
+        inputs.get(7).addMoratoriumPeriod(1, 3, null, 0);
+
+        // When
+        ForkJoinPool pool = new ForkJoinPool(4);
+        LoanBatchCalculator.BatchResult result;
+        try {
+            result = LoanBatchCalculator.calculateLoans(inputs, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Then
+        assertEquals(20, result.size());
+        assertEquals(1, result.getFailureCount());
+        assertFalse(result.isSuccess(7));
+        assertNotNull(result.getFailure(7));
+        for (int i = 0; i < 20; i++) {
+            if (i == 7) {
+                continue;
+            }
+            LoanOutput expected = LoanCalculator.calculateLoan(inputs.get(i));
+            assertEquals(expected.getInitialEMI(), result.getOutput(i).getInitialEMI(), 1e-9);
+        }
+        assertTrue(result.getLoansPerSecond() > 0);
+    }
+}
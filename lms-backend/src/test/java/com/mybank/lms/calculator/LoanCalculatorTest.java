@@ -4,7 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -147,4 +150,156 @@ class LoanCalculatorTest {
             assertEquals(0.0, payment.getInterestPaid(), 0.01);
         }
     }
+
+    @Test
+    void testSolveMonthlyEMI_NewtonMatchesBisection() {
+        // Given
+        loanInput.setMoratoriumMonths(6);
+        loanInput.setMoratoriumType(LoanInput.MoratoriumType.INTEREST_ONLY);
+
+        // When
+        loanInput.setEmiSolver(LoanInput.EmiSolver.BISECTION);
+        LoanCalculator.EmiSolution bisection = LoanCalculator.solveMonthlyEMI(loanInput);
+        loanInput.setEmiSolver(LoanInput.EmiSolver.NEWTON);
+        LoanCalculator.EmiSolution newton = LoanCalculator.solveMonthlyEMI(loanInput);
+        loanInput.setWarmStartEMI(bisection.getEmi() * 1.1);
+        LoanCalculator.EmiSolution warmStarted = LoanCalculator.solveMonthlyEMI(loanInput);
+
+        // Then
+        assertEquals(bisection.getEmi(), newton.getEmi(), 0.01);
+        assertEquals(newton.getEmi(), warmStarted.getEmi(), 0.001);
+        assertTrue(newton.getIterations() <= 2);
+        assertTrue(bisection.getIterations() > newton.getIterations());
+    }
+
+    @Test
+    void testCalculateFromCheckpoint_ResumesFullSchedule() {
+        // Given
+        loanInput.setLoanIssueDate(loanInput.getStartDate());
+        loanInput.addMoratoriumPeriod(200, 205, LoanInput.MoratoriumType.INTEREST_ONLY, 0);
+        LoanOutput full = LoanCalculator.calculateLoan(loanInput);
+        ScheduleCheckpoint checkpoint = ScheduleCheckpoint.fromSchedule(full.getScheduleBuffer(), 180, full.getInitialEMI());
+
+        // When
+        LoanOutput resumed = LoanCalculator.calculateFromCheckpoint(loanInput, checkpoint);
+
+        // Then
+        assertEquals(full.getPaymentSchedule().size(), resumed.getPaymentSchedule().size());
+        for (int i = 0; i < full.getPaymentSchedule().size(); i++) {
+            LoanOutput.MonthlyPayment expected = full.getPaymentSchedule().get(i);
+            LoanOutput.MonthlyPayment actual = resumed.getPaymentSchedule().get(i);
+            assertEquals(expected.getPaymentDate(), actual.getPaymentDate());
+            assertEquals(expected.getPaymentType(), actual.getPaymentType());
+            assertEquals(expected.getRemainingBalance(), actual.getRemainingBalance(), 1e-6);
+        }
+        assertEquals(full.getTotalInterestPaid(), resumed.getTotalInterestPaid(), 1e-6);
+        assertEquals(full.getActualTenure(), resumed.getActualTenure());
+        assertEquals(0, resumed.getEmiSolverIterations());
+    }
+
+    @Test
+    void testCalculateSummary_MatchesFullCalculation() {
+        // Given
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 20));
+        loanInput.setMoratoriumMonths(6);
+        loanInput.setMoratoriumType(LoanInput.MoratoriumType.PARTIAL);
+        loanInput.setPartialPaymentEMIDuringMoratorium(20000.0);
+        LoanOutput full = LoanCalculator.calculateLoan(loanInput);
+
+        // When
+        LoanSummary summary = LoanCalculator.calculateSummary(loanInput);
+
+        // Then
+        assertTrue(summary.getBrokenPeriodInterest().isAddedToFirstEMI());
+        assertEquals(full.getInitialEMI(), summary.getInitialEMI(), 0.0);
+        assertEquals(full.getTotalInterestPaid(), summary.getTotalInterestPaid(), 0.0);
+        assertEquals(full.getTotalAmountPaid(), summary.getTotalAmountPaid(), 0.0);
+        assertEquals(full.getActualTenure(), summary.getActualTenure());
+        assertEquals(full.getEmiSolverIterations(), summary.getEmiSolverIterations());
+    }
+
+    @Test
+    void testOpenSchedule_StreamsSameRowsAsCalculateLoan() {
+        // Given
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 25));
+        loanInput.addMoratoriumPeriod(10, 12, LoanInput.MoratoriumType.FULL, 0);
+        LoanOutput full = LoanCalculator.calculateLoan(loanInput);
+
+        // When
+        Iterator<LoanOutput.MonthlyPayment> rows = LoanCalculator.openSchedule(loanInput, new CalculationContext()).iterator();
+
+        // Then
+        for (LoanOutput.MonthlyPayment expected : full.getPaymentSchedule()) {
+            assertTrue(rows.hasNext());
+            LoanOutput.MonthlyPayment actual = rows.next();
+            assertEquals(expected.getMonthNumber(), actual.getMonthNumber());
+            assertEquals(expected.getPaymentDate(), actual.getPaymentDate());
+            assertEquals(expected.getPaymentType(), actual.getPaymentType());
+            assertEquals(expected.getEmi(), actual.getEmi(), 0.0);
+            assertEquals(expected.getRemainingBalance(), actual.getRemainingBalance(), 0.0);
+        }
+        assertFalse(rows.hasNext());
+        ScheduleCursor cursor = LoanCalculator.openSchedule(loanInput, new CalculationContext());
+        assertEquals(full.getPaymentSchedule().size(), StreamSupport.stream(cursor.spliterator(), false).count());
+        assertEquals("NORMAL_WITH_BPI", full.getPaymentSchedule().get(0).getPaymentType());
+    }
+
+    @Test
+    void testCalculateLoan_PaiseArithmeticIsExact() {
+        // Given
+        loanInput.setArithmetic(LoanInput.Arithmetic.PAISE);
+        loanInput.setMoratoriumMonths(6);
+        loanInput.setMoratoriumType(LoanInput.MoratoriumType.PARTIAL);
+        loanInput.setPartialPaymentEMIDuringMoratorium(20000.0);
+
+        // When
+        LoanOutput output = LoanCalculator.calculateLoan(loanInput);
+
+        // Then
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        long principalRepaid = 0;
+        long interest = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            long emi = Paise.round(schedule.getEmi(i));
+            assertEquals(Paise.toRupees(emi), schedule.getEmi(i), 0.0);
+            assertEquals(emi, Paise.round(schedule.getPrincipalPaid(i)) + Paise.round(schedule.getInterestPaid(i)));
+            principalRepaid += Paise.round(schedule.getPrincipalPaid(i));
+            interest += Paise.round(schedule.getInterestPaid(i));
+        }
+        assertEquals(Paise.round(loanInput.getPrincipal()), principalRepaid);
+        assertEquals(0.0, schedule.getRemainingBalance(schedule.size() - 1), 0.0);
+        assertEquals(Paise.toRupees(interest), output.getTotalInterestPaid(), 0.0);
+        assertEquals(240, output.getActualTenure());
+    }
+
+    @Test
+    void testCalculateHomeLoan_SortsPhasesWithoutMutatingInput() {
+        // Given
+        LoanInput.DisbursementPhase second = new LoanInput.DisbursementPhase(LocalDate.of(2024, 5, 10), 2000000.0, "Slab");
+        LoanInput.DisbursementPhase first = new LoanInput.DisbursementPhase(LocalDate.of(2024, 2, 10), 3000000.0, "Booking");
+        loanInput.setDisbursementPhases(new ArrayList<>(Arrays.asList(second, first)));
+        LoanInput sortedInput = new LoanInput();
+        sortedInput.setPrincipal(5000000.0);
+        sortedInput.setAnnualRate(8.5);
+        sortedInput.setMonths(240);
+        sortedInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        sortedInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        sortedInput.setStartDate(LocalDate.of(2024, 2, 1));
+        sortedInput.setDisbursementPhases(new ArrayList<>(Arrays.asList(first, second)));
+
+        // When
+        LoanOutput output = HomeLoan.calculateHomeLoan(loanInput);
+        LoanOutput expected = HomeLoan.calculateHomeLoan(sortedInput);
+
+        // Then
+        assertSame(second, loanInput.getDisbursementPhases().get(0));
+        assertEquals(expected.getTotalInterestPaid(), output.getTotalInterestPaid(), 0.0);
+        assertEquals(expected.getActualTenure(), output.getActualTenure());
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        for (int i = 0; i < schedule.size(); i++) {
+            assertEquals(i + 1, schedule.getMonthNumber(i));
+        }
+        assertEquals("PRE_EMI", output.getPaymentSchedule().get(0).getPaymentType());
+        assertEquals(0.0, schedule.getRemainingBalance(schedule.size() - 1), 0.01);
+    }
 }
@@ -0,0 +1,55 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanResultCacheTest {
+
+    private LoanInput loanInput;
+
+    @BeforeEach
+    void setUp() {
+        loanInput = new LoanInput();
+        loanInput.setPrincipal(5000000.0);
+        loanInput.setAnnualRate(8.5);
+        loanInput.setMonths(240);
+        loanInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void testHitsOnEqualInputAndEvictsLeastRecentlyUsed() {
+        // Given
+        LoanResultCache cache = new LoanResultCache(3, 500);
+        LoanInput sameTerms = new LoanInput();
+        sameTerms.setPrincipal(loanInput.getPrincipal());
+        sameTerms.setAnnualRate(loanInput.getAnnualRate());
+        sameTerms.setMonths(loanInput.getMonths());
+        sameTerms.setLoanIssueDate(loanInput.getLoanIssueDate());
+        sameTerms.setStartDate(loanInput.getStartDate());
+
+        // When
+        LoanOutput first = cache.calculateLoan(loanInput);
+        first.getScheduleBuffer().clear();
+        LoanOutput second = cache.calculateLoan(sameTerms);
+        loanInput.setAnnualRate(9.0);
+        cache.calculateLoan(loanInput);
+        loanInput.setAnnualRate(9.5);
+        cache.calculateLoan(loanInput);
+
+        // Then
+        assertEquals(240, second.getPaymentSchedule().size());
+        assertEquals(LoanCalculator.calculateLoan(sameTerms).getTotalInterestPaid(), second.getTotalInterestPaid(), 0.0);
+        LoanResultCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getEntries());
+        assertEquals(480, stats.getWeight());
+    }
+}
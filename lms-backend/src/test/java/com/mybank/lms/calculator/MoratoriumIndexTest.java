@@ -0,0 +1,97 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoratoriumIndexTest {
+
+    private LoanInput loanInput;
+
+    @BeforeEach
+    void setUp() {
+        loanInput = new LoanInput();
+        loanInput.setPrincipal(5000000.0);
+        loanInput.setAnnualRate(8.5);
+        loanInput.setMonths(240);
+        loanInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void testPeriodsTakePrecedenceOverLegacyMonths() {
+        // Given
+        loanInput.setMoratoriumMonths(4);
+        loanInput.setMoratoriumType(LoanInput.MoratoriumType.PARTIAL);
+        loanInput.setPartialPaymentEMIDuringMoratorium(9000.0);
+        loanInput.addMoratoriumPeriod(2, 8, LoanInput.MoratoriumType.INTEREST_ONLY, 0);
+        loanInput.addMoratoriumPeriod(5, 12, LoanInput.MoratoriumType.PARTIAL, 15000.0);
+
+        // When
+        MoratoriumIndex index = loanInput.getMoratoriumIndex();
+
+        // Then
+        for (int month = 1; month <= 14; month++) {
+            LoanInput.MoratoriumPeriod period = loanInput.getMoratoriumPeriodForMonth(month);
+            LoanInput.MoratoriumType expected = period != null ? period.getType()
+                : month <= loanInput.getMoratoriumMonths() ? loanInput.getMoratoriumType() : null;
+            assertEquals(expected, index.typeForMonth(month), "month " + month);
+        }
+        assertEquals(9000.0, index.partialPaymentForMonth(1), 0.0);
+        assertEquals(15000.0, index.partialPaymentForMonth(10), 0.0);
+        assertEquals(12, index.getLastMonth());
+
+        // Mutating a period recompiles the index
+        loanInput.getMoratoriumPeriods().get(1).setEndMonth(20);
+        assertEquals(LoanInput.MoratoriumType.PARTIAL, loanInput.getMoratoriumIndex().typeForMonth(20));
+    }
+
+    @Test
+    void testLegacyMonthsWithoutTypeNeedCoveringPeriods() {
+        // Given: the legacy months are all inside periods, so their missing type is never used
+        loanInput.setMoratoriumMonths(6);
+        loanInput.setMoratoriumType(null);
+        loanInput.addMoratoriumPeriod(1, 3, LoanInput.MoratoriumType.FULL, 0);
+        loanInput.addMoratoriumPeriod(4, 6, LoanInput.MoratoriumType.INTEREST_ONLY, 0);
+
+        // When
+        MoratoriumIndex index = loanInput.getMoratoriumIndex();
+
+        // Then
+        assertEquals(LoanInput.MoratoriumType.FULL, index.typeForMonth(3));
+        assertEquals(LoanInput.MoratoriumType.INTEREST_ONLY, index.typeForMonth(6));
+        assertNull(index.typeForMonth(7));
+
+        // One uncovered month is an error
+        loanInput.setMoratoriumMonths(7);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, loanInput::getMoratoriumIndex);
+        assertEquals("Moratorium of 7 months has no type for month 7", e.getMessage());
+    }
+
+    @Test
+    void testMonthsPastTheTenureAreDropped() {
+        // Given
+        loanInput.setMonths(24);
+        loanInput.setMoratoriumMonths(30);
+        loanInput.setMoratoriumType(LoanInput.MoratoriumType.INTEREST_ONLY);
+        loanInput.addMoratoriumPeriod(20, Integer.MAX_VALUE, LoanInput.MoratoriumType.FULL, 0);
+
+        // When
+        MoratoriumIndex index = loanInput.getMoratoriumIndex();
+
+        // Then
+        assertEquals(24, index.getLastMonth());
+        assertEquals(LoanInput.MoratoriumType.INTEREST_ONLY, index.typeForMonth(19));
+        assertEquals(LoanInput.MoratoriumType.FULL, index.typeForMonth(24));
+        assertNull(index.typeForMonth(25));
+
+        // A longer tenure recompiles the index
+        loanInput.setMonths(36);
+        assertEquals(36, loanInput.getMoratoriumIndex().getLastMonth());
+        assertEquals(LoanInput.MoratoriumType.FULL, loanInput.getMoratoriumIndex().typeForMonth(36));
+    }
+}
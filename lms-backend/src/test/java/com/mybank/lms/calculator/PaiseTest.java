@@ -0,0 +1,55 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaiseTest {
+
+    @Test
+    void testRoundDecimal_TiesRoundLikeNumeric() {
+        // Then: decimal ties that sit just below the half paisa in binary
+        assertEquals(100, Paise.round(1.005));
+        assertEquals(101, Paise.roundDecimal(1.005));
+        assertEquals(101, Paise.round(1.015));
+        assertEquals(102, Paise.roundDecimal(1.015));
+        assertEquals(new BigDecimal("2.68"), Paise.toBigDecimal(2.675));
+        assertEquals(new BigDecimal("1.01"), Paise.toBigDecimal(1.005));
+        assertEquals(new BigDecimal("-2.68"), Paise.toBigDecimal(-2.675));
+        assertEquals(new BigDecimal("123456.79"), Paise.toBigDecimal(123456.785));
+        // Exact binary tie, and values either side of a tie
+        assertEquals(new BigDecimal("0.13"), Paise.toBigDecimal(0.125));
+        assertEquals(new BigDecimal("2.67"), Paise.toBigDecimal(2.6749));
+        assertEquals(new BigDecimal("2.68"), Paise.toBigDecimal(2.6751));
+        assertEquals(new BigDecimal("0.00"), Paise.toBigDecimal(0.0));
+    }
+
+    @Test
+    void testRoundDecimal_MatchesBigDecimalHalfUp() {
+        // Given
+        Random random = new Random(42);
+
+        // Then: random amounts, and amounts that end in a half paisa
+        for (int i = 0; i < 100000; i++) {
+            double amount = (random.nextDouble() - 0.2) * Math.pow(10, random.nextInt(10));
+            double tie = (random.nextInt(2000000000) * 10L + 5) / 1000.0;
+            for (double rupees : new double[] {amount, tie, -tie}) {
+                BigDecimal expected = BigDecimal.valueOf(rupees).setScale(2, RoundingMode.HALF_UP);
+                assertEquals(expected, Paise.toBigDecimal(rupees), () -> Double.toString(rupees));
+            }
+        }
+    }
+
+    @Test
+    void testWholePaiseSurviveTheRoundTrip() {
+        // Then
+        for (long paise = -100000; paise <= 100000; paise += 7) {
+            assertEquals(paise, Paise.round(Paise.toRupees(paise)));
+            assertEquals(paise, Paise.roundDecimal(Paise.toRupees(paise)));
+        }
+    }
+}
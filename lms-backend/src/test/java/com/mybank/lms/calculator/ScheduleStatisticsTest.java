@@ -0,0 +1,51 @@
+package com.mybank.lms.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleStatisticsTest {
+
+    private LoanInput loanInput;
+
+    @BeforeEach
+    void setUp() {
+        loanInput = new LoanInput();
+        loanInput.setPrincipal(5000000.0);
+        loanInput.setAnnualRate(8.5);
+        loanInput.setMonths(240);
+        loanInput.setCompoundingFrequency(LoanInput.CompoundingFrequency.DAILY);
+        loanInput.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void testAccumulatedWhileCalculating() {
+        // Given
+        loanInput.addMoratoriumPeriod(10, 12, LoanInput.MoratoriumType.INTEREST_ONLY, 0);
+
+        // When
+        LoanOutput output = LoanCalculator.calculateLoan(loanInput);
+        ScheduleStatistics statistics = output.getStatistics();
+
+        // Then
+        ScheduleBuffer schedule = output.getScheduleBuffer();
+        long interest = 0;
+        long principal = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            interest += Paise.roundDecimal(schedule.getInterestPaid(i));
+            principal += Paise.roundDecimal(schedule.getPrincipalPaid(i));
+        }
+        assertEquals(schedule.size(), statistics.getRowCount());
+        assertEquals(interest, statistics.getTotalInterest());
+        assertEquals(principal, statistics.getTotalPrincipal());
+        assertEquals(3, statistics.getMoratoriumMonths());
+        assertEquals(Paise.roundDecimal(schedule.getEmi(schedule.size() - 1)), statistics.getLastEmi());
+        assertEquals(0, statistics.getMinBalance());
+        assertEquals(Paise.roundDecimal(schedule.getRemainingBalance(0)), statistics.getMaxBalance());
+        assertEquals(ScheduleStatistics.of(schedule).getTotalPaid(), statistics.getTotalPaid());
+    }
+}
@@ -0,0 +1,158 @@
+package com.mybank.lms.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database holding pre-V4 snapshots (no schedule statistics) to the latest schema and checks the
+ * loan_summary backfill
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LoanSummaryMigrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("lms_migration_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    private final UUID loanWithRows = UUID.randomUUID();
+    private final UUID loanWithoutRows = UUID.randomUUID();
+    private final UUID firstSnapshot = UUID.randomUUID();
+    private final UUID latestSnapshot = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        flyway("3").clean();
+        flyway("3").migrate();
+
+        try (Connection connection = connect()) {
+            insertLoan(connection, loanWithRows);
+            insertLoan(connection, loanWithoutRows);
+            insertSnapshot(connection, firstSnapshot, loanWithRows, 1, "2024-01-01 10:00");
+            insertSnapshot(connection, latestSnapshot, loanWithRows, 2, "2024-06-01 10:00");
+            insertSnapshot(connection, UUID.randomUUID(), loanWithoutRows, 1, "2024-01-01 10:00");
+            insertRow(connection, firstSnapshot, 1, "9999.00", "1.00");
+            insertRow(connection, latestSnapshot, 1, "43391.00", "35416.67");
+            insertRow(connection, latestSnapshot, 2, "43391.00", "35360.25");
+            // A moratorium month (no EMI), whose interest is capitalised rather than paid
+            insertRow(connection, latestSnapshot, 3, "0.00", "50.00");
+        }
+    }
+
+    @Test
+    void testPreStatisticsSnapshotsAreSummarisedFromTheirRows() throws SQLException {
+        // When
+        flyway(null).migrate();
+
+        // Then
+        try (Connection connection = connect();
+             PreparedStatement query = connection.prepareStatement(
+                 "SELECT snapshot_id, snapshot_version, initial_emi, outstanding_principal, months_remaining, "
+                     + "total_interest, total_amount_payable FROM loan_summary WHERE loan_id = ?")) {
+            query.setObject(1, loanWithRows);
+            try (ResultSet summary = query.executeQuery()) {
+                assertTrue(summary.next());
+                assertEquals(latestSnapshot, summary.getObject("snapshot_id"));
+                assertEquals(2, summary.getInt("snapshot_version"));
+                assertEquals(new BigDecimal("43391.00"), summary.getBigDecimal("initial_emi"));
+                assertEquals(new BigDecimal("4930000.00"), summary.getBigDecimal("outstanding_principal"));
+                assertEquals(238, summary.getInt("months_remaining"));
+                assertEquals(new BigDecimal("70776.92"), summary.getBigDecimal("total_interest"));
+                assertEquals(new BigDecimal("5070776.92"), summary.getBigDecimal("total_amount_payable"));
+            }
+
+            // Nothing to summarise for a snapshot without rows or statistics
+            query.setObject(1, loanWithoutRows);
+            try (ResultSet summary = query.executeQuery()) {
+                assertFalse(summary.next());
+            }
+        }
+    }
+
+    @Test
+    void testSummaryRowGoesWithItsSnapshot() throws SQLException {
+        // Given
+        flyway(null).migrate();
+
+        // When
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE loans SET current_snapshot_id = '" + firstSnapshot
+                + "', current_snapshot_version = 1 WHERE id = '" + loanWithRows + "'");
+            statement.executeUpdate("DELETE FROM repayment_snapshot WHERE id = '" + latestSnapshot + "'");
+
+            // Then
+            try (ResultSet count = statement.executeQuery(
+                    "SELECT COUNT(*) FROM loan_summary WHERE loan_id = '" + loanWithRows + "'")) {
+                count.next();
+                assertEquals(0, count.getInt(1));
+            }
+        }
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+            .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+            .cleanDisabled(false);
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static void insertLoan(Connection connection, UUID loanId) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO loans (id, product_type, principal, annual_rate, rate_type, months) "
+                    + "VALUES (?, 'HOME_LOAN', 5000000.00, 8.5, 'FIXED', 240)")) {
+            insert.setObject(1, loanId);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void insertSnapshot(Connection connection, UUID snapshotId, UUID loanId, int version,
+                                       String createdAt) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO repayment_snapshot (id, loan_id, snapshot_date, principal_balance, months_remaining, "
+                    + "annual_rate, rate_type, apr, version, created_at) "
+                    + "VALUES (?, ?, DATE '2024-01-01', 4930000.00, 238, 8.5, 'FIXED', 8.9, ?, "
+                    + "CAST(? AS TIMESTAMP))")) {
+            insert.setObject(1, snapshotId);
+            insert.setObject(2, loanId);
+            insert.setInt(3, version);
+            insert.setString(4, createdAt);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void insertRow(Connection connection, UUID snapshotId, int month, String emi, String interest)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO repayment_row (snapshot_id, month_number, emi, principal_paid, interest_paid, "
+                    + "remaining_balance, payment_type) VALUES (?, ?, ?, 0, ?, 4930000.00, 'NORMAL')")) {
+            insert.setObject(1, snapshotId);
+            insert.setInt(2, month);
+            insert.setBigDecimal(3, new BigDecimal(emi));
+            insert.setBigDecimal(4, new BigDecimal(interest));
+            insert.executeUpdate();
+        }
+    }
+}
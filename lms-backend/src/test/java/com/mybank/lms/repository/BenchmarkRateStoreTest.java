@@ -0,0 +1,109 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.model.entity.BenchmarkHistoryEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BenchmarkRateStoreTest {
+
+    @Mock
+    private BenchmarkHistoryRepository benchmarkRepository;
+
+    @InjectMocks
+    private BenchmarkRateStore rateStore;
+
+    private List<BenchmarkHistoryEntity> rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = new ArrayList<>();
+        rows.add(rate("REPO", LocalDate.of(2024, 1, 1), "6.5000", 0));
+        rows.add(rate("REPO", LocalDate.of(2024, 4, 1), "6.2500", 0));
+        rows.add(rate("REPO", LocalDate.of(2024, 7, 1), "6.0000", 0));
+        rows.add(rate("MCLR", LocalDate.of(2024, 2, 15), "8.7500", 0));
+    }
+
+    @Test
+    void testAsOfLookupAtBoundaryDates() {
+        // Given
+        when(benchmarkRepository.findAll()).thenReturn(rows);
+
+        // Then
+        assertTrue(rateStore.findLatestByBenchmarkNameAndDate("REPO", LocalDate.of(2023, 12, 31)).isEmpty());
+        assertEquals(new BigDecimal("6.5000"), rateOn("REPO", LocalDate.of(2024, 1, 1)));
+        assertEquals(new BigDecimal("6.5000"), rateOn("REPO", LocalDate.of(2024, 3, 31)));
+        assertEquals(new BigDecimal("6.2500"), rateOn("REPO", LocalDate.of(2024, 4, 1)));
+        assertEquals(new BigDecimal("6.2500"), rateOn("REPO", LocalDate.of(2024, 6, 30)));
+        assertEquals(new BigDecimal("6.0000"), rateOn("REPO", LocalDate.of(2024, 7, 1)));
+        assertEquals(new BigDecimal("6.0000"), rateOn("REPO", LocalDate.of(2030, 1, 1)));
+        assertEquals(new BigDecimal("8.7500"), rateOn("MCLR", LocalDate.of(2024, 2, 15)));
+        assertTrue(rateStore.findLatestByBenchmarkNameAndDate("MCLR", LocalDate.of(2024, 2, 14)).isEmpty());
+        assertTrue(rateStore.findLatestByBenchmarkNameAndDate("TBILL", LocalDate.of(2024, 2, 14)).isEmpty());
+        assertEquals(LocalDate.of(2024, 7, 1), rateStore.findLatestByBenchmarkName("REPO").get().getBenchmarkDate());
+        verify(benchmarkRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testLaterCreatedRateWinsOnSameDate() {
+        // Given
+        rows.add(rate("REPO", LocalDate.of(2024, 4, 1), "6.3000", 5));
+        rows.add(rate("REPO", LocalDate.of(2024, 4, 1), "6.1000", -5));
+        when(benchmarkRepository.findAll()).thenReturn(rows);
+
+        // Then
+        assertEquals(new BigDecimal("6.3000"), rateOn("REPO", LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void testAddedRatesAreCopiedAndReloadPicksUpOtherWrites() {
+        // Given
+        when(benchmarkRepository.findAll()).thenReturn(rows);
+        rateStore.findLatestByBenchmarkName("REPO");
+        BenchmarkHistoryEntity added = rate("REPO", LocalDate.of(2024, 10, 1), "5.7500", 0);
+
+        // When
+        rateStore.addAfterCommit(added);
+        added.setBenchmarkRate(new BigDecimal("9.9900"));
+        BigDecimal afterAdd = rateOn("REPO", LocalDate.of(2024, 10, 1));
+        rows.add(rate("MCLR", LocalDate.of(2024, 8, 15), "8.5000", 0));
+        int loaded = rateStore.reload();
+
+        // Then
+        assertEquals(new BigDecimal("5.7500"), afterAdd);
+        assertEquals(5, loaded);
+        assertEquals(new BigDecimal("8.5000"), rateOn("MCLR", LocalDate.of(2024, 9, 1)));
+        assertEquals(new BigDecimal("6.0000"), rateOn("REPO", LocalDate.of(2024, 10, 1)));
+    }
+
+    private BigDecimal rateOn(String benchmarkName, LocalDate date) {
+        Optional<BenchmarkRateStore.Rate> rate = rateStore.findLatestByBenchmarkNameAndDate(benchmarkName, date);
+        assertTrue(rate.isPresent());
+        return rate.get().getBenchmarkRate();
+    }
+
+    private static BenchmarkHistoryEntity rate(String name, LocalDate date, String rate, int createdMinutes) {
+        BenchmarkHistoryEntity entity = new BenchmarkHistoryEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setBenchmarkName(name);
+        entity.setBenchmarkDate(date);
+        entity.setBenchmarkRate(new BigDecimal(rate));
+        entity.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(createdMinutes));
+        return entity;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mybank.lms.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepaymentRowBatchTest {
+
+    @Test
+    void testInheritablePrefix_StopsAtFirstDifferentRow() {
+        // Given
+        RepaymentRowBatch parent = rows(new int[] {1, 2, 3, 4}, "NORMAL");
+        RepaymentRowBatch child = rows(new int[] {1, 2, 3, 4}, "NORMAL");
+        child.add(5, 19900, 100L, 50L, 50L, 0L, "NORMAL");
+        RepaymentRowBatch changed = rows(new int[] {1, 2}, "NORMAL");
+        changed.add(3, 19845, 999L, 50L, 50L, 0L, "NORMAL");
+
+        // Then
+        assertEquals(4, child.inheritablePrefix(parent));
+        assertEquals(2, changed.inheritablePrefix(parent));
+        assertEquals(0, new RepaymentRowBatch().inheritablePrefix(parent));
+        assertEquals(0, child.inheritablePrefix(new RepaymentRowBatch()));
+    }
+
+    @Test
+    void testInheritablePrefix_NeedsOnePaymentType() {
+        // Given
+        RepaymentRowBatch parent = rows(new int[] {1, 2, 3}, "PAID");
+        RepaymentRowBatch child = rows(new int[] {1, 2}, "PAID");
+        child.add(3, parent.getEpochDay(2), parent.getEmi(2), parent.getPrincipalPaid(2), parent.getInterestPaid(2),
+            parent.getRemainingBalance(2), "NORMAL");
+
+        // Then
+        assertEquals(2, child.inheritablePrefix(parent));
+    }
+
+    @Test
+    void testInheritablePrefix_DoesNotSplitAMonth() {
+        // Given: the parent has a second row for month 2, and the child repeats a month after its prefix
+        RepaymentRowBatch parent = rows(new int[] {1, 2, 2, 3}, "NORMAL");
+        RepaymentRowBatch child = rows(new int[] {1, 2}, "NORMAL");
+        RepaymentRowBatch revisits = rows(new int[] {1, 2, 3}, "NORMAL");
+        revisits.add(2, 19800, 0L, 0L, 0L, 0L, "MODIFICATION");
+
+        // Then
+        assertEquals(1, child.inheritablePrefix(parent));
+        assertEquals(1, revisits.inheritablePrefix(rows(new int[] {1, 2, 3}, "NORMAL")));
+    }
+
+    // One row per month, with amounts derived from the month so equal months give equal rows
+    private static RepaymentRowBatch rows(int[] months, String type) {
+        RepaymentRowBatch rows = new RepaymentRowBatch();
+        for (int month : months) {
+            rows.add(month, 19723 + month * 30, 10000L, 6000L + month, 4000L - month, 100000L - month * 6000L, type);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.calculator.ScheduleBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class RepaymentRowWriterTest {
+
+    private ByteArrayOutputStream written;
+    private RepaymentRowWriter.CopyBuffer buffer;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        written = new ByteArrayOutputStream();
+        CopyIn copyIn = mock(CopyIn.class);
+        doAnswer(invocation -> {
+            written.write(invocation.<byte[]>getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        buffer = new RepaymentRowWriter.CopyBuffer(copyIn);
+    }
+
+    @Test
+    void testPutAmount_SignsPaddingAndLargeValues() throws SQLException {
+        // When
+        for (long paise : new long[] {0L, 5L, -5L, 100L, -1234567L, 4339100L, Long.MAX_VALUE, -Long.MAX_VALUE}) {
+            buffer.putAmount(paise);
+            buffer.tab();
+        }
+
+        // Then
+        assertEquals("0.00\t0.05\t-0.05\t1.00\t-12345.67\t43391.00\t92233720368547758.07\t-92233720368547758.07\t",
+            flushed());
+    }
+
+    @Test
+    void testNullMarkers() throws SQLException {
+        // When
+        buffer.putAmount(RepaymentRowBatch.NO_AMOUNT);
+        buffer.tab();
+        buffer.putDate(ScheduleBuffer.NO_DATE);
+        buffer.tab();
+        buffer.putText(null);
+
+        // Then
+        assertEquals("\\N\t\\N\t\\N", flushed());
+    }
+
+    @Test
+    void testPutDate_PadsToIsoFormat() throws SQLException {
+        // When
+        buffer.putDate((int) LocalDate.of(2024, 2, 1).toEpochDay());
+        buffer.tab();
+        buffer.putDate((int) LocalDate.of(999, 12, 31).toEpochDay());
+        buffer.tab();
+        buffer.putDate((int) LocalDate.of(1970, 1, 1).toEpochDay());
+
+        // Then
+        assertEquals("2024-02-01\t0999-12-31\t1970-01-01", flushed());
+    }
+
+    @Test
+    void testPutText_EscapesDelimitersAndBackslash() throws SQLException {
+        // When
+        buffer.putText("A\tB\nC\\N\rD");
+        buffer.tab();
+        buffer.putText("");
+        buffer.tab();
+        buffer.putText("Pré-EMI");
+
+        // Then
+        assertEquals("A\\tB\\nC\\\\N\\rD\t\tPré-EMI", flushed());
+    }
+
+    @Test
+    void testFlushesAcrossBufferBoundary() throws SQLException {
+        // Given: escapes straddling the 64 KB buffer boundary
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 30000; i++) {
+            text.append("x\t");
+        }
+
+        // When
+        buffer.putText(text.toString());
+
+        // Then
+        assertEquals(text.toString().replace("\t", "\\t"), flushed());
+    }
+
+    private String flushed() throws SQLException {
+        buffer.flush();
+        return written.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+package com.mybank.lms.repository;
+
+import com.mybank.lms.calculator.ScheduleBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleBlobCodecTest {
+
+    private RepaymentRowBatch rows;
+
+    @BeforeEach
+    void setUp() {
+        // Out of month order, with missing values, a null type and amounts that fall, go negative and grow large
+        rows = new RepaymentRowBatch();
+        rows.add(2, 19783, 4339100L, 800000L, 3539100L, 499200000L, "EMI");
+        rows.add(1, 19754, 4339100L, 793000L, 3546100L, 500000000L, "EMI");
+        rows.add(3, ScheduleBuffer.NO_DATE, RepaymentRowBatch.NO_AMOUNT, -2500L, RepaymentRowBatch.NO_AMOUNT,
+            RepaymentRowBatch.NO_AMOUNT, null);
+        rows.add(4, 19814, 0L, -Long.MAX_VALUE / 4, 125L, 0L, "PREPAYMENT");
+        rows.add(5, 19600, Long.MAX_VALUE / 4, 1L, -1L, -99L, "EMI");
+    }
+
+    @Test
+    void testRoundTripKeepsNullsAndNegativeDeltasInMonthOrder() {
+        // When
+        RepaymentRowBatch decoded = ScheduleBlobCodec.decode(ScheduleBlobCodec.encode(rows));
+
+        // Then
+        assertEquals(5, decoded.size());
+        int[] source = {1, 0, 2, 3, 4};
+        for (int i = 0; i < decoded.size(); i++) {
+            int j = source[i];
+            assertEquals(i + 1, decoded.getMonthNumber(i));
+            assertEquals(rows.getEpochDay(j), decoded.getEpochDay(i));
+            assertEquals(rows.getEmi(j), decoded.getEmi(i));
+            assertEquals(rows.getPrincipalPaid(j), decoded.getPrincipalPaid(i));
+            assertEquals(rows.getInterestPaid(j), decoded.getInterestPaid(i));
+            assertEquals(rows.getRemainingBalance(j), decoded.getRemainingBalance(i));
+            assertEquals(rows.getPaymentType(j), decoded.getPaymentType(i));
+        }
+        assertEquals(0, ScheduleBlobCodec.decode(ScheduleBlobCodec.encode(new RepaymentRowBatch())).size());
+    }
+
+    @Test
+    void testDecodeMonthRange() {
+        // Given
+        byte[] blob = ScheduleBlobCodec.encode(rows);
+
+        // When
+        RepaymentRowBatch middle = ScheduleBlobCodec.decode(blob, 2, 4);
+        RepaymentRowBatch last = ScheduleBlobCodec.decode(blob, 5, 100);
+        RepaymentRowBatch none = ScheduleBlobCodec.decode(blob, 6, 10);
+
+        // Then
+        assertEquals(3, middle.size());
+        assertEquals(2, middle.getMonthNumber(0));
+        assertEquals(4, middle.getMonthNumber(2));
+        assertEquals(ScheduleBuffer.NO_DATE, middle.getEpochDay(1));
+        assertEquals(-2500L, middle.getPrincipalPaid(1));
+        assertEquals(-Long.MAX_VALUE / 4, middle.getPrincipalPaid(2));
+        assertEquals(1, last.size());
+        assertEquals(Long.MAX_VALUE / 4, last.getEmi(0));
+        assertEquals(19600, last.getEpochDay(0));
+        assertEquals(0, none.size());
+    }
+
+    @Test
+    void testTruncatedOrCorruptBlobFails() throws IOException {
+        // Given
+        byte[] blob = ScheduleBlobCodec.encode(rows);
+        byte[] truncated = Arrays.copyOf(blob, blob.length / 2);
+        byte[] garbage = blob.clone();
+        Arrays.fill(garbage, 1, garbage.length, (byte) 0x5A);
+        ByteArrayOutputStream unknownType = new ByteArrayOutputStream();
+        unknownType.write(ScheduleBlobCodec.FORMAT_V1);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(unknownType)) {
+            // One row, no payment types, a record pointing at type 3
+            out.write(new byte[] {1, 0, 0, 2, 3});
+        }
+
+        // Then
+        assertEquals("Corrupt schedule blob",
+            assertThrows(IllegalArgumentException.class, () -> ScheduleBlobCodec.decode(truncated)).getMessage());
+        assertEquals("Corrupt schedule blob",
+            assertThrows(IllegalArgumentException.class, () -> ScheduleBlobCodec.decode(garbage)).getMessage());
+        IllegalArgumentException badIndex = assertThrows(IllegalArgumentException.class,
+            () -> ScheduleBlobCodec.decode(unknownType.toByteArray()));
+        assertEquals("Invalid payment type index 3", badIndex.getCause().getMessage());
+        assertEquals("Unsupported schedule blob format",
+            assertThrows(IllegalArgumentException.class, () -> ScheduleBlobCodec.decode(new byte[] {9, 1, 2}))
+                .getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ScheduleBlobCodec.decode(new byte[0]));
+    }
+}
@@ -1,7 +1,10 @@
 package com.mybank.lms.service;
 
+import com.mybank.lms.calculator.AprSolver;
+import com.mybank.lms.calculator.LoanCalculator;
 import com.mybank.lms.calculator.LoanInput;
 import com.mybank.lms.calculator.LoanOutput;
+import com.mybank.lms.calculator.ScheduleCheckpoint;
 import com.mybank.lms.model.dto.LoanInputDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,10 +13,11 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,30 +27,32 @@ class AprCalculationServiceTest {
     @InjectMocks
     private AprCalculationService aprCalculationService;
 
+    private static final double EMI = 8884.88;
+
     private LoanInput loanInput;
     private LoanOutput loanOutput;
     private List<LoanInputDTO.LoanChargeDTO> charges;
 
     @BeforeEach
     void setUp() {
-        // Setup LoanInput
+        // Setup LoanInput: 1 lakh at 12% for 12 months, disbursed on the issue date
         loanInput = new LoanInput();
-        loanInput.setPrincipal(5000000.0); // 50 lakh
+        loanInput.setPrincipal(100000.0);
         loanInput.setMonths(12);
-        loanInput.setAnnualRate(8.5);
+        loanInput.setAnnualRate(12.0);
+        loanInput.setLoanIssueDate(LocalDate.of(2023, 1, 1));
+        loanInput.setStartDate(LocalDate.of(2023, 2, 1));
         
         // Setup LoanOutput
         loanOutput = new LoanOutput();
-        loanOutput.setInitialEMI(43000.0);
+        loanOutput.setInitialEMI(EMI);
         
-        // Create sample payment schedule
+        // Create sample payment schedule: 12 level EMIs on the 1st of each month
         List<LoanOutput.MonthlyPayment> schedule = new ArrayList<>();
-        LocalDate startDate = LocalDate.now();
-        
         for (int i = 1; i <= 12; i++) {
             LoanOutput.MonthlyPayment payment = new LoanOutput.MonthlyPayment(
-                i, 43000.0, 20000.0, 23000.0, 4800000.0 - (i * 20000.0), 
-                8.5, startDate.plusMonths(i), "NORMAL"
+                i, EMI, 7000.0, EMI - 7000.0, 100000.0 - (i * 7000.0), 
+                12.0, LocalDate.of(2023, 1, 1).plusMonths(i), "NORMAL"
             );
             schedule.add(payment);
         }
@@ -57,14 +63,14 @@ class AprCalculationServiceTest {
         LoanInputDTO.LoanChargeDTO processingFee = new LoanInputDTO.LoanChargeDTO();
         processingFee.setChargeType("Processing Fee");
         processingFee.setPayableTo("Bank");
-        processingFee.setAmount(BigDecimal.valueOf(50000.0));
+        processingFee.setAmount(BigDecimal.valueOf(1000.0));
         processingFee.setIsRecurring(false);
         charges.add(processingFee);
         
         LoanInputDTO.LoanChargeDTO legalFee = new LoanInputDTO.LoanChargeDTO();
         legalFee.setChargeType("Legal Fee");
         legalFee.setPayableTo("Lawyer");
-        legalFee.setAmount(BigDecimal.valueOf(25000.0));
+        legalFee.setAmount(BigDecimal.valueOf(500.0));
         legalFee.setIsRecurring(false);
         charges.add(legalFee);
     }
@@ -75,16 +81,9 @@ class AprCalculationServiceTest {
         BigDecimal apr = aprCalculationService.calculateAPR(loanInput, loanOutput, charges);
 
         // Then
-        assertNotNull(apr);
-        assertTrue(apr.compareTo(BigDecimal.ZERO) > 0);
-        
-        // Calculate expected APR manually
-        // Total interest = 12 * 23000 = 276000
-        // Total fees = 50000 + 25000 = 75000
-        // Fee and interest rate = ((75000 + 276000) / 5000000 / 12) * 100 = 0.585%
-        // APR = 0.585% + 8.5% = 9.085%
-        BigDecimal expectedAPR = BigDecimal.valueOf(9.085).setScale(4, RoundingMode.HALF_UP);
-        assertEquals(expectedAPR, apr);
+        // One-off fees of 1500 are received on the disbursement date, so the net amount financed is 98500
+        assertEquals(0.0, presentValue(apr, -98500.0, 0.0), 0.1);
+        assertTrue(apr.compareTo(aprCalculationService.calculateAPR(loanInput, loanOutput, new ArrayList<>())) > 0);
     }
 
     @Test
@@ -96,16 +95,10 @@ class AprCalculationServiceTest {
         BigDecimal apr = aprCalculationService.calculateAPR(loanInput, loanOutput, emptyCharges);
 
         // Then
-        assertNotNull(apr);
-        assertTrue(apr.compareTo(BigDecimal.ZERO) > 0);
+        assertEquals(0.0, presentValue(apr, -100000.0, 0.0), 0.1);
         
-        // Calculate expected APR manually
-        // Total interest = 12 * 23000 = 276000
-        // Total fees = 0
-        // Fee and interest rate = ((0 + 276000) / 5000000 / 12) * 100 = 0.46%
-        // APR = 0.46% + 8.5% = 8.96%
-        BigDecimal expectedAPR = BigDecimal.valueOf(8.96).setScale(4, RoundingMode.HALF_UP);
-        assertEquals(expectedAPR, apr);
+        // 1% a month is 12.68% a year effective; calendar month lengths move the XIRR only slightly
+        assertEquals(12.68, apr.doubleValue(), 0.1);
     }
 
     @Test
@@ -115,7 +108,7 @@ class AprCalculationServiceTest {
         LoanInputDTO.LoanChargeDTO monthlyFee = new LoanInputDTO.LoanChargeDTO();
         monthlyFee.setChargeType("Monthly Service Fee");
         monthlyFee.setPayableTo("Bank");
-        monthlyFee.setAmount(BigDecimal.valueOf(1000.0));
+        monthlyFee.setAmount(BigDecimal.valueOf(100.0));
         monthlyFee.setIsRecurring(true);
         recurringCharges.add(monthlyFee);
 
@@ -123,20 +116,32 @@ class AprCalculationServiceTest {
         BigDecimal apr = aprCalculationService.calculateAPR(loanInput, loanOutput, recurringCharges);
 
         // Then
-        assertNotNull(apr);
-        assertTrue(apr.compareTo(BigDecimal.ZERO) > 0);
-        
-        // Calculate expected APR manually
-        // Total interest = 12 * 23000 = 276000
-        // Total fees = 1000 * 12 = 12000 (recurring)
-        // Fee and interest rate = ((12000 + 276000) / 5000000 / 12) * 100 = 0.48%
-        // APR = 0.48% + 8.5% = 8.98%
-        BigDecimal expectedAPR = BigDecimal.valueOf(8.98).setScale(4, RoundingMode.HALF_UP);
-        assertEquals(expectedAPR, apr);
+        // The recurring fee is paid with every EMI
+        assertEquals(0.0, presentValue(apr, -100000.0, 100.0), 0.1);
+    }
+
+    @Test
+    void testCalculateAPR_CheckpointMatchesFullRebuild() {
+        // Given: a 31-day broken period, collected upfront rather than with the first EMI
+        loanInput.setMonths(60);
+        loanInput.setStartDate(LocalDate.of(2023, 2, 1));
+        loanInput.addMoratoriumPeriod(24, 26, LoanInput.MoratoriumType.INTEREST_ONLY, 0);
+        LoanOutput full = LoanCalculator.calculateLoan(loanInput);
+        ScheduleCheckpoint checkpoint = ScheduleCheckpoint.fromSchedule(full.getScheduleBuffer(), 23, 0);
+
+        // When
+        LoanOutput resumed = LoanCalculator.calculateFromCheckpoint(loanInput, checkpoint);
+
+        // Then
+        assertNotNull(resumed.getBrokenPeriodInterest());
+        assertFalse(resumed.getBrokenPeriodInterest().isAddedToFirstEMI());
+        assertEquals(full.getBrokenPeriodInterest().getInterestAmount(), resumed.getBrokenPeriodInterest().getInterestAmount());
+        assertEquals(aprCalculationService.calculateAPR(loanInput, full, charges),
+            aprCalculationService.calculateAPR(loanInput, resumed, charges));
     }
 
     @Test
-    void testCalculateAPR_FallbackToNominalRate() {
+    void testCalculateAPR_FallbackToEffectiveNominalRate() {
         // Given - null loanOutput to trigger exception
         LoanOutput nullOutput = null;
 
@@ -144,7 +149,51 @@ class AprCalculationServiceTest {
         BigDecimal apr = aprCalculationService.calculateAPR(loanInput, nullOutput, charges);
 
         // Then
+        // 12% compounded monthly, the basis a solved APR is quoted on
         assertNotNull(apr);
-        assertEquals(BigDecimal.valueOf(8.5).setScale(4, RoundingMode.HALF_UP), apr);
+        assertEquals(new BigDecimal("12.6825"), apr);
+    }
+
+    @Test
+    void testCalculateAPRs_BatchMatchesSingleSolves() {
+        // Given
+        List<LoanInput> inputs = new ArrayList<>();
+        List<LoanOutput> outputs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LoanInput input = new LoanInput();
+            input.setPrincipal(1000000.0 + i * 25000.0);
+            input.setAnnualRate(7.0 + i * 0.1);
+            input.setMonths(60 + i * 6);
+            input.setLoanIssueDate(LocalDate.of(2024, 1, 25));
+            input.setStartDate(LocalDate.of(2024, 2, 5));
+            inputs.add(input);
+            outputs.add(LoanCalculator.calculateLoan(input));
+        }
+
+        // When
+        List<AprCalculationService.AprResult> results =
+            aprCalculationService.calculateAPRs(inputs, outputs, null, ForkJoinPool.commonPool());
+
+        // Then
+        assertEquals(inputs.size(), results.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            AprCalculationService.AprResult result = results.get(i);
+            assertTrue(result.isConverged());
+            assertTrue(result.getIterations() > 0 && result.getIterations() <= AprSolver.MAX_ITERATIONS);
+            assertEquals(aprCalculationService.calculateAPR(inputs.get(i), outputs.get(i), null), result.getApr());
+            assertEquals(aprCalculationService.calculateAPR(inputs.get(i), null), result.getApr());
+        }
+    }
+
+    // Present value at the APR of the disbursement plus the 12 EMIs (and any per-EMI fee), on actual/365
+    private double presentValue(BigDecimal apr, double disbursement, double perInstallment) {
+        double rate = apr.doubleValue() / 100;
+        LocalDate disbursed = LocalDate.of(2023, 1, 1);
+        double value = disbursement;
+        for (int i = 1; i <= 12; i++) {
+            double years = ChronoUnit.DAYS.between(disbursed, disbursed.plusMonths(i)) / 365.0;
+            value += (EMI + perInstallment) / Math.pow(1 + rate, years);
+        }
+        return value;
     }
 }
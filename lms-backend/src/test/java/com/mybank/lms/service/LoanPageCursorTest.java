@@ -0,0 +1,117 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.model.dto.LoanPageDTO;
+import com.mybank.lms.model.dto.LoanSummaryDTO;
+import com.mybank.lms.repository.LoanPageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanPageCursorTest {
+
+    @Mock
+    private LoanPageRepository loanPageRepository;
+
+    @InjectMocks
+    private LoanService loanService;
+
+    @Test
+    void testCursorRoundTrip() {
+        // Given: whole-minute and sub-second creation times, which print differently
+        LoanSummaryDTO first = loan(LocalDateTime.of(2024, 3, 1, 12, 0));
+        LoanSummaryDTO second = loan(LocalDateTime.of(2024, 2, 29, 9, 15, 30, 123456000));
+        LoanSummaryDTO third = loan(LocalDateTime.of(2024, 2, 1, 8, 0));
+        when(loanPageRepository.findPage(any(), any(), any(), any(), isNull(), isNull(), eq(2)))
+            .thenReturn(new ArrayList<>(List.of(first, second)));
+        when(loanPageRepository.findPage(any(), any(), any(), any(), isNull(), isNull(), eq(3)))
+            .thenReturn(new ArrayList<>(List.of(first, second, third)));
+
+        // When
+        LoanPageDTO onePage = loanService.getLoanPage(null, null, null, null, null, 1);
+        LoanPageDTO twoPage = loanService.getLoanPage(null, null, null, null, null, 2);
+        loanService.getLoanPage(null, null, null, null, onePage.getNextCursor(), 1);
+        loanService.getLoanPage(null, null, null, null, twoPage.getNextCursor(), 2);
+
+        // Then
+        assertEquals(1, onePage.getLoans().size());
+        assertEquals(2, twoPage.getLoans().size());
+        verify(loanPageRepository).findPage(null, null, null, null, first.getCreatedAt(), first.getLoanId(), 2);
+        verify(loanPageRepository).findPage(null, null, null, null, second.getCreatedAt(), second.getLoanId(), 3);
+    }
+
+    @Test
+    void testCursorBreaksTiesOnId() {
+        // Given: two loans created in the same instant
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 0, 5);
+        LoanSummaryDTO higher = loan(createdAt, UUID.fromString("00000000-0000-0000-0000-00000000000b"));
+        LoanSummaryDTO lower = loan(createdAt, UUID.fromString("00000000-0000-0000-0000-00000000000a"));
+        when(loanPageRepository.findPage(any(), any(), any(), any(), isNull(), isNull(), anyInt()))
+            .thenReturn(new ArrayList<>(List.of(higher, lower)));
+        when(loanPageRepository.findPage(any(), any(), any(), any(), eq(createdAt), eq(higher.getLoanId()), anyInt()))
+            .thenReturn(new ArrayList<>(List.of(lower)));
+
+        // When
+        LoanPageDTO page = loanService.getLoanPage(null, null, null, null, null, 1);
+        LoanPageDTO next = loanService.getLoanPage(null, null, null, null, page.getNextCursor(), 1);
+
+        // Then: the second page starts after the first loan's id, not after its timestamp
+        assertEquals(higher.getLoanId(), page.getLoans().get(0).getLoanId());
+        assertEquals(lower.getLoanId(), next.getLoans().get(0).getLoanId());
+        assertNull(next.getNextCursor());
+        verify(loanPageRepository).findPage(null, null, null, null, createdAt, higher.getLoanId(), 2);
+    }
+
+    @Test
+    void testMalformedCursorsAreRejected() {
+        // Given
+        String validId = UUID.randomUUID().toString();
+        List<String> cursors = List.of(
+            "not*base64!",
+            encode("2024-03-01T12:00"),
+            encode("2024-03-01T12:00|" + validId + "|extra"),
+            encode("2024-03-01T12:00|" + validId + "|"),
+            encode("yesterday|" + validId),
+            encode("2024-03-01T12:00|not-a-uuid"),
+            encode("|" + validId));
+
+        // Then
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> loanService.getLoanPage(null, null, null, null, cursor, 10), cursor);
+            assertEquals("Invalid cursor: " + cursor, e.getMessage());
+        }
+        verify(loanPageRepository, never()).findPage(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LoanSummaryDTO loan(LocalDateTime createdAt) {
+        return loan(createdAt, UUID.randomUUID());
+    }
+
+    private static LoanSummaryDTO loan(LocalDateTime createdAt, UUID loanId) {
+        LoanSummaryDTO loan = new LoanSummaryDTO();
+        loan.setLoanId(loanId);
+        loan.setCreatedAt(createdAt);
+        return loan;
+    }
+}
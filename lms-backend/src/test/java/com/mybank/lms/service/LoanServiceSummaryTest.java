@@ -0,0 +1,100 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.model.dto.LoanOutputDTO;
+import com.mybank.lms.model.dto.RepaymentScheduleDTO;
+import com.mybank.lms.model.entity.LoanEntity;
+import com.mybank.lms.model.entity.LoanSummaryEntity;
+import com.mybank.lms.repository.LoanRepository;
+import com.mybank.lms.repository.LoanSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanServiceSummaryTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private RepaymentSnapshotService repaymentSnapshotService;
+
+    @Mock
+    private LoanSummaryRepository loanSummaryRepository;
+
+    @InjectMocks
+    private LoanService loanService;
+
+    private LoanEntity loan;
+    private RepaymentScheduleDTO schedule;
+    private LoanSummaryEntity summary;
+
+    @BeforeEach
+    void setUp() {
+        loan = new LoanEntity();
+        loan.setId(UUID.randomUUID());
+        loan.setPrincipal(new BigDecimal("100000.00"));
+        loan.setRateType(LoanEntity.RateType.FIXED);
+
+        // The schedule of the current snapshot: two installments of 51000.00
+        schedule = new RepaymentScheduleDTO();
+        schedule.setSnapshotId(UUID.randomUUID());
+        List<RepaymentScheduleDTO.RepaymentRowDTO> rows = new ArrayList<>();
+        for (String interest : new String[] {"1200.00", "800.00"}) {
+            RepaymentScheduleDTO.RepaymentRowDTO row = new RepaymentScheduleDTO.RepaymentRowDTO();
+            row.setEmi(new BigDecimal("51000.00"));
+            row.setInterestPaid(new BigDecimal(interest));
+            rows.add(row);
+        }
+        schedule.setRepaymentRows(rows);
+
+        summary = new LoanSummaryEntity();
+        summary.setLoanId(loan.getId());
+        summary.setInitialEmi(new BigDecimal("99999.00"));
+        summary.setTotalInterest(new BigDecimal("5000.00"));
+        summary.setTotalAmountPayable(new BigDecimal("105000.00"));
+
+        when(loanRepository.findById(loan.getId())).thenReturn(Optional.of(loan));
+        when(repaymentSnapshotService.getLatestRepaymentSchedule(loan.getId())).thenReturn(schedule);
+        when(loanSummaryRepository.findById(loan.getId())).thenReturn(Optional.of(summary));
+    }
+
+    @Test
+    void testSummaryOfTheCurrentSnapshotIsUsed() {
+        // Given
+        summary.setSnapshotId(schedule.getSnapshotId());
+
+        // When
+        LoanOutputDTO dto = loanService.getLoanById(loan.getId());
+
+        // Then
+        assertEquals(new BigDecimal("99999.00"), dto.getInitialEmi());
+        assertEquals(new BigDecimal("5000.00"), dto.getTotalInterest());
+    }
+
+    @Test
+    void testStaleSummaryFallsBackToTheSchedule() {
+        // Given: the summary row was written for an earlier snapshot
+        summary.setSnapshotId(UUID.randomUUID());
+
+        // When
+        LoanOutputDTO dto = loanService.getLoanById(loan.getId());
+
+        // Then
+        assertEquals(new BigDecimal("51000.00"), dto.getInitialEmi());
+        assertEquals(new BigDecimal("2000.00"), dto.getTotalInterest());
+        assertEquals(new BigDecimal("102000.00"), dto.getTotalAmountPayable());
+    }
+}
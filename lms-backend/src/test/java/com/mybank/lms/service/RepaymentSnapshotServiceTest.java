@@ -0,0 +1,185 @@
+package com.mybank.lms.service;
+
+import com.mybank.lms.calculator.LoanCalculator;
+import com.mybank.lms.calculator.LoanInput;
+import com.mybank.lms.model.entity.LoanEntity;
+import com.mybank.lms.model.entity.RepaymentRowEntity;
+import com.mybank.lms.model.entity.RepaymentSnapshotEntity;
+import com.mybank.lms.repository.LoanRepository;
+import com.mybank.lms.repository.LoanSummaryRepository;
+import com.mybank.lms.repository.RepaymentRowBatch;
+import com.mybank.lms.repository.RepaymentRowRepository;
+import com.mybank.lms.repository.RepaymentRowWriter;
+import com.mybank.lms.repository.RepaymentSnapshotRepository;
+import com.mybank.lms.repository.ScheduleBlobCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepaymentSnapshotServiceTest {
+
+    @Mock
+    private RepaymentSnapshotRepository snapshotRepository;
+
+    @Mock
+    private RepaymentRowRepository rowRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private RepaymentRowWriter rowWriter;
+
+    @Mock
+    private LoanSummaryRepository loanSummaryRepository;
+
+    @InjectMocks
+    private RepaymentSnapshotService snapshotService;
+
+    private LoanEntity loan;
+    private RepaymentSnapshotEntity parent;
+    private RepaymentSnapshotEntity child;
+    private List<RepaymentRowEntity> parentRows;
+
+    @BeforeEach
+    void setUp() {
+        loan = new LoanEntity();
+        loan.setId(UUID.randomUUID());
+
+        // Parent stores months 1-4 as rows; the child inherits months 1-2 as PAID and stores 3-4 in a blob
+        parent = snapshot();
+        parentRows = new ArrayList<>();
+        for (int month = 1; month <= 4; month++) {
+            RepaymentRowEntity row = new RepaymentRowEntity();
+            row.setId(UUID.randomUUID());
+            row.setSnapshot(parent);
+            row.setLoanId(loan.getId());
+            row.setMonthNumber(month);
+            row.setPaymentDate(LocalDate.of(2024, 1 + month, 1));
+            row.setEmi(new BigDecimal("43391.00"));
+            row.setPrincipalPaid(new BigDecimal("7000.00"));
+            row.setInterestPaid(new BigDecimal("36391.00"));
+            row.setRemainingBalance(BigDecimal.valueOf(5000000 - month * 7000L).setScale(2));
+            row.setPaymentType("NORMAL");
+            row.setChangeMarker(month == 2);
+            parentRows.add(row);
+        }
+
+        child = snapshot();
+        child.setParentSnapshot(parent);
+        child.setInheritedThroughMonth(2);
+        child.setInheritedPaymentType("PAID");
+        child.setChainDepth(1);
+        RepaymentRowBatch own = new RepaymentRowBatch();
+        own.add(3, LocalDate.of(2024, 4, 1), new BigDecimal("44000.00"), new BigDecimal("7500.00"),
+            new BigDecimal("36500.00"), new BigDecimal("4978500.00"), "FUTURE");
+        own.add(4, LocalDate.of(2024, 5, 1), new BigDecimal("44000.00"), new BigDecimal("7600.00"),
+            new BigDecimal("36400.00"), new BigDecimal("4970900.00"), "FUTURE");
+        child.setScheduleBlob(ScheduleBlobCodec.encode(own));
+        child.setScheduleRowCount(own.size());
+    }
+
+    @Test
+    void testLoadRows_MergesInheritedAndOwnRows() {
+        // Given
+        when(rowRepository.findByLoanIdAndSnapshotIdAndMonthNumberBetweenOrderByMonthNumber(
+            loan.getId(), parent.getId(), Integer.MIN_VALUE, 2)).thenReturn(parentRows.subList(0, 2));
+
+        // When
+        List<RepaymentRowEntity> rows = snapshotService.loadRows(child);
+
+        // Then
+        assertEquals(4, rows.size());
+        for (int i = 0; i < 2; i++) {
+            RepaymentRowEntity row = rows.get(i);
+            assertEquals(i + 1, row.getMonthNumber());
+            assertEquals("PAID", row.getPaymentType());
+            assertSame(child, row.getSnapshot());
+            assertNull(row.getId());
+            assertEquals(parentRows.get(i).getChangeMarker(), row.getChangeMarker());
+            assertEquals(parentRows.get(i).getRemainingBalance(), row.getRemainingBalance());
+            assertEquals("NORMAL", parentRows.get(i).getPaymentType());
+        }
+        assertEquals(3, rows.get(2).getMonthNumber());
+        assertEquals("FUTURE", rows.get(2).getPaymentType());
+        assertEquals(new BigDecimal("4970900.00"), rows.get(3).getRemainingBalance());
+    }
+
+    @Test
+    void testGetRepaymentSchedule_MonthRangeAcrossTheInheritedBoundary() {
+        // Given
+        when(snapshotRepository.findLatestByLoanId(loan.getId())).thenReturn(Optional.of(child));
+        when(rowRepository.findByLoanIdAndSnapshotIdAndMonthNumberBetweenOrderByMonthNumber(
+            loan.getId(), parent.getId(), 2, 2)).thenReturn(parentRows.subList(1, 2));
+
+        // When
+        List<Integer> months = new ArrayList<>();
+        snapshotService.getRepaymentSchedule(loan.getId(), 2, 3).getRepaymentRows()
+            .forEach(row -> months.add(row.getMonthNumber()));
+        List<Integer> ownOnly = new ArrayList<>();
+        snapshotService.getRepaymentSchedule(loan.getId(), 3, 10).getRepaymentRows()
+            .forEach(row -> ownOnly.add(row.getMonthNumber()));
+
+        // Then
+        assertEquals(List.of(2, 3), months);
+        assertEquals(List.of(3, 4), ownOnly);
+        verify(rowRepository, times(1)).findByLoanIdAndSnapshotIdAndMonthNumberBetweenOrderByMonthNumber(
+            any(), any(), any(), any());
+    }
+
+    @Test
+    void testPublishingMovesTheManagedLoansPointer() {
+        // Given
+        loan.setPrincipal(new BigDecimal("1000000.00"));
+        loan.setAnnualRate(new BigDecimal("8.5"));
+        loan.setMonths(12);
+        loan.setRateType(LoanEntity.RateType.FIXED);
+        loan.setCurrentSnapshotId(parent.getId());
+        loan.setCurrentSnapshotVersion(4);
+        LoanInput input = new LoanInput();
+        input.setPrincipal(1000000.0);
+        input.setAnnualRate(8.5);
+        input.setMonths(12);
+        input.setLoanIssueDate(LocalDate.of(2024, 1, 1));
+        input.setStartDate(LocalDate.of(2024, 2, 1));
+        when(loanRepository.lockCurrentSnapshotVersion(loan.getId())).thenReturn(4);
+        when(snapshotRepository.save(any(RepaymentSnapshotEntity.class))).thenAnswer(invocation -> {
+            RepaymentSnapshotEntity saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+        when(loanSummaryRepository.findById(loan.getId())).thenReturn(Optional.empty());
+
+        // When
+        RepaymentSnapshotEntity created = snapshotService.createInitialSnapshot(loan,
+            LoanCalculator.calculateLoan(input), new BigDecimal("8.8000"));
+
+        // Then
+        assertEquals(5, created.getVersion());
+        verify(loanRepository).publishSnapshot(loan.getId(), created.getId(), 5);
+        assertEquals(created.getId(), loan.getCurrentSnapshotId());
+        assertEquals(5, loan.getCurrentSnapshotVersion());
+    }
+
+    private RepaymentSnapshotEntity snapshot() {
+        RepaymentSnapshotEntity snapshot = new RepaymentSnapshotEntity();
+        snapshot.setId(UUID.randomUUID());
+        snapshot.setLoan(loan);
+        return snapshot;
+    }
+}
@@ -15,8 +15,8 @@ const Dashboard = () => {
   const fetchRecentLoans = async () => {
     setLoading(true);
     try {
-      const response = await loanService.getAllLoans();
-      setLoans(response.data.slice(0, 5)); // Show only recent 5 loans
+      const response = await loanService.getLoanSummaries({ limit: 5 });
+      setLoans(response.data.loans); // Show only recent 5 loans
     } catch (error) {
       console.error('Error fetching loans:', error);
       // Set mock data for demo
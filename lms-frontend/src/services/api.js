@@ -32,6 +32,7 @@ api.interceptors.response.use(
 export const loanService = {
   createLoan: (loanData) => api.post('/loans', loanData),
   getAllLoans: () => api.get('/loans'),
+  getLoanSummaries: (params = {}) => api.get('/loans/summaries', { params }),
   getLoanKFS: (loanId) => api.get(`/loans/${loanId}`),
   getKfsVersions: (loanId) => api.get(`/loans/${loanId}/kfs-versions`),
   getKfsVersion: (loanId, versionNumber) => api.get(`/loans/${loanId}/kfs-versions/${versionNumber}`),